@@ -0,0 +1,77 @@
+package com.company;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.security.SecureRandom;
+import java.security.spec.KeySpec;
+import java.util.concurrent.TimeUnit;
+import javax.crypto.SecretKeyFactory;
+import javax.crypto.spec.PBEKeySpec;
+
+/**
+ * Password hashes per second. The single-threaded methods give the rate of one core; the
+ * allCores methods run one thread per available processor, so their score divided by the
+ * core count is the per-core rate under full load.
+ * Run with: mvn -Pbenchmark test-compile exec:exec
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PasswordHashBenchmark {
+
+    private static final String PASSWORD = "Morning-Login-1!";
+
+    private String stored;
+
+    @Setup
+    public void setUp() {
+        stored = PasswordHasher.hash(PASSWORD);
+    }
+
+    // What hashPassword did before: a factory lookup and String.format per byte on every call
+    @Benchmark
+    @Threads(1)
+    public String legacyHash() throws Exception {
+
+        byte[] salt = new byte[16];
+        new SecureRandom().nextBytes(salt);
+
+        KeySpec spec = new PBEKeySpec(PASSWORD.toCharArray(), salt, 10000, 256);
+        SecretKeyFactory factory = SecretKeyFactory.getInstance("PBKDF2WithHmacSHA256");
+        byte[] hash = factory.generateSecret(spec).getEncoded();
+
+        StringBuilder hex = new StringBuilder();
+        for (byte b : salt)
+            hex.append(String.format("%02x", b));
+        for (byte b : hash)
+            hex.append(String.format("%02x", b));
+        return hex.toString();
+    }
+
+    @Benchmark
+    @Threads(1)
+    public String hash() {
+        return PasswordHasher.hash(PASSWORD);
+    }
+
+    @Benchmark
+    @Threads(1)
+    public boolean verify() {
+        return PasswordHasher.matches(PASSWORD, stored);
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public String hashAllCores() {
+        return PasswordHasher.hash(PASSWORD);
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public boolean verifyAllCores() {
+        return PasswordHasher.matches(PASSWORD, stored);
+    }
+}
@@ -0,0 +1,58 @@
+package com.company;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares SensorTimestampParser with the exception-driven parsing readSensorData used to do,
+ * which built a new formatter per line and fell through to now() on every HH:mm value.
+ * Run with: mvn -Pbenchmark test-compile exec:exec
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SensorTimestampBenchmark {
+
+    @Param({"2025-04-11 12:30:45", "10:15", "invalid-date"})
+    public String timestamp;
+
+    @Benchmark
+    public LocalDateTime legacy() {
+
+        LocalDateTime parsed;
+        try {
+            DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+            parsed = LocalDateTime.parse(timestamp, formatter);
+        } catch (Exception e1) {
+            try {
+                DateTimeFormatter formatter = DateTimeFormatter.ofPattern("HH:mm");
+                parsed = LocalDateTime.parse(timestamp, formatter);
+            } catch (Exception e2) {
+                parsed = LocalDateTime.now();
+            }
+        }
+        return parsed;
+    }
+
+    @Benchmark
+    public LocalDateTime cachedFormatter() {
+
+        try {
+            return LocalDateTime.parse(timestamp, SensorTimestampParser.DATE_TIME);
+        } catch (Exception e) {
+            return LocalDateTime.now();
+        }
+    }
+
+    @Benchmark
+    public LocalDateTime fixedWidth() {
+
+        return SensorTimestampParser.parseOrNow(timestamp);
+    }
+}
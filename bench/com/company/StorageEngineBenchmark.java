@@ -0,0 +1,78 @@
+package com.company;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Compares the CSV and binary storage engines on a users-sized table: a lookup by key and a
+ * single-field update, the two calls the database helpers make most.
+ * Run with: mvn -Pbenchmark test-compile exec:exec
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class StorageEngineBenchmark {
+
+    private static final String HEADER = "UserID,Email,Password,FirstName,LastName,Type,Plate";
+
+    @Param({"csv", "binary"})
+    public String engine;
+
+    @Param({"1000", "10000"})
+    public int rows;
+
+    private Path dir;
+    private RecordTable table;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+
+        dir = Files.createTempDirectory("storage-bench");
+        Path csv = dir.resolve("Users.csv");
+
+        List<String> lines = new ArrayList<>(rows + 1);
+        lines.add(HEADER);
+        for (int i = 0; i < rows; i++)
+            lines.add((1001 + i) + ",user" + i + "@yorku.ca,hash,First,Last,Student,TBD");
+        Files.write(csv, lines);
+
+        if (engine.equals(CsvStorageEngine.NAME))
+            table = new CsvRecordTable(csv.toString(), 1, null);
+        else
+            table = new BinaryRecordTable(dir.resolve("Users.bin").toString(), csv.toString(), 1, null);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+
+        try (Stream<Path> files = Files.walk(dir)) {
+            files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    @Benchmark
+    public String[] findRecord() throws IOException {
+
+        next = (next + 7919) % rows;
+        return table.findRecord("user" + next + "@yorku.ca");
+    }
+
+    @Benchmark
+    public void appendUpdate() throws IOException {
+
+        next = (next + 7919) % rows;
+        table.appendUpdate("user" + next + "@yorku.ca", 6, "P" + next);
+    }
+}
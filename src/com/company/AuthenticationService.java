@@ -1,17 +1,13 @@
 package com.company;
 
-import java.security.spec.InvalidKeySpecException;
+import java.util.concurrent.CompletableFuture;
 import java.util.regex.Pattern;
-import java.security.NoSuchAlgorithmException;
-import java.security.SecureRandom;
-import java.security.spec.KeySpec;
-import javax.crypto.SecretKeyFactory;
-import javax.crypto.spec.PBEKeySpec;
 
 
 public class AuthenticationService {
 
     protected UserDatabaseHelper userData; // Simulated user database
+    private final PasswordHashingPool hashingPool;
 
     /**
      * Constructor for the AuthenticationService class
@@ -19,7 +15,16 @@ public class AuthenticationService {
      */
     public AuthenticationService(UserDatabaseHelper userData) {
 
+        this(userData, PasswordHashingPool.getShared());
+    }
+
+    /**
+     * @param hashingPool the pool the asynchronous calls hash on
+     */
+    public AuthenticationService(UserDatabaseHelper userData, PasswordHashingPool hashingPool) {
+
         this.userData = userData;
+        this.hashingPool = hashingPool;
     }
     
 
@@ -41,47 +46,41 @@ public class AuthenticationService {
         if (storedUser == null)
             return false;
  
-        // Get the stored password (which is hashed)
-        String storedHashedPassword = storedUser.getPassword();
-        
-        try {
-            // Extract the salt from the stored password hash
-            // The first 32 characters (16 bytes) of the hex string represent the salt
-            byte[] saltBytes = new byte[16];
-            for (int i = 0; i < 16; i++) {
-                String byteHex = storedHashedPassword.substring(i * 2, i * 2 + 2);
-                saltBytes[i] = (byte) Integer.parseInt(byteHex, 16);
-            }
-            
-            // Hash the input password with the extracted salt
-            SecureRandom random = new SecureRandom();
-            int iterations = 10000;
-            KeySpec spec = new PBEKeySpec(password.toCharArray(), saltBytes, iterations, 256);
-            SecretKeyFactory factory = SecretKeyFactory.getInstance("PBKDF2WithHmacSHA256");
-            byte[] hash = factory.generateSecret(spec).getEncoded();
-            
-            // Combine the salt and the new hash
-            byte[] combined = new byte[saltBytes.length + hash.length];
-            System.arraycopy(saltBytes, 0, combined, 0, saltBytes.length);
-            System.arraycopy(hash, 0, combined, saltBytes.length, hash.length);
-            
-            // Convert to hex string
-            StringBuilder hexString = new StringBuilder();
-            for (byte b : combined) {
-                hexString.append(String.format("%02x", b));
-            }
-            
-            // Compare the generated hash with the stored hash
-            return storedHashedPassword.equals(hexString.toString());
-            
-        } catch (Exception e) {
-            // If there's an error in hash comparison, return false
-            System.err.println("Error comparing passwords: " + e.getMessage());
-            return false;
-        }
+        // The stored password is the hex salt followed by the hash
+        return PasswordHasher.matches(password, storedUser.getPassword());
+    }
+
+    /**
+     * Authenticates a user on the hashing pool instead of the calling thread
+     * @return a future for the result; it fails with RejectedExecutionException when the pool
+     * is saturated
+     */
+    public CompletableFuture<Boolean> authenticateUserAsync(String email, String password) {
+
+        if (email == null || password == null)
+            return CompletableFuture.completedFuture(false);
+
+        // The lookup is served from memory, only the hashing needs the pool
+        User storedUser = userData.getUserByEmail(email);
+        if (storedUser == null)
+            return CompletableFuture.completedFuture(false);
+
+        String storedHash = storedUser.getPassword();
+        return hashingPool.submit(() -> PasswordHasher.matches(password, storedHash));
     }
 
    
+    /**
+     * Hashes a password on the hashing pool instead of the calling thread
+     */
+    public CompletableFuture<String> hashPasswordAsync(String password) {
+
+        if (password == null)
+            throw new IllegalArgumentException("Password cannot be null");
+
+        return hashingPool.submit(() -> PasswordHasher.hash(password));
+    }
+
     /**
      * Validates an email address
      * @param email the email address to validate
@@ -109,34 +108,6 @@ public class AuthenticationService {
         if (password == null) {
             throw new IllegalArgumentException("Password cannot be null");
         }
-
-        try {
-            // Generate a random salt
-            SecureRandom random = new SecureRandom();
-            byte[] salt = new byte[16];
-            random.nextBytes(salt);
-
-            // Use PBKDF2 with SHA-256
-            int iterations = 10000;
-            KeySpec spec = new PBEKeySpec(password.toCharArray(), salt, iterations, 256);
-            SecretKeyFactory factory = SecretKeyFactory.getInstance("PBKDF2WithHmacSHA256");
-            
-            byte[] hash = factory.generateSecret(spec).getEncoded();
-            
-            // Combine salt and hash
-            byte[] combined = new byte[salt.length + hash.length];
-            System.arraycopy(salt, 0, combined, 0, salt.length);
-            System.arraycopy(hash, 0, combined, salt.length, hash.length);
-            
-            // Convert to hex string
-            StringBuilder hexString = new StringBuilder();
-            for (byte b : combined) {
-                hexString.append(String.format("%02x", b));
-            }
-            return hexString.toString();
-            
-        } catch (NoSuchAlgorithmException | InvalidKeySpecException e) {
-            throw new RuntimeException("Error encrypting password", e);
-        }
+        return PasswordHasher.hash(password);
     }
 }
@@ -0,0 +1,345 @@
+package com.company;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A table kept as an append-only binary file of length-prefixed rows, with every row and a
+ * key index held in memory.
+ * Inserts and field updates append one record; an update rewrites its whole row, and on load
+ * the last record for a key wins. The file is rewritten without the superseded records once
+ * they outnumber the live rows. A change to the file's length or modification time by anyone
+ * else makes the table reload and bumps its generation.
+ */
+public class BinaryRecordTable implements RecordTable {
+
+    static final int MAGIC = 0x4E325342; // "N2SB"
+
+    private static final String DELIMITER = ",";
+    private static final int COMPACT_THRESHOLD = 500;
+
+    private final String path;
+    private final String importPath;
+    private final int keyColumn;
+    private final String header;
+
+    private final List<String> lines = new ArrayList<>();
+    private final Map<String, Integer> rowByKey = new HashMap<>();
+
+    private boolean loaded;
+    private int superseded;
+    private long generation;
+    private long fileLength = -1;
+    private long fileModified = -1;
+    private boolean tornTail; // the file ends in a partial record, cut off by the next compact
+
+    /**
+     * @param importPath CSV file the table is seeded from the first time, or null
+     * @param header the first line of a new table, or null for none
+     */
+    public BinaryRecordTable(String path, String importPath, int keyColumn, String header) {
+        this.path = path;
+        this.importPath = importPath;
+        this.keyColumn = keyColumn;
+        this.header = header;
+    }
+
+    @Override
+    public synchronized List<String> readAllLines() throws IOException {
+
+        ensureLoaded();
+        return new ArrayList<>(lines);
+    }
+
+    @Override
+    public synchronized boolean replaceAll(List<String> newLines) {
+
+        try {
+            write(newLines);
+        }
+        catch (IOException e) {
+            System.err.println("Error writing " + path + ": " + e.getMessage());
+            return false;
+        }
+
+        load(newLines);
+        loaded = true;
+        generation++;
+        captureStamp();
+        return true;
+    }
+
+    @Override
+    public synchronized void appendInsert(String line) throws IOException {
+
+        appendInserts(Collections.singletonList(line));
+    }
+
+    @Override
+    public synchronized void appendInserts(List<String> newLines) throws IOException {
+
+        ensureLoaded();
+        appendRecords(newLines);
+        for (String line : newLines)
+            add(line);
+    }
+
+    @Override
+    public synchronized void appendUpdate(String key, int fieldIndex, String newValue) throws IOException {
+
+        ensureLoaded();
+
+        Integer row = rowByKey.get(key);
+        if (row == null)
+            return;
+
+        String[] data = lines.get(row).split(DELIMITER);
+        if (fieldIndex >= data.length)
+            return;
+
+        data[fieldIndex] = newValue;
+        String line = String.join(DELIMITER, data);
+
+        appendRecords(Collections.singletonList(line));
+        lines.set(row, line);
+
+        if (++superseded >= COMPACT_THRESHOLD && superseded > lines.size())
+            compact();
+    }
+
+    @Override
+    public synchronized String[] findRecord(String key) throws IOException {
+
+        ensureLoaded();
+
+        Integer row = rowByKey.get(key);
+        return row == null ? null : lines.get(row).split(DELIMITER);
+    }
+
+    @Override
+    public synchronized boolean contains(String key) {
+
+        try {
+            ensureLoaded();
+        }
+        catch (IOException e) {
+            return false;
+        }
+        return rowByKey.containsKey(key);
+    }
+
+    @Override
+    public synchronized boolean isEmpty() {
+
+        try {
+            ensureLoaded();
+        }
+        catch (IOException e) {
+            return true;
+        }
+        return lines.isEmpty();
+    }
+
+    @Override
+    public synchronized long getGeneration() {
+
+        // Reloading here bumps the generation once, so the next read does not bump it again
+        if (loaded && isStale()) {
+            try {
+                ensureLoaded();
+            }
+            catch (IOException e) {
+                System.err.println("Error reading " + path + ": " + e.getMessage());
+            }
+        }
+        return generation;
+    }
+
+    /**
+     * Rewrites the file with only the current rows, dropping any partial record at its end
+     */
+    @Override
+    public synchronized void compact() {
+
+        if (!loaded || (superseded == 0 && !tornTail))
+            return;
+
+        try {
+            write(lines);
+            superseded = 0;
+            tornTail = false;
+            captureStamp();
+        }
+        catch (IOException e) {
+            System.err.println("Error compacting " + path + ": " + e.getMessage());
+        }
+    }
+
+    public String getPath() {
+        return path;
+    }
+
+    private void ensureLoaded() throws IOException {
+
+        if (loaded && !isStale())
+            return;
+
+        File file = new File(path);
+        tornTail = false;
+
+        if (file.exists())
+            load(readFile(file));
+        else if (importPath != null && new File(importPath).exists())
+            importCsv();
+        else
+            load(header == null ? new ArrayList<>() : List.of(header));
+
+        loaded = true;
+        generation++;
+        captureStamp();
+    }
+
+    private boolean isStale() {
+
+        File file = new File(path);
+        return file.length() != fileLength || file.lastModified() != fileModified;
+    }
+
+    // Taken after our own writes, so only someone else's change to the file counts as stale
+    private void captureStamp() {
+
+        File file = new File(path);
+        fileLength = file.length();
+        fileModified = file.lastModified();
+    }
+
+    private void importCsv() throws IOException {
+
+        List<String> imported = new CsvRecordTable(importPath, keyColumn, header).readAllLines();
+        write(imported);
+        load(imported);
+    }
+
+    // Reads every complete record. A partial record at the end, from a crash or from another
+    // writer still appending, is left alone in the file and only dropped by compact.
+    private List<String> readFile(File file) throws IOException {
+
+        List<String> records = new ArrayList<>();
+        long good = 0;
+
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+
+            if (file.length() < Integer.BYTES || in.readInt() != MAGIC)
+                throw new IOException("Not a record table: " + path);
+            good = Integer.BYTES;
+
+            while (true) {
+
+                int length;
+                try {
+                    length = in.readInt();
+                }
+                catch (EOFException e) {
+                    break;
+                }
+
+                // A length running past the end of the file is a torn or corrupt prefix, not
+                // something to allocate
+                if (length < 0 || length > file.length() - good - Integer.BYTES)
+                    break;
+
+                byte[] bytes = new byte[length];
+                try {
+                    in.readFully(bytes);
+                }
+                catch (EOFException e) {
+                    break;
+                }
+
+                records.add(new String(bytes, StandardCharsets.UTF_8));
+                good += Integer.BYTES + length;
+            }
+        }
+
+        tornTail = good < file.length();
+        return records;
+    }
+
+    // Later records for a key replace the earlier row in place, keeping the original order
+    private void load(List<String> records) {
+
+        lines.clear();
+        rowByKey.clear();
+        superseded = 0;
+
+        for (String record : records)
+            add(record);
+    }
+
+    private void add(String line) {
+
+        String key = keyOf(line);
+        Integer row = key == null ? null : rowByKey.get(key);
+
+        if (row != null) {
+            lines.set(row, line);
+            superseded++;
+            return;
+        }
+
+        // The header is never a row to look up
+        if (key != null && !(header != null && lines.isEmpty()))
+            rowByKey.put(key, lines.size());
+
+        lines.add(line);
+    }
+
+    private String keyOf(String line) {
+
+        String[] data = line.split(DELIMITER, keyColumn + 2);
+        return keyColumn < data.length ? data[keyColumn].trim() : null;
+    }
+
+    private void appendRecords(List<String> records) throws IOException {
+
+        // A record appended after a partial one could never be read back
+        if (!new File(path).exists() || tornTail) {
+            write(new ArrayList<>(lines));
+            tornTail = false;
+        }
+
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+
+        try (DataOutputStream out = new DataOutputStream(buffer)) {
+            for (String record : records) {
+                byte[] bytes = record.getBytes(StandardCharsets.UTF_8);
+                out.writeInt(bytes.length);
+                out.write(bytes);
+            }
+        }
+        DurableFiles.append(Paths.get(path), buffer.toByteArray());
+        captureStamp();
+    }
+
+    private void write(List<String> records) throws IOException {
+
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+
+        try (DataOutputStream out = new DataOutputStream(buffer)) {
+
+            out.writeInt(MAGIC);
+            for (String record : records) {
+                byte[] bytes = record.getBytes(StandardCharsets.UTF_8);
+                out.writeInt(bytes.length);
+                out.write(bytes);
+            }
+        }
+        DurableFiles.replace(Paths.get(path), buffer.toByteArray());
+    }
+}
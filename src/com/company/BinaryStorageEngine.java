@@ -0,0 +1,36 @@
+package com.company;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Embedded storage in indexed binary files next to the CSV ones (".bin" instead of ".csv").
+ * Each table is seeded from its CSV file the first time it is opened, then looked up by key
+ * in memory and changed by appending single records instead of rewriting the file.
+ * Spots stay on the snapshot and journal of ParkingSpaceStore, which already works this way.
+ */
+public class BinaryStorageEngine implements StorageEngine {
+
+    public static final String NAME = "binary";
+
+    private final Map<String, RecordTable> tables = new HashMap<>();
+    private final CsvStorageEngine csv = new CsvStorageEngine();
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public synchronized RecordTable table(StorageTable table) {
+
+        if (table == StorageTable.SPOTS)
+            return csv.table(table);
+
+        String csvPath = table.path();
+        String binPath = csvPath.replaceFirst("\\.csv$", "") + ".bin";
+
+        return tables.computeIfAbsent(binPath,
+                p -> new BinaryRecordTable(p, csvPath, table.getKeyColumn(), table.getHeader()));
+    }
+}
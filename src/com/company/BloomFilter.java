@@ -0,0 +1,89 @@
+package com.company;
+
+/**
+ * Fixed-size Bloom filter over strings. mightContain never answers false for a string that
+ * was added, and answers true for one that was not with roughly the false-positive rate it
+ * was sized for, as long as no more than the expected number of strings are added.
+ */
+class BloomFilter {
+
+    private final long[] bits;
+    private final int bitCount;
+    private final int hashCount;
+    private int added;
+
+    BloomFilter(int expectedInsertions, double falsePositiveRate) {
+
+        if (expectedInsertions <= 0 || falsePositiveRate <= 0 || falsePositiveRate >= 1)
+            throw new IllegalArgumentException("Expected insertions must be positive and the rate between 0 and 1");
+
+        // m = -n ln p / (ln 2)^2 bits and k = m/n ln 2 hash functions
+        long m = (long) Math.ceil(-expectedInsertions * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+        bitCount = (int) Math.min(Math.max(m, 64), Integer.MAX_VALUE - 63);
+        hashCount = Math.max(1, (int) Math.round((double) bitCount / expectedInsertions * Math.log(2)));
+        bits = new long[(bitCount + 63) / 64];
+    }
+
+    void add(String value) {
+
+        long hash = hash(value);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32) | 1; // odd, so the probes never collapse onto one bit
+
+        for (int i = 0; i < hashCount; i++) {
+            int bit = Math.floorMod(h1 + i * h2, bitCount);
+            bits[bit >>> 6] |= 1L << bit;
+        }
+        added++;
+    }
+
+    boolean mightContain(String value) {
+
+        long hash = hash(value);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32) | 1;
+
+        for (int i = 0; i < hashCount; i++) {
+            int bit = Math.floorMod(h1 + i * h2, bitCount);
+            if ((bits[bit >>> 6] & (1L << bit)) == 0)
+                return false;
+        }
+        return true;
+    }
+
+    /**
+     * @return the false-positive rate expected for the strings added so far
+     */
+    double getExpectedFalsePositiveRate() {
+        return Math.pow(1 - Math.exp(-(double) hashCount * added / bitCount), hashCount);
+    }
+
+    int getAddedCount() {
+        return added;
+    }
+
+    int getBitCount() {
+        return bitCount;
+    }
+
+    int getHashCount() {
+        return hashCount;
+    }
+
+    // 64-bit FNV-1a over the characters with a final avalanche, split into two 32-bit hashes
+    private static long hash(String value) {
+
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < value.length(); i++) {
+            hash ^= value.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
@@ -7,7 +7,7 @@ import java.util.ArrayList;
 /**
  * Requires DB actions
  */
-public class Booking implements BookingFacade {
+public class Booking implements BookingFacade, BookingView {
 
     private String bookingID;
     private int userID;
@@ -22,7 +22,6 @@ public class Booking implements BookingFacade {
     private Payment payment;
     private double amount; //deposit amount
     private double totalAmount;
-    private static int lastGeneratedID = 0;
     private PriceCalculator priceCalculator;
 
     private Booking(BookingBuilder builder) {
@@ -47,13 +46,10 @@ public class Booking implements BookingFacade {
      *
      * @return String representation of the unique booking ID
      */
-    static synchronized String generateUniqueID() {
+    static String generateUniqueID() {
 
-        // Read the last ID from database first
-        int lastIDFromDB = BookingDatabaseHelper.getLastBookingID();
-        // Use the larger of lastGeneratedID and lastIDFromDB to ensure uniqueness
-        lastGeneratedID = Math.max(lastGeneratedID, lastIDFromDB) + 1;
-        return String.format("N2S%06d", lastGeneratedID); // Creates IDs like N2S000001, N2S000002, etc.
+        // Taken from the shared booking ID sequence, without reading the booking table
+        return String.format("N2S%06d", BookingDatabaseHelper.nextBookingID()); // Creates IDs like N2S000001, N2S000002, etc.
     }
 
 
@@ -180,6 +176,11 @@ public class Booking implements BookingFacade {
         this.payment = payment;
     }
 
+    // Null for bookings read back from storage, which do not carry their payment
+    public Payment getPayment() {
+        return payment;
+    }
+
     @Override
     public void payDeposit(int userID) {
 
@@ -5,37 +5,65 @@ import java.nio.file.Paths;
 import java.time.LocalTime;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.List;
+import java.util.function.Consumer;
 
 
 public class BookingDatabaseHelper {
 
     private static final String BOOKING_CSV = "data/Booking_Database.csv";
+    private static final String BOOKING_SEQUENCE = "data/Booking_ID_Sequence.csv";
+    private static final String ID_PREFIX = "N2S";
     private static final String DELIMITER = ",";
 
+    // Live bookings by time slot, kept in step with the write-ahead log
+    private static final BookingIntervalTree timeIndex = new BookingIntervalTree();
+
+    // Checkout deadlines of active paid bookings, guarded by the same lock as timeIndex
+    private static final BookingDeadlineQueue deadlines = new BookingDeadlineQueue();
+
+    // Every booking row in columns, so time slot queries build Bookings without re-reading
+    // the table; guarded by the same lock as timeIndex
+    private static ColumnarBookingStore columns = new ColumnarBookingStore();
+    private static long columnsGeneration = -1;
+    private static volatile Consumer<LocalTime> deadlineListener;
+
     static String getAbsolutePath() {
         String currentDir = System.getProperty("user.dir");
         return Paths.get(currentDir, BOOKING_CSV).toString();
     }
 
+    static IdSequence bookingIDs() {
+
+        String path = Paths.get(System.getProperty("user.dir"), BOOKING_SEQUENCE).toString();
+        return IdSequence.forPath(path, IdSequence.DEFAULT_BLOCK_SIZE, BookingDatabaseHelper::getLastBookingID);
+    }
+
     /**
-     * Reads all lines from the booking database file
+     * @return the number of the next booking ID, unique across processes sharing the data directory
      */
-    static List<String> readAllLines() {
-
-        List<String> lines = new ArrayList<>();
+    public static int nextBookingID() {
+        return (int) bookingIDs().next();
+    }
 
-        try (BufferedReader reader = new BufferedReader(new FileReader(getAbsolutePath()))) {
+    // The bookings table of the configured storage engine; the write-ahead log for CSV
+    static RecordTable table() {
+        return Storage.getEngine().bookings();
+    }
 
-            String line;
-            while ((line = reader.readLine()) != null)
-                lines.add(line);
+    /**
+     * Reads all lines from the booking database file, with logged changes applied
+     */
+    static List<String> readAllLines() {
 
+        try {
+            return table().readAllLines();
         }
         catch (IOException e) {
             System.err.println("Error reading booking database: " + e.getMessage());
+            return new ArrayList<>();
         }
-        return lines;
     }
 
     /**
@@ -43,44 +71,32 @@ public class BookingDatabaseHelper {
      */
     static boolean writeAllLines(List<String> lines) {
 
-        try (BufferedWriter writer = new BufferedWriter(new FileWriter(getAbsolutePath()))) {
-
-            for (String line : lines) {
-
-                writer.write(line);
-                writer.newLine();
-            }
-
-            return true;
-        }
-        catch (IOException e) {
-            System.err.println("Error writing to booking database: " + e.getMessage());
-            return false;
-        }
+        return table().replaceAll(lines);
     }
 
     /**
-     * Updates a specific field in a booking record
+     * Updates a specific field in a booking record by appending it to the write-ahead log
      */
     private static void updateBookingField(String bookingID, int fieldIndex, String newValue) {
 
-        List<String> lines = readAllLines();
-        if (lines.isEmpty()) return;
-
-        // Find and update the specific line
-        for (int i = 1; i < lines.size(); i++) {
+        if (table().isEmpty()) return; // missing or empty database
 
-            // Start from 1 to skip header
-            String[] data = lines.get(i).split(DELIMITER);
-            if (data.length > 0 && data[0].equals(bookingID)) {
+        LocalTime deadline;
+        try {
+            synchronized (timeIndex) {
+                table().appendUpdate(bookingID, fieldIndex, newValue);
+                timeIndex.update(bookingID, fieldIndex, newValue);
+                deadline = deadlines.update(bookingID, fieldIndex, newValue);
+                if (!columns.update(bookingID, fieldIndex, newValue))
+                    columnsGeneration = -1; // rebuild rather than guess
 
-                data[fieldIndex] = newValue;
-                lines.set(i, String.join(DELIMITER, data));
-                break;
             }
         }
-
-        writeAllLines(lines);
+        catch (IOException e) {
+            System.err.println("Error writing to booking database: " + e.getMessage());
+            return;
+        }
+        announceDeadline(deadline);
     }
 
     /**
@@ -114,20 +130,12 @@ public class BookingDatabaseHelper {
         UserNotificationService notificationService = new UserNotificationService();
         booking.addObserver(notificationService);
 
-        List<String> lines = readAllLines();
-
-        if (lines.isEmpty())
+        if (table().isEmpty()) // missing or empty database
             return;
 
-        // Check for duplicate booking ID
-        for (int i = 1; i < lines.size(); i++) { // Start from 1 to skip header
-
-            String line = lines.get(i);
-            String[] data = line.split(DELIMITER);
-
-            if (data.length > 0 && data[0].trim().equals(booking.getBookingID().trim()))
-                throw new IllegalArgumentException("Booking ID already exists: " + booking.getBookingID());
-        }
+        // Check for duplicate booking ID through the index instead of scanning every row
+        if (table().contains(booking.getBookingID().trim()))
+            throw new IllegalArgumentException("Booking ID already exists: " + booking.getBookingID());
 
         // Add the new booking record with HH:mm format
         String newLine = String.format("%s,%d,%d,%d,%s,%s,%s,%s,%.2f,%s,%.2f",
@@ -143,9 +151,26 @@ public class BookingDatabaseHelper {
             booking.getBookingStatus(),
             booking.getTotalAmount()
         );
-        lines.add(newLine);
+        LocalTime deadline;
+        try {
+            synchronized (timeIndex) {
+                table().appendInsert(newLine);
+                timeIndex.insert(newLine.split(DELIMITER));
+                deadline = deadlines.insert(newLine.split(DELIMITER));
+                columns.add(newLine.split(DELIMITER));
+            }
+        }
+        catch (IOException e) {
+            System.err.println("Error writing to booking database: " + e.getMessage());
+            return;
+        }
 
-        writeAllLines(lines);
+        // IDs made up by the caller must not be handed out again by the sequence
+        int idNumber = parseBookingNumber(booking.getBookingID().trim());
+        if (idNumber > 0)
+            bookingIDs().advancePast(idNumber);
+
+        announceDeadline(deadline);
     }
 
 
@@ -172,28 +197,19 @@ public class BookingDatabaseHelper {
     public static List<Booking> readAllBookings() {
 
         List<Booking> bookings = new ArrayList<>();
+        List<String> lines = readAllLines();
 
-        try (BufferedReader reader = new BufferedReader(new FileReader(getAbsolutePath()))) {
-
-            // Skip the header line
-            reader.readLine();
-            String line;
-
-            while ((line = reader.readLine()) != null) {
+        // Start from 1 to skip the header line
+        for (int i = 1; i < lines.size(); i++) {
 
-                String[] data = line.split(DELIMITER);
+            String[] data = lines.get(i).split(DELIMITER);
 
-                if (data.length >= 10) { // Ensure we have all required fields
-                    Booking booking = convertToBooking(data);
+            if (data.length >= 10) { // Ensure we have all required fields
+                Booking booking = convertToBooking(data);
 
-                    if (booking != null)
-                        bookings.add(booking);
-                }
+                if (booking != null)
+                    bookings.add(booking);
             }
-        } 
-        catch (IOException e) {
-            System.err.println("Error reading bookings from file: " + e.getMessage());
-            e.printStackTrace();
         }
         return bookings;
     }
@@ -243,20 +259,31 @@ public class BookingDatabaseHelper {
         }
     }
 
+    /**
+     * Reads all bookings into a columnar store, for scans that do not need Booking objects
+     */
+    public static ColumnarBookingStore readAllBookingsColumnar() {
+
+        return ColumnarBookingStore.fromLines(readAllLines());
+    }
+
     /**
      * Finds a booking by its ID.
      */
     public static Booking findBookingByID(String bookingID) {
 
-        List<Booking> bookings = readAllBookings();
+        try {
+            String[] data = table().findRecord(bookingID);
 
-        for (Booking booking : bookings) {
+            if (data == null || data.length < 10)
+                return null; // Not found
 
-            if (booking.getBookingID().equals(bookingID))
-                return booking;
-            
+            return convertToBooking(data);
+        }
+        catch (IOException e) {
+            System.err.println("Error reading booking database: " + e.getMessage());
+            return null;
         }
-        return null; // Not found
     }
 
     /**
@@ -270,6 +297,7 @@ public class BookingDatabaseHelper {
 
     /**
      * Returns a list of bookings that overlap with the specified time period
+     * Cancelled and completed bookings are left out since they no longer hold their spot
      * @param start The start time to check
      * @param end The end time to check
      * @return ArrayList of bookings that are active during the specified period
@@ -277,43 +305,154 @@ public class BookingDatabaseHelper {
     public static ArrayList<Booking> getBookingsForTimeSlot(LocalTime start, LocalTime end) {
 
         ArrayList<Booking> bookingsInTimeSlot = new ArrayList<>();
-        List<Booking> allBookings = readAllBookings();
 
-        for (Booking booking : allBookings) {
-            
-            // Check if the booking overlaps with the specified time period
-            LocalTime bookingStart = booking.getStart();
-            LocalTime bookingEnd = booking.getEnd();
-            
-            // Booking overlaps if it doesn't end before our start time
-            // and doesn't start after our end time
-            if (!(bookingEnd.isBefore(start) || bookingStart.isAfter(end))) {
-                bookingsInTimeSlot.add(booking);
+        // Rows come from the columnar copy by ID instead of being looked up and parsed one by one
+        synchronized (timeIndex) {
+            syncTimeIndex();
+            syncColumns();
+
+            for (BookingIntervalTree.Entry entry : timeIndex.overlapping(start, end)) {
+
+                int row = columns.indexOf(entry.bookingID);
+                if (row >= 0)
+                    bookingsInTimeSlot.add(columns.toBooking(row));
             }
         }
 
         return bookingsInTimeSlot;
     }
 
+    /**
+     * Returns the IDs of the spots held by a live booking during the specified time period,
+     * as a bitset indexed by spot ID, without building Booking objects
+     */
+    public static BitSet getBookedSpotIDs(LocalTime start, LocalTime end) {
+
+        synchronized (timeIndex) {
+            syncTimeIndex();
+            return timeIndex.bookedSpots(start, end);
+        }
+    }
+
+    // Rebuild only when the table was replaced or reloaded since the last query
+    private static void syncTimeIndex() {
+
+        long generation = table().getGeneration();
+        if (timeIndex.getGeneration() != generation)
+            timeIndex.rebuild(readAllLines(), generation);
+    }
+
+    private static void syncColumns() {
+
+        long generation = table().getGeneration();
+        if (columnsGeneration != generation) {
+            columns = ColumnarBookingStore.fromLines(readAllLines());
+            columnsGeneration = generation;
+        }
+    }
+
+    /**
+     * Removes and returns the IDs of active paid bookings whose end time has passed.
+     * The deadline queue is rebuilt from storage the first time and whenever the table changes
+     * behind it.
+     */
+    public static List<String> takeDueCheckouts(LocalTime now) {
+
+        synchronized (timeIndex) {
+            syncDeadlines();
+            return deadlines.pollDue(now);
+        }
+    }
+
+    /**
+     * Puts a booking taken by takeDueCheckouts back in the deadline queue when its checkout did
+     * not go through, with a growing delay between attempts
+     * @return when it will be retried, or null if it was given up on
+     */
+    public static LocalTime retryCheckout(String bookingID, LocalTime now) {
+
+        synchronized (timeIndex) {
+            syncDeadlines();
+            return deadlines.retry(bookingID, now);
+        }
+    }
+
+    /**
+     * @return the end time of the next active paid booking to check out, or null if there is none
+     */
+    public static LocalTime nextCheckoutDeadline() {
+
+        synchronized (timeIndex) {
+            syncDeadlines();
+            return deadlines.nextDeadline();
+        }
+    }
+
+    /**
+     * Registers the callback told about every newly queued checkout deadline, so the checkout
+     * job can wake up for it; pass null to stop
+     */
+    public static synchronized void setCheckoutDeadlineListener(Consumer<LocalTime> listener) {
+        deadlineListener = listener;
+    }
+
+    /**
+     * Unregisters the listener, unless another one has replaced it since
+     */
+    public static synchronized void removeCheckoutDeadlineListener(Consumer<LocalTime> listener) {
+
+        if (deadlineListener == listener)
+            deadlineListener = null;
+    }
+
+    static Consumer<LocalTime> getCheckoutDeadlineListener() {
+        return deadlineListener;
+    }
+
+    private static void syncDeadlines() {
+
+        long generation = table().getGeneration();
+        if (deadlines.getGeneration() != generation)
+            deadlines.rebuild(readAllLines(), generation);
+    }
+
+    // Called outside the index lock so the listener may take its own locks
+    private static void announceDeadline(LocalTime deadline) {
+
+        Consumer<LocalTime> listener = deadlineListener;
+        if (deadline != null && listener != null)
+            listener.accept(deadline);
+    }
+
     /**
      * Gets the last used booking ID from the database
      * @return the highest booking ID number currently in use
      */
     public static int getLastBookingID() {
-        List<Booking> bookings = readAllBookings();
+        List<String> lines = readAllLines();
         int maxID = 0;
 
-        for (Booking booking : bookings) {
-
-            String bookingID = booking.getBookingID();
+        // Only the ID column is needed, so rows are not turned into Booking objects
+        for (int i = 1; i < lines.size(); i++) {
 
-            if (bookingID != null && bookingID.startsWith("N2S")) {
-                    
-                // Extract the number part from "N2S000001" format
-                int idNumber = Integer.parseInt(bookingID.substring(3));
-                maxID = Math.max(maxID, idNumber);
-            }
+            String[] data = lines.get(i).split(DELIMITER);
+            if (data.length >= 10) // the rows readAllBookings would load
+                maxID = Math.max(maxID, parseBookingNumber(data[0]));
         }
         return maxID;
     }
+
+    // Extracts the number part from the "N2S000001" format, or 0 for any other ID
+    private static int parseBookingNumber(String bookingID) {
+
+        if (!bookingID.startsWith(ID_PREFIX))
+            return 0;
+
+        try {
+            return Integer.parseInt(bookingID.substring(ID_PREFIX.length()));
+        }
+        catch (NumberFormatException e) {
+            return 0;
+        }
+    }
 }
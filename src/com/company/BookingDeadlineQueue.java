@@ -0,0 +1,203 @@
+package com.company;
+
+import java.time.LocalTime;
+import java.util.*;
+
+/**
+ * Priority queue of checkout deadlines: every booking that is Active and Paid, keyed by its
+ * end time. The checkout job only pops the deadlines that have passed instead of scanning
+ * every booking, and can sleep until the head of the queue is due. Superseded deadlines
+ * (an extended end time, a status change) are left in the heap and skipped when they surface.
+ */
+class BookingDeadlineQueue {
+
+    private static final int END = BookingIntervalTree.END;
+    private static final int PAYMENT_STATUS = BookingIntervalTree.PAYMENT_STATUS;
+    private static final int BOOKING_STATUS = BookingIntervalTree.BOOKING_STATUS;
+
+    // Failed checkouts are retried after 1, 2, 4, 8 and 16 minutes, then given up on
+    static final int MAX_CHECKOUT_RETRIES = 5;
+    private static final int FIRST_RETRY_SECONDS = 60;
+    private static final int LAST_SECOND_OF_DAY = 24 * 60 * 60 - 1;
+
+    /**
+     * Columns of one booking row that decide whether and when it is checked out
+     */
+    private static class Row {
+
+        int end = -1; // seconds of day
+        String paymentStatus;
+        String bookingStatus;
+        Deadline queued;
+        int retries; // failed checkouts since the deadline was last set
+
+        boolean awaitsCheckout() {
+            return end >= 0 && "Active".equals(bookingStatus) && "Paid".equals(paymentStatus);
+        }
+    }
+
+    private static class Deadline {
+
+        final String bookingID;
+        final int end;
+
+        Deadline(String bookingID, int end) {
+            this.bookingID = bookingID;
+            this.end = end;
+        }
+    }
+
+    private final Map<String, Row> rows = new HashMap<>();
+    private final PriorityQueue<Deadline> heap = new PriorityQueue<>(Comparator.comparingInt((Deadline d) -> d.end));
+    private long generation = -1;
+
+    long getGeneration() {
+        return generation;
+    }
+
+    /**
+     * Rebuilds the queue from all booking rows (header included)
+     */
+    void rebuild(List<String> lines, long generation) {
+
+        rows.clear();
+        heap.clear();
+
+        for (int i = 1; i < lines.size(); i++)
+            insert(lines.get(i).split(","));
+
+        this.generation = generation;
+    }
+
+    /**
+     * Adds a newly saved booking row
+     * @return the row's deadline if it was queued, otherwise null
+     */
+    LocalTime insert(String[] data) {
+
+        if (data.length < 10 || rows.containsKey(data[0]))
+            return null;
+
+        Row row = new Row();
+        row.paymentStatus = data[PAYMENT_STATUS];
+        row.bookingStatus = data[BOOKING_STATUS];
+        row.end = parseEnd(data[END]);
+
+        rows.put(data[0], row);
+        return requeue(data[0], row);
+    }
+
+    /**
+     * Applies a change to one column of a booking row
+     * @return the row's deadline if it was (re)queued, otherwise null
+     */
+    LocalTime update(String bookingID, int fieldIndex, String newValue) {
+
+        Row row = rows.get(bookingID);
+        if (row == null)
+            return null;
+
+        switch (fieldIndex) {
+            case END: row.end = parseEnd(newValue); break;
+            case PAYMENT_STATUS: row.paymentStatus = newValue; break;
+            case BOOKING_STATUS: row.bookingStatus = newValue; break;
+            default: return null;
+        }
+        return requeue(bookingID, row);
+    }
+
+    /**
+     * Removes and returns the bookings whose end time is before now, earliest first
+     */
+    List<String> pollDue(LocalTime now) {
+
+        List<String> due = new ArrayList<>();
+        long nowNanos = now.toNanoOfDay();
+
+        Deadline head;
+        while ((head = validHead()) != null && nowNanos > head.end * 1_000_000_000L) {
+            heap.poll();
+            rows.get(head.bookingID).queued = null;
+            due.add(head.bookingID);
+        }
+        return due;
+    }
+
+    /**
+     * Queues a polled booking again, for a checkout that did not go through. Each retry waits
+     * twice as long as the one before; nothing is queued once the retries run out or if the
+     * booking no longer awaits checkout.
+     * @return the retry deadline if it was queued, otherwise null
+     */
+    LocalTime retry(String bookingID, LocalTime now) {
+
+        Row row = rows.get(bookingID);
+        if (row == null || !row.awaitsCheckout() || row.retries >= MAX_CHECKOUT_RETRIES)
+            return null;
+
+        int at = Math.min(now.toSecondOfDay() + (FIRST_RETRY_SECONDS << row.retries), LAST_SECOND_OF_DAY);
+        row.retries++;
+        row.queued = new Deadline(bookingID, at);
+        heap.add(row.queued);
+        return LocalTime.ofSecondOfDay(at);
+    }
+
+    /**
+     * @return the earliest pending deadline, or null if no booking awaits checkout
+     */
+    LocalTime nextDeadline() {
+
+        Deadline head = validHead();
+        return head == null ? null : LocalTime.ofSecondOfDay(head.end);
+    }
+
+    int size() {
+
+        int size = 0;
+        for (Row row : rows.values()) {
+            if (row.queued != null)
+                size++;
+        }
+        return size;
+    }
+
+    // Queue, re-key or drop the row's deadline to match its current columns
+    private LocalTime requeue(String bookingID, Row row) {
+
+        if (row.awaitsCheckout()) {
+            if (row.queued != null && row.queued.end == row.end)
+                return null; // already queued at this time
+
+            row.queued = new Deadline(bookingID, row.end);
+            row.retries = 0;
+            heap.add(row.queued);
+            return LocalTime.ofSecondOfDay(row.end);
+        }
+
+        row.queued = null; // any heap entry left behind is now stale
+        return null;
+    }
+
+    // Drops superseded entries sitting at the top of the heap
+    private Deadline validHead() {
+
+        Deadline head;
+        while ((head = heap.peek()) != null) {
+            Row row = rows.get(head.bookingID);
+            if (row != null && row.queued == head)
+                return head;
+            heap.poll();
+        }
+        return null;
+    }
+
+    private static int parseEnd(String value) {
+
+        try {
+            return LocalTime.parse(value, BookingIntervalTree.TIME_FORMAT).toSecondOfDay();
+        }
+        catch (RuntimeException e) {
+            return -1; // rows that cannot be converted to a booking are never checked out
+        }
+    }
+}
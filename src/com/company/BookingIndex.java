@@ -0,0 +1,185 @@
+package com.company;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Hash index from booking ID to the byte offset of its row in Booking_Database.csv.
+ * The index is saved to Booking_Database_Index.csv next to the snapshot and reloaded on
+ * startup when it still matches the snapshot, otherwise it is rebuilt with a single pass
+ * that only looks at the first column of each row.
+ */
+class BookingIndex {
+
+    private static final String DELIMITER = ",";
+
+    private final String snapshotPath;
+    private final String indexPath;
+    private final Map<String, Long> offsets = new HashMap<>();
+
+    BookingIndex(String snapshotPath, String indexPath) {
+
+        this.snapshotPath = snapshotPath;
+        this.indexPath = indexPath;
+    }
+
+    /**
+     * Loads the saved index if it was built for the given snapshot, otherwise rebuilds and saves it
+     * @param baseLine the stamp identifying the current snapshot
+     */
+    void load(String baseLine) {
+
+        offsets.clear();
+
+        if (loadSaved(baseLine))
+            return;
+
+        offsets.clear();
+        rebuild();
+        save(baseLine);
+    }
+
+    boolean contains(String bookingID) {
+        return offsets.containsKey(bookingID);
+    }
+
+    int size() {
+        return offsets.size();
+    }
+
+    /**
+     * Reads the snapshot row of a booking straight from its offset
+     * @return the row, or null if the booking is not in the snapshot
+     */
+    String readLine(String bookingID) throws IOException {
+
+        Long offset = offsets.get(bookingID);
+        if (offset == null)
+            return null;
+
+        try (RandomAccessFile file = new RandomAccessFile(snapshotPath, "r")) {
+
+            file.seek(offset);
+            ByteArrayOutputStream line = new ByteArrayOutputStream(128);
+            byte[] buffer = new byte[128];
+            int read;
+
+            while ((read = file.read(buffer)) > 0) {
+
+                int end = indexOf(buffer, read, (byte) '\n');
+                line.write(buffer, 0, end < 0 ? read : end);
+                if (end >= 0)
+                    break;
+            }
+            return stripCarriageReturn(line.toString(StandardCharsets.UTF_8.name()));
+        }
+    }
+
+    private boolean loadSaved(String baseLine) {
+
+        File saved = new File(indexPath);
+        if (!saved.exists())
+            return false;
+
+        try (BufferedReader reader = new BufferedReader(new FileReader(saved))) {
+
+            if (!baseLine.equals(reader.readLine()))
+                return false;
+
+            String line;
+            while ((line = reader.readLine()) != null) {
+
+                int comma = line.lastIndexOf(DELIMITER);
+                if (comma > 0)
+                    offsets.put(line.substring(0, comma), Long.parseLong(line.substring(comma + 1)));
+            }
+            return true;
+        }
+        catch (IOException | NumberFormatException e) {
+            System.err.println("Error loading booking index, rebuilding: " + e.getMessage());
+            return false;
+        }
+    }
+
+    // One pass over the raw bytes, recording where each row starts
+    private void rebuild() {
+
+        try (InputStream in = new BufferedInputStream(new FileInputStream(snapshotPath))) {
+
+            long position = 0;
+            long lineStart = 0;
+            boolean header = true;
+            ByteArrayOutputStream id = new ByteArrayOutputStream(16);
+            boolean inID = true;
+            int b;
+
+            while ((b = in.read()) != -1) {
+
+                if (b == '\n') {
+                    if (!header)
+                        index(id, lineStart);
+
+                    header = false;
+                    id.reset();
+                    inID = true;
+                    lineStart = position + 1;
+                }
+                else if (inID) {
+                    if (b == ',')
+                        inID = false;
+                    else
+                        id.write(b);
+                }
+                position++;
+            }
+
+            // Last row without a trailing newline
+            if (!header && id.size() > 0)
+                index(id, lineStart);
+        }
+        catch (IOException e) {
+            System.err.println("Error building booking index: " + e.getMessage());
+        }
+    }
+
+    private void index(ByteArrayOutputStream id, long lineStart) throws UnsupportedEncodingException {
+
+        String bookingID = stripCarriageReturn(id.toString(StandardCharsets.UTF_8.name()));
+
+        // Keep the first row for an ID, the same one a linear scan would find
+        if (!bookingID.isEmpty())
+            offsets.putIfAbsent(bookingID, lineStart);
+    }
+
+    private void save(String baseLine) {
+
+        List<String> lines = new ArrayList<>(offsets.size() + 1);
+        lines.add(baseLine);
+        for (Map.Entry<String, Long> entry : offsets.entrySet())
+            lines.add(entry.getKey() + DELIMITER + entry.getValue());
+
+        try {
+            DurableFiles.replace(indexPath, lines);
+        }
+        catch (IOException e) {
+            System.err.println("Error saving booking index: " + e.getMessage());
+        }
+    }
+
+    private static int indexOf(byte[] buffer, int length, byte target) {
+
+        for (int i = 0; i < length; i++) {
+            if (buffer[i] == target)
+                return i;
+        }
+        return -1;
+    }
+
+    private static String stripCarriageReturn(String value) {
+        return value.endsWith("\r") ? value.substring(0, value.length() - 1) : value;
+    }
+}
@@ -0,0 +1,343 @@
+package com.company;
+
+import java.time.LocalTime;
+import java.time.format.DateTimeFormatter;
+import java.util.*;
+
+/**
+ * Interval tree over the time slots of live bookings.
+ * Nodes are ordered by start time and carry the latest end time in their subtree, so an
+ * overlap query only descends into subtrees that can contain a match: O(log n + k).
+ * Cancelled and completed bookings are kept out of the tree. Live bookings are mirrored
+ * into a SpotAvailabilityIndex so "which spots are booked" can be answered from bitmaps.
+ */
+class BookingIntervalTree {
+
+    static final DateTimeFormatter TIME_FORMAT = DateTimeFormatter.ofPattern("[H:mm:ss][HH:mm:ss][H:mm][HH:mm]");
+
+    // Column positions in Booking_Database.csv
+    static final int SPOT = 2;
+    static final int START = 5;
+    static final int END = 6;
+    static final int PAYMENT_STATUS = 7;
+    static final int BOOKING_STATUS = 9;
+
+    /**
+     * Light copy of the columns the tree cares about
+     */
+    static class Entry {
+
+        final String bookingID;
+        final long sequence; // row order, used to return matches in file order
+        int spotID;
+        int start;  // seconds of day
+        int end;
+        String paymentStatus;
+        String bookingStatus;
+        boolean inTree;
+
+        Entry(String bookingID, long sequence) {
+            this.bookingID = bookingID;
+            this.sequence = sequence;
+        }
+
+        boolean isLive() {
+            return !"Cancelled".equalsIgnoreCase(bookingStatus)
+                    && !"Completed".equalsIgnoreCase(bookingStatus)
+                    && !"Completed".equalsIgnoreCase(paymentStatus);
+        }
+    }
+
+    private static class Node {
+
+        final Entry entry;
+        final int start;
+        final int end;
+        int maxEnd;
+        int height = 1;
+        Node left;
+        Node right;
+
+        Node(Entry entry) {
+            this.entry = entry;
+            this.start = entry.start;
+            this.end = entry.end;
+            this.maxEnd = entry.end;
+        }
+    }
+
+    private final Map<String, Entry> entries = new HashMap<>();
+    private final SpotAvailabilityIndex availability = new SpotAvailabilityIndex();
+    private Node root;
+    private long nextSequence;
+    private long generation = -1;
+
+    long getGeneration() {
+        return generation;
+    }
+
+    /**
+     * Rebuilds the tree from all booking rows (header included)
+     */
+    void rebuild(List<String> lines, long generation) {
+
+        entries.clear();
+        availability.clear();
+        root = null;
+        nextSequence = 0;
+
+        for (int i = 1; i < lines.size(); i++)
+            insert(lines.get(i).split(","));
+
+        this.generation = generation;
+    }
+
+    /**
+     * Adds a newly saved booking row
+     */
+    void insert(String[] data) {
+
+        if (data.length < 10 || entries.containsKey(data[0]))
+            return;
+
+        Entry entry = new Entry(data[0], nextSequence++);
+        try {
+            entry.spotID = Integer.parseInt(data[SPOT]);
+            entry.start = LocalTime.parse(data[START], TIME_FORMAT).toSecondOfDay();
+            entry.end = LocalTime.parse(data[END], TIME_FORMAT).toSecondOfDay();
+        }
+        catch (RuntimeException e) {
+            return; // rows that cannot be converted to a booking are never returned
+        }
+        entry.paymentStatus = data[PAYMENT_STATUS];
+        entry.bookingStatus = data[BOOKING_STATUS];
+
+        entries.put(entry.bookingID, entry);
+        if (entry.isLive())
+            add(entry);
+    }
+
+    /**
+     * Applies a change to one column of a booking row
+     */
+    void update(String bookingID, int fieldIndex, String newValue) {
+
+        Entry entry = entries.get(bookingID);
+        if (entry == null)
+            return;
+
+        if (entry.inTree)
+            remove(entry);
+
+        try {
+            switch (fieldIndex) {
+                case SPOT: entry.spotID = Integer.parseInt(newValue); break;
+                case START: entry.start = LocalTime.parse(newValue, TIME_FORMAT).toSecondOfDay(); break;
+                case END: entry.end = LocalTime.parse(newValue, TIME_FORMAT).toSecondOfDay(); break;
+                case PAYMENT_STATUS: entry.paymentStatus = newValue; break;
+                case BOOKING_STATUS: entry.bookingStatus = newValue; break;
+                default: break;
+            }
+        }
+        catch (RuntimeException e) {
+            entries.remove(bookingID); // unparseable rows are not returned by a scan either
+            return;
+        }
+
+        if (entry.isLive())
+            add(entry);
+    }
+
+    /**
+     * Returns the live bookings overlapping [start, end], both ends inclusive, in row order
+     */
+    List<Entry> overlapping(LocalTime start, LocalTime end) {
+
+        List<Entry> result = new ArrayList<>();
+        collect(root, start.toSecondOfDay(), end.toSecondOfDay(), result);
+        result.sort(Comparator.comparingLong(e -> e.sequence));
+        return result;
+    }
+
+    /**
+     * Returns the IDs of spots held by a live booking at any point in [start, end].
+     * Buckets lying fully inside the range come straight from the availability bitmaps;
+     * only the partial buckets at either edge need an exact look at the tree.
+     */
+    BitSet bookedSpots(LocalTime start, LocalTime end) {
+
+        int from = start.toSecondOfDay();
+        int to = end.toSecondOfDay();
+        int firstFull = SpotAvailabilityIndex.firstFullBucket(from);
+        int lastFull = SpotAvailabilityIndex.lastFullBucket(to);
+
+        BitSet result;
+
+        if (availability.hasIrregularBookings() || firstFull > lastFull) {
+            result = new BitSet();
+            markSpots(from, to, result);
+            return result;
+        }
+
+        result = availability.bookedDuring(firstFull, lastFull);
+        int fullStart = SpotAvailabilityIndex.bucketStart(firstFull);
+        int fullEnd = SpotAvailabilityIndex.bucketStart(lastFull + 1) - 1;
+
+        if (from < fullStart)
+            markSpots(from, fullStart - 1, result);
+        if (to > fullEnd)
+            markSpots(fullEnd + 1, to, result);
+
+        return result;
+    }
+
+    private void markSpots(int from, int to, BitSet spots) {
+
+        List<Entry> hits = new ArrayList<>();
+        collect(root, from, to, hits);
+
+        for (Entry entry : hits) {
+            if (entry.spotID >= 0)
+                spots.set(entry.spotID);
+        }
+    }
+
+    int size() {
+        return size(root);
+    }
+
+    private void collect(Node node, int start, int end, List<Entry> result) {
+
+        // Nothing below this node ends late enough to reach the query
+        if (node == null || node.maxEnd < start)
+            return;
+
+        collect(node.left, start, end, result);
+
+        if (node.start <= end) {
+            if (node.end >= start)
+                result.add(node.entry);
+
+            collect(node.right, start, end, result);
+        }
+    }
+
+    private void add(Entry entry) {
+
+        root = insert(root, new Node(entry));
+        availability.add(entry.spotID, entry.start, entry.end);
+        entry.inTree = true;
+    }
+
+    private void remove(Entry entry) {
+
+        root = delete(root, entry.start, entry.sequence);
+        availability.remove(entry.spotID, entry.start, entry.end);
+        entry.inTree = false;
+    }
+
+    private static int compare(int start, long sequence, Node node) {
+
+        int byStart = Integer.compare(start, node.start);
+        return byStart != 0 ? byStart : Long.compare(sequence, node.entry.sequence);
+    }
+
+    private static Node insert(Node node, Node added) {
+
+        if (node == null)
+            return added;
+
+        if (compare(added.start, added.entry.sequence, node) < 0)
+            node.left = insert(node.left, added);
+        else
+            node.right = insert(node.right, added);
+
+        return balance(node);
+    }
+
+    private static Node delete(Node node, int start, long sequence) {
+
+        if (node == null)
+            return null;
+
+        int cmp = compare(start, sequence, node);
+
+        if (cmp < 0)
+            node.left = delete(node.left, start, sequence);
+        else if (cmp > 0)
+            node.right = delete(node.right, start, sequence);
+        else {
+            if (node.left == null)
+                return node.right;
+            if (node.right == null)
+                return node.left;
+
+            // Replace with the smallest node of the right subtree
+            Node successor = node.right;
+            while (successor.left != null)
+                successor = successor.left;
+
+            successor.right = delete(node.right, successor.start, successor.entry.sequence);
+            successor.left = node.left;
+            node = successor;
+        }
+        return balance(node);
+    }
+
+    private static Node balance(Node node) {
+
+        update(node);
+        int skew = height(node.left) - height(node.right);
+
+        if (skew > 1) {
+            if (height(node.left.left) < height(node.left.right))
+                node.left = rotateLeft(node.left);
+            return rotateRight(node);
+        }
+        if (skew < -1) {
+            if (height(node.right.right) < height(node.right.left))
+                node.right = rotateRight(node.right);
+            return rotateLeft(node);
+        }
+        return node;
+    }
+
+    private static Node rotateLeft(Node node) {
+
+        Node pivot = node.right;
+        node.right = pivot.left;
+        pivot.left = node;
+        update(node);
+        update(pivot);
+        return pivot;
+    }
+
+    private static Node rotateRight(Node node) {
+
+        Node pivot = node.left;
+        node.left = pivot.right;
+        pivot.right = node;
+        update(node);
+        update(pivot);
+        return pivot;
+    }
+
+    private static void update(Node node) {
+
+        node.height = 1 + Math.max(height(node.left), height(node.right));
+        node.maxEnd = node.end;
+
+        if (node.left != null)
+            node.maxEnd = Math.max(node.maxEnd, node.left.maxEnd);
+        if (node.right != null)
+            node.maxEnd = Math.max(node.maxEnd, node.right.maxEnd);
+    }
+
+    private static int height(Node node) {
+        return node == null ? 0 : node.height;
+    }
+
+    private static int size(Node node) {
+        return node == null ? 0 : 1 + size(node.left) + size(node.right);
+    }
+}
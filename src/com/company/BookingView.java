@@ -0,0 +1,21 @@
+package com.company;
+
+import java.time.LocalTime;
+
+/**
+ * Read-only getters shared by Booking and the flyweight rows of ColumnarBookingStore
+ */
+public interface BookingView {
+    String getBookingID();
+    int getUserID();
+    int getParkingLot();
+    int getParkingSpace();
+    LocalTime getStart();
+    LocalTime getEnd();
+    String getStatus();
+    String getPlate();
+    String getBookingStatus();
+    String getPaymentStatus();
+    double getAmount();
+    double getTotalAmount();
+}
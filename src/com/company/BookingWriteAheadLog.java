@@ -0,0 +1,541 @@
+package com.company;
+
+import java.io.*;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Write-ahead log in front of Booking_Database.csv.
+ * New bookings and field updates are appended to Booking_Database_WAL.csv as small records
+ * and kept as an in-memory overlay; readers see the snapshot with the overlay applied.
+ * A background compactor folds the log into a fresh snapshot once it grows past a threshold.
+ * Records another process appends to the log are picked up by replaying the new tail of the
+ * file before the next read, write or compaction. Replays, appends and rewrites all hold a
+ * lock on a sidecar file next to the log, so a compaction in one process can never replace
+ * the log over records another process is appending.
+ */
+public class BookingWriteAheadLog implements RecordTable {
+
+    private static final String DELIMITER = ",";
+
+    // Log record types
+    private static final String BASE = "#base";
+    private static final String INSERT = "I";
+    private static final String UPDATE = "U";
+
+    private static final int COMPACT_THRESHOLD = 500;
+
+    private static final ExecutorService COMPACTOR = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "booking-wal-compactor");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private static BookingWriteAheadLog instance;
+
+    // File locks are held by the whole process, so logs in this process over the same file
+    // also meet on one monitor per path
+    private static final Map<String, Object> PATH_GUARDS = new HashMap<>();
+
+    private final String snapshotPath;
+    private final String walPath;
+    private final BookingIndex index;
+
+    // Overlay on top of the snapshot: field overrides for existing rows and rows inserted since
+    private final Map<String, Map<Integer, String>> fieldUpdates = new HashMap<>();
+    private final LinkedHashMap<String, String[]> inserted = new LinkedHashMap<>();
+
+    private long snapshotLength = -1;
+    private long snapshotModified = -1;
+    private long walLength = -1;   // bytes of the log applied so far, up to the last whole line
+    private long walModified = -1;
+    private int walRecords;
+    private long generation; // bumped whenever the table is reloaded or replaced wholesale
+    private boolean loaded;
+    private boolean compactionQueued;
+    private boolean logLocked; // this log holds the sidecar lock; guarded by this
+
+    private interface LockedWork {
+        void run() throws IOException;
+    }
+
+    BookingWriteAheadLog(String snapshotPath, String walPath) {
+
+        this.snapshotPath = snapshotPath;
+        this.walPath = walPath;
+        this.index = new BookingIndex(snapshotPath, snapshotPath.replaceFirst("\\.csv$", "") + "_Index.csv");
+    }
+
+    /**
+     * Returns the shared log for the given booking snapshot file
+     */
+    public static synchronized BookingWriteAheadLog forSnapshot(String snapshotPath) {
+
+        if (instance == null || !instance.snapshotPath.equals(snapshotPath))
+            instance = new BookingWriteAheadLog(snapshotPath, snapshotPath.replaceFirst("\\.csv$", "") + "_WAL.csv");
+
+        return instance;
+    }
+
+    /**
+     * Reads the snapshot and applies every logged change on top of it
+     */
+    public synchronized List<String> readAllLines() throws IOException {
+
+        ensureLoaded();
+        return materialize(readSnapshot());
+    }
+
+    /**
+     * Checks whether a booking ID exists without reading the table
+     */
+    public synchronized boolean contains(String bookingID) {
+
+        ensureLoaded();
+        return inserted.containsKey(bookingID) || index.contains(bookingID);
+    }
+
+    /**
+     * @return true if there is no snapshot to log against yet
+     */
+    public boolean isEmpty() {
+        return new File(snapshotPath).length() == 0;
+    }
+
+    /**
+     * Looks up the current row of a single booking through the index
+     * @return the row split into fields, or null if there is no such booking
+     */
+    public synchronized String[] findRecord(String bookingID) throws IOException {
+
+        ensureLoaded();
+
+        String[] row = inserted.get(bookingID);
+        if (row != null)
+            return row.clone();
+
+        String line = index.readLine(bookingID);
+        if (line == null)
+            return null;
+
+        String[] data = line.split(DELIMITER);
+        Map<Integer, String> changes = fieldUpdates.get(bookingID);
+
+        if (changes != null) {
+            for (Map.Entry<Integer, String> change : changes.entrySet()) {
+                if (change.getKey() < data.length)
+                    data[change.getKey()] = change.getValue();
+            }
+        }
+        return data;
+    }
+
+    /**
+     * Logs a new booking row
+     */
+    public synchronized void appendInsert(String line) throws IOException {
+
+        withLogLock(() -> {
+            refresh();
+            String[] data = line.split(DELIMITER);
+
+            append(INSERT + DELIMITER + line);
+            inserted.put(data[0], data);
+        });
+    }
+
+    /**
+     * Logs a change to one field of a booking row; an unknown booking is ignored
+     */
+    public synchronized void appendUpdate(String bookingID, int fieldIndex, String newValue) throws IOException {
+
+        withLogLock(() -> {
+            refresh();
+            if (!inserted.containsKey(bookingID) && !index.contains(bookingID))
+                return;
+
+            append(String.join(DELIMITER, UPDATE, bookingID, Integer.toString(fieldIndex), newValue));
+            applyUpdate(bookingID, fieldIndex, newValue);
+        });
+    }
+
+    /**
+     * Replaces the whole table with the given lines and starts an empty log
+     */
+    public synchronized boolean replaceAll(List<String> lines) {
+
+        try {
+            withLogLock(() -> {
+                writeSnapshot(lines);
+
+                resetOverlay();
+                captureSnapshotStamp();
+                index.load(baseLine());
+                startLog();
+                generation++;
+                loaded = true;
+            });
+            return true;
+        }
+        catch (IOException e) {
+            System.err.println("Error writing to booking database: " + e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Folds the log into a fresh snapshot file
+     */
+    public synchronized void compact() {
+
+        compactionQueued = false;
+
+        // Replay, rewrite and restart under one hold of the lock, so no append slips in between
+        try {
+            withLogLock(() -> {
+                refresh();
+                if (walRecords > 0)
+                    replaceAll(materialize(readSnapshot()));
+            });
+        }
+        catch (IOException e) {
+            System.err.println("Error compacting booking log: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Changes whenever the table was replaced or reloaded, so derived indexes know to rebuild
+     */
+    public synchronized long getGeneration() {
+
+        ensureLoaded();
+        return generation;
+    }
+
+    synchronized int getPendingRecords() {
+        return walRecords;
+    }
+
+    private List<String> materialize(List<String> snapshot) {
+
+        if (fieldUpdates.isEmpty() && inserted.isEmpty())
+            return snapshot;
+
+        List<String> lines = new ArrayList<>(snapshot.size() + inserted.size());
+        Set<String> updated = new HashSet<>();
+
+        for (int i = 0; i < snapshot.size(); i++) {
+
+            String line = snapshot.get(i);
+            String[] data = line.split(DELIMITER);
+
+            // Like the in-place update this replaces, only the first row with an ID is changed
+            Map<Integer, String> changes = i == 0 ? null : fieldUpdates.get(data[0]);
+            if (changes != null && updated.add(data[0])) {
+
+                for (Map.Entry<Integer, String> change : changes.entrySet()) {
+                    if (change.getKey() < data.length)
+                        data[change.getKey()] = change.getValue();
+                }
+                line = String.join(DELIMITER, data);
+            }
+            lines.add(line);
+        }
+
+        for (String[] data : inserted.values())
+            lines.add(String.join(DELIMITER, data));
+
+        return lines;
+    }
+
+    private void applyUpdate(String bookingID, int fieldIndex, String newValue) {
+
+        String[] row = inserted.get(bookingID);
+
+        if (row != null) {
+            if (fieldIndex < row.length)
+                row[fieldIndex] = newValue;
+        }
+        else
+            fieldUpdates.computeIfAbsent(bookingID, id -> new LinkedHashMap<>()).put(fieldIndex, newValue);
+    }
+
+    private void append(String record) throws IOException {
+
+        File wal = new File(walPath);
+        if (!wal.exists())
+            startLog();
+
+        // If someone else appended since we last looked, leave the stamp behind so their
+        // records (and this one again, harmlessly) are replayed on the next read
+        boolean caughtUp = wal.length() == walLength;
+
+        DurableFiles.append(walPath, Collections.singletonList(record));
+        if (caughtUp)
+            captureLogStamp();
+
+        if (++walRecords >= COMPACT_THRESHOLD && !compactionQueued) {
+            compactionQueued = true;
+            COMPACTOR.execute(this::compact);
+        }
+    }
+
+    // Readers only take the lock when the files changed since they were last applied
+    private void ensureLoaded() {
+
+        if (isCurrent())
+            return;
+
+        try {
+            withLogLock(this::refresh);
+        }
+        catch (IOException e) {
+            System.err.println("Error locking booking log: " + e.getMessage());
+        }
+    }
+
+    private boolean isCurrent() {
+
+        File snapshot = new File(snapshotPath);
+        File wal = new File(walPath);
+        return loaded && snapshot.length() == snapshotLength && snapshot.lastModified() == snapshotModified
+                && wal.length() == walLength && wal.lastModified() == walModified;
+    }
+
+    // Runs the work holding the sidecar lock, or straight away if this log already holds it
+    private void withLogLock(LockedWork work) throws IOException {
+
+        if (logLocked) {
+            work.run();
+            return;
+        }
+
+        Object guard;
+        synchronized (PATH_GUARDS) {
+            guard = PATH_GUARDS.computeIfAbsent(new File(walPath).getAbsolutePath(), p -> new Object());
+        }
+
+        synchronized (guard) {
+
+            Path lockPath = Paths.get(walPath + ".lock").toAbsolutePath();
+            Files.createDirectories(lockPath.getParent());
+
+            try (FileChannel channel = FileChannel.open(lockPath, StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+
+                FileLock lock = channel.lock();
+                logLocked = true;
+                try {
+                    work.run();
+                }
+                finally {
+                    logLocked = false;
+                    lock.release();
+                }
+            }
+        }
+    }
+
+    // Rebuild the overlay when first used or when the snapshot was replaced behind our back,
+    // and replay whatever was appended to the log since we last read it
+    private void refresh() {
+
+        File snapshot = new File(snapshotPath);
+        if (loaded && snapshot.length() == snapshotLength && snapshot.lastModified() == snapshotModified) {
+
+            File wal = new File(walPath);
+            if (wal.length() == walLength && wal.lastModified() == walModified)
+                return;
+
+            if (wal.length() > walLength && replayTail()) {
+                generation++;
+                return;
+            }
+        }
+
+        resetOverlay();
+        captureSnapshotStamp();
+        index.load(baseLine());
+        replayLog();
+        generation++;
+        loaded = true;
+    }
+
+    private void replayLog() {
+
+        walLength = -1;
+        walModified = -1;
+
+        File wal = new File(walPath);
+        if (!wal.exists()) {
+            captureLogStamp(); // so readers see nothing new until a log appears
+            return;
+        }
+
+        byte[] bytes;
+        try {
+            bytes = Files.readAllBytes(wal.toPath());
+        }
+        catch (IOException e) {
+            System.err.println("Error replaying booking log: " + e.getMessage());
+            return;
+        }
+
+        int end = lastLineEnd(bytes, 0);
+        List<String> lines = splitLines(bytes, 0, end);
+
+        // A log written against another snapshot no longer applies to this one
+        if (lines.isEmpty() || !baseLine().equals(lines.get(0))) {
+            resetOverlay();
+            startLog();
+            return;
+        }
+
+        applyRecords(lines.subList(1, lines.size()));
+        walLength = end;
+        walModified = wal.lastModified();
+    }
+
+    // Applies the records appended after walLength; false if the log was replaced instead
+    private boolean replayTail() {
+
+        try (RandomAccessFile wal = new RandomAccessFile(walPath, "r")) {
+
+            long length = wal.length();
+            // A log that appeared or shrank is a new log, not a longer one
+            if (walLength <= 0 || length < walLength)
+                return false;
+
+            byte[] tail = new byte[(int) (length - walLength)];
+            wal.seek(walLength);
+            wal.readFully(tail);
+
+            int end = lastLineEnd(tail, 0);
+            applyRecords(splitLines(tail, 0, end));
+
+            walLength += end;
+            walModified = new File(walPath).lastModified();
+            return true;
+        }
+        catch (IOException e) {
+            System.err.println("Error replaying booking log: " + e.getMessage());
+            return false;
+        }
+    }
+
+    private void applyRecords(List<String> records) {
+
+        for (String line : records) {
+            try {
+                if (line.startsWith(INSERT + DELIMITER)) {
+                    String[] data = line.substring(2).split(DELIMITER);
+                    inserted.put(data[0], data);
+                }
+                else if (line.startsWith(UPDATE + DELIMITER)) {
+                    String[] data = line.split(DELIMITER, 4);
+                    if (data.length == 4)
+                        applyUpdate(data[1], Integer.parseInt(data[2]), data[3]);
+                }
+            }
+            catch (NumberFormatException e) {
+                System.err.println("Error replaying booking log: " + e.getMessage());
+            }
+            walRecords++;
+        }
+
+        if (walRecords >= COMPACT_THRESHOLD && !compactionQueued) {
+            compactionQueued = true;
+            COMPACTOR.execute(this::compact);
+        }
+    }
+
+    // Offset just past the last line break; a last line without one is still being written
+    private static int lastLineEnd(byte[] bytes, int from) {
+
+        for (int i = bytes.length - 1; i >= from; i--) {
+            if (bytes[i] == '\n')
+                return i + 1;
+        }
+        return from;
+    }
+
+    private static List<String> splitLines(byte[] bytes, int from, int to) {
+
+        List<String> lines = new ArrayList<>();
+        String text = new String(bytes, from, to - from, StandardCharsets.UTF_8);
+
+        for (String line : text.split("\n")) {
+            if (line.endsWith("\r"))
+                line = line.substring(0, line.length() - 1);
+            if (!line.isEmpty())
+                lines.add(line);
+        }
+        return lines;
+    }
+
+    private List<String> readSnapshot() throws IOException {
+
+        List<String> lines = new ArrayList<>();
+
+        try (BufferedReader reader = new BufferedReader(new FileReader(snapshotPath))) {
+
+            String line;
+            while ((line = reader.readLine()) != null)
+                lines.add(line);
+        }
+        return lines;
+    }
+
+    // Swapped in atomically so readers never see a half-written snapshot
+    private void writeSnapshot(List<String> lines) throws IOException {
+
+        DurableFiles.replace(snapshotPath, lines);
+    }
+
+    // Truncates the log and tags it with the snapshot it applies to
+    private void startLog() {
+
+        walRecords = 0;
+
+        try {
+            DurableFiles.replace(walPath, Collections.singletonList(baseLine()));
+        }
+        catch (IOException e) {
+            System.err.println("Error starting booking log: " + e.getMessage());
+        }
+        captureLogStamp();
+    }
+
+    private void resetOverlay() {
+
+        fieldUpdates.clear();
+        inserted.clear();
+        walRecords = 0;
+    }
+
+    private String baseLine() {
+        return BASE + DELIMITER + snapshotLength + DELIMITER + snapshotModified;
+    }
+
+    // Taken right after our own writes to the log, so they are not replayed as someone else's
+    private void captureLogStamp() {
+
+        File wal = new File(walPath);
+        walLength = wal.length();
+        walModified = wal.lastModified();
+    }
+
+    private void captureSnapshotStamp() {
+
+        File snapshot = new File(snapshotPath);
+        snapshotLength = snapshot.length();
+        snapshotModified = snapshot.lastModified();
+    }
+}
@@ -0,0 +1,104 @@
+package com.company;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Outcome of each row of a bulk registration by RegisterationSystem.registerAll, in the order
+ * the users were handed in
+ */
+public class BulkImportReport {
+
+    public enum Outcome {
+        REGISTERED,
+        INVALID,            // missing or malformed fields
+        DUPLICATE,          // the email appears earlier in the same batch
+        ALREADY_REGISTERED,
+        NOT_VALIDATED,      // rejected by the user type's own validation
+        FAILED              // hashing or writing failed
+    }
+
+    /**
+     * One user of the batch
+     */
+    public static class Row {
+
+        private final int index;
+        private final String email;
+        private final Outcome outcome;
+        private final String message;
+
+        public Row(int index, String email, Outcome outcome, String message) {
+            this.index = index;
+            this.email = email;
+            this.outcome = outcome;
+            this.message = message;
+        }
+
+        // Position of the user in the batch, from 0
+        public int getIndex() {
+            return index;
+        }
+
+        public String getEmail() {
+            return email;
+        }
+
+        public Outcome getOutcome() {
+            return outcome;
+        }
+
+        public String getMessage() {
+            return message;
+        }
+
+        @Override
+        public String toString() {
+            return index + "," + email + "," + outcome + "," + message;
+        }
+    }
+
+    private final List<Row> rows;
+
+    public BulkImportReport(List<Row> rows) {
+        this.rows = Collections.unmodifiableList(new ArrayList<>(rows));
+    }
+
+    public List<Row> getRows() {
+        return rows;
+    }
+
+    public int count(Outcome outcome) {
+
+        int count = 0;
+        for (Row row : rows) {
+            if (row.getOutcome() == outcome)
+                count++;
+        }
+        return count;
+    }
+
+    public int getRegisteredCount() {
+        return count(Outcome.REGISTERED);
+    }
+
+    /**
+     * @return every row that was not registered
+     */
+    public List<Row> getRejectedRows() {
+
+        List<Row> rejected = new ArrayList<>();
+        for (Row row : rows) {
+            if (row.getOutcome() != Outcome.REGISTERED)
+                rejected.add(row);
+        }
+        return rejected;
+    }
+
+    @Override
+    public String toString() {
+        return "BulkImportReport{rows=" + rows.size() + ", registered=" + getRegisteredCount()
+                + ", rejected=" + (rows.size() - getRegisteredCount()) + "}";
+    }
+}
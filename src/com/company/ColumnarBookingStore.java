@@ -0,0 +1,517 @@
+package com.company;
+
+import java.time.LocalTime;
+import java.util.*;
+
+/**
+ * Bookings held column by column in primitive arrays instead of one Booking object each.
+ * IDs, users, spots and lots are ints, start and end are seconds of the day, statuses are
+ * byte codes (the usual ones fixed, any other added to a small dictionary) and plates are
+ * ints into an intern table, so a row costs a few dozen bytes and a scan walks flat arrays.
+ * Rows are found by ID through a hash index and read through the primitive accessors or a
+ * Cursor, a reusable BookingView that can be moved from row to row without allocating.
+ */
+public class ColumnarBookingStore {
+
+    private static final String ID_PREFIX = "N2S";
+    private static final int ID_DIGITS = 6;
+    private static final int INITIAL_CAPACITY = 64;
+
+    // Fixed codes of the statuses bookings use; other statuses get the codes after them
+    public static final byte ACTIVE = 0;
+    public static final byte CANCELLED = 1;
+    public static final byte COMPLETED = 2;
+    public static final byte PAID = 3;
+    public static final byte PENDING = 4;
+    private static final String[] KNOWN_STATUSES = {"Active", "Cancelled", "Completed", "Paid", "Pending"};
+
+    // Column positions in Booking_Database.csv
+    private static final int ID = 0;
+    private static final int USER = 1;
+    private static final int SPOT = 2;
+    private static final int LOT = 3;
+    private static final int PLATE = 4;
+    private static final int START = BookingIntervalTree.START;
+    private static final int END = BookingIntervalTree.END;
+    private static final int PAYMENT_STATUS = BookingIntervalTree.PAYMENT_STATUS;
+    private static final int AMOUNT = 8;
+    private static final int BOOKING_STATUS = BookingIntervalTree.BOOKING_STATUS;
+    private static final int TOTAL_AMOUNT = 10;
+
+    // N2S000042 is stored as 42; any other ID as -(1 + its index in otherIDs)
+    private int[] ids;
+    private int[] users;
+    private int[] spots;
+    private int[] lots;
+    private int[] plates;
+    private int[] starts;
+    private int[] ends;
+    private byte[] bookingStatuses;
+    private byte[] paymentStatuses;
+    private double[] amounts;
+    private double[] totalAmounts;
+    private int size;
+
+    // Open-addressing hash index from stored ID to the first row holding it
+    private int[] slotIDs;
+    private int[] slotRows; // row + 1, 0 for an empty slot
+
+    private final StringTable otherIDs = new StringTable(Integer.MAX_VALUE);
+    private final StringTable plateTable = new StringTable(Integer.MAX_VALUE);
+    private final StringTable statusTable = new StringTable(Byte.MAX_VALUE + 1);
+
+    public ColumnarBookingStore() {
+        this(INITIAL_CAPACITY);
+    }
+
+    public ColumnarBookingStore(int capacity) {
+
+        allocate(Math.max(1, capacity));
+        allocateIndex(Math.max(1, capacity));
+
+        for (String status : KNOWN_STATUSES)
+            statusTable.intern(status);
+    }
+
+    /**
+     * Builds a store from booking rows (header included), skipping rows that cannot be converted
+     */
+    public static ColumnarBookingStore fromLines(List<String> lines) {
+
+        ColumnarBookingStore store = new ColumnarBookingStore(Math.max(1, lines.size() - 1));
+        for (int i = 1; i < lines.size(); i++)
+            store.add(lines.get(i).split(","));
+        return store;
+    }
+
+    /**
+     * Appends one booking row
+     * @return false if the row is too short or cannot be parsed
+     */
+    public boolean add(String[] data) {
+
+        if (data == null || data.length < 10 || "booking_id".equals(data[ID]))
+            return false;
+
+        try {
+            int user = Integer.parseInt(data[USER].trim());
+            int spot = Integer.parseInt(data[SPOT].trim());
+            int lot = Integer.parseInt(data[LOT].trim());
+            int start = parseTime(data[START]);
+            int end = parseTime(data[END]);
+            double amount = Double.parseDouble(data[AMOUNT].trim());
+            double totalAmount = data.length > TOTAL_AMOUNT ? Double.parseDouble(data[TOTAL_AMOUNT].trim()) : amount;
+
+            append(encodeID(data[ID]), user, spot, lot, data[PLATE], start, end,
+                    data[BOOKING_STATUS], data[PAYMENT_STATUS], amount, totalAmount);
+            return true;
+        }
+        catch (RuntimeException e) {
+            return false; // same rows convertToBooking rejects
+        }
+    }
+
+    /**
+     * Appends a booking's current fields
+     */
+    public void add(BookingView booking) {
+
+        append(encodeID(booking.getBookingID()), booking.getUserID(), booking.getParkingSpace(),
+                booking.getParkingLot(), booking.getPlate(), booking.getStart().toSecondOfDay(), booking.getEnd().toSecondOfDay(),
+                booking.getBookingStatus(), booking.getPaymentStatus(), booking.getAmount(), booking.getTotalAmount());
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return the row holding the booking ID, or -1
+     */
+    public int indexOf(String bookingID) {
+
+        if (bookingID == null)
+            return -1;
+
+        int id = encodeExisting(bookingID);
+        if (id == Integer.MIN_VALUE)
+            return -1;
+
+        for (int slot = slotOf(id); slotRows[slot] != 0; slot = (slot + 1) & (slotIDs.length - 1)) {
+            if (slotIDs[slot] == id)
+                return slotRows[slot] - 1;
+        }
+        return -1;
+    }
+
+    // Primitive accessors for allocation-free scans
+
+    public int userID(int row) { return users[check(row)]; }
+    public int spotID(int row) { return spots[check(row)]; }
+    public int lotID(int row) { return lots[check(row)]; }
+    public int startMinute(int row) { return starts[check(row)] / 60; }
+    public int endMinute(int row) { return ends[check(row)] / 60; }
+    public byte bookingStatusCode(int row) { return bookingStatuses[check(row)]; }
+    public byte paymentStatusCode(int row) { return paymentStatuses[check(row)]; }
+    public double amount(int row) { return amounts[check(row)]; }
+    public double totalAmount(int row) { return totalAmounts[check(row)]; }
+
+    public boolean hasBookingStatus(int row, String status) {
+        return statusCode(status) == bookingStatuses[check(row)];
+    }
+
+    public boolean hasPaymentStatus(int row, String status) {
+        return statusCode(status) == paymentStatuses[check(row)];
+    }
+
+    /**
+     * @return the byte code stored for the status, or -1 if no row has ever held it
+     */
+    public int statusCode(String status) {
+        return statusTable.codeOf(status);
+    }
+
+    /**
+     * Counts the bookings with the given status whose slot covers the minute of the day
+     */
+    public int countAt(int minute, String bookingStatus) {
+
+        int code = statusCode(bookingStatus);
+        if (code < 0)
+            return 0;
+
+        // Whole minutes, so a slot ending at 10:30:45 still covers 10:30
+        int from = minute * 60 + 59;
+        int to = minute * 60;
+
+        int count = 0;
+        for (int i = 0; i < size; i++) {
+            if (bookingStatuses[i] == code && starts[i] <= from && to <= ends[i])
+                count++;
+        }
+        return count;
+    }
+
+    public void setBookingStatus(int row, String status) {
+        bookingStatuses[check(row)] = (byte) statusTable.intern(status);
+    }
+
+    public void setPaymentStatus(int row, String status) {
+        paymentStatuses[check(row)] = (byte) statusTable.intern(status);
+    }
+
+    public void setEnd(int row, LocalTime end) {
+        ends[check(row)] = end.toSecondOfDay();
+    }
+
+    public void setTotalAmount(int row, double totalAmount) {
+        totalAmounts[check(row)] = totalAmount;
+    }
+
+    /**
+     * Applies a change to one column of a booking, given as it is written to Booking_Database.csv
+     * @return false if the booking is unknown, the column is not one kept up to date here, or
+     * the value cannot be parsed
+     */
+    public boolean update(String bookingID, int fieldIndex, String newValue) {
+
+        int row = indexOf(bookingID);
+        if (row < 0 || newValue == null)
+            return false;
+
+        try {
+            switch (fieldIndex) {
+                case START: starts[row] = parseTime(newValue); return true;
+                case END: ends[row] = parseTime(newValue); return true;
+                case PAYMENT_STATUS: setPaymentStatus(row, newValue); return true;
+                case BOOKING_STATUS: setBookingStatus(row, newValue); return true;
+                case TOTAL_AMOUNT: totalAmounts[row] = Double.parseDouble(newValue.trim()); return true;
+                default: return false;
+            }
+        }
+        catch (RuntimeException e) {
+            return false;
+        }
+    }
+
+    /**
+     * @return a new cursor positioned before the first row
+     */
+    public Cursor cursor() {
+        return new Cursor();
+    }
+
+    /**
+     * Builds a full Booking from a row, for code that needs to act on it
+     */
+    public Booking toBooking(int row) {
+
+        Cursor cursor = cursor().moveTo(row);
+        Booking.BookingBuilder builder = new Booking.BookingBuilder()
+                .setBookingID(cursor.getBookingID())
+                .setUserID(cursor.getUserID())
+                .setParkingSpace(cursor.getParkingSpace())
+                .setParkingLot(cursor.getParkingLot())
+                .setStart(cursor.getStart())
+                .setEnd(cursor.getEnd())
+                .setBookingStatus(cursor.getBookingStatus())
+                .setPaymentStatus(cursor.getPaymentStatus())
+                .setAmount(cursor.getAmount())
+                .setTotalAmount(cursor.getTotalAmount());
+
+        try {
+            builder.setPlate(cursor.getPlate());
+        }
+        catch (Exception e) {
+            System.err.println("Error converting row to booking: " + e.getMessage());
+        }
+        return builder.build();
+    }
+
+    /**
+     * Flyweight view of one row; moveTo and next reposition it without allocating
+     */
+    public class Cursor implements BookingView {
+
+        private int row = -1;
+
+        public Cursor moveTo(int row) {
+            this.row = check(row);
+            return this;
+        }
+
+        /**
+         * Advances to the next row
+         * @return false once past the last row
+         */
+        public boolean next() {
+
+            if (row + 1 >= size)
+                return false;
+            row++;
+            return true;
+        }
+
+        public int getRow() {
+            return row;
+        }
+
+        @Override
+        public String getBookingID() {
+            int id = ids[row];
+            return id >= 0 ? formatID(id) : otherIDs.get(-id - 1);
+        }
+
+        @Override public int getUserID() { return users[row]; }
+        @Override public int getParkingLot() { return lots[row]; }
+        @Override public int getParkingSpace() { return spots[row]; }
+        @Override public LocalTime getStart() { return toTime(starts[row]); }
+        @Override public LocalTime getEnd() { return toTime(ends[row]); }
+        @Override public String getStatus() { return getBookingStatus(); }
+        @Override public String getPlate() { return plateTable.get(plates[row]); }
+        @Override public String getBookingStatus() { return statusTable.get(bookingStatuses[row]); }
+        @Override public String getPaymentStatus() { return statusTable.get(paymentStatuses[row]); }
+        @Override public double getAmount() { return amounts[row]; }
+        @Override public double getTotalAmount() { return totalAmounts[row]; }
+    }
+
+    private void append(int id, int user, int spot, int lot, String plate, int start, int end,
+                        String bookingStatus, String paymentStatus, double amount, double totalAmount) {
+
+        int bookingCode = statusTable.intern(bookingStatus);
+        int paymentCode = statusTable.intern(paymentStatus);
+
+        if (size == ids.length)
+            grow();
+
+        ids[size] = id;
+        users[size] = user;
+        spots[size] = spot;
+        lots[size] = lot;
+        plates[size] = plateTable.intern(plate);
+        starts[size] = start;
+        ends[size] = end;
+        bookingStatuses[size] = (byte) bookingCode;
+        paymentStatuses[size] = (byte) paymentCode;
+        amounts[size] = amount;
+        totalAmounts[size] = totalAmount;
+        index(id, size);
+        size++;
+    }
+
+    // The first row wins, as it would for a top-down scan
+    private void index(int id, int row) {
+
+        if ((size + 1) * 2 > slotIDs.length)
+            rehash();
+
+        int slot = slotOf(id);
+        while (slotRows[slot] != 0) {
+            if (slotIDs[slot] == id)
+                return;
+            slot = (slot + 1) & (slotIDs.length - 1);
+        }
+        slotIDs[slot] = id;
+        slotRows[slot] = row + 1;
+    }
+
+    private void rehash() {
+
+        int[] oldIDs = slotIDs;
+        int[] oldRows = slotRows;
+        allocateIndex(oldIDs.length);
+
+        for (int i = 0; i < oldIDs.length; i++) {
+            if (oldRows[i] != 0) {
+                int slot = slotOf(oldIDs[i]);
+                while (slotRows[slot] != 0)
+                    slot = (slot + 1) & (slotIDs.length - 1);
+                slotIDs[slot] = oldIDs[i];
+                slotRows[slot] = oldRows[i];
+            }
+        }
+    }
+
+    // A power of two with room for the rows at no more than half full
+    private void allocateIndex(int rows) {
+
+        int slots = Integer.highestOneBit(Math.max(2, rows) * 2 - 1) * 2;
+        slotIDs = new int[slots];
+        slotRows = new int[slots];
+    }
+
+    private int slotOf(int id) {
+
+        int hash = id * 0x9E3779B9;
+        return (hash ^ (hash >>> 16)) & (slotIDs.length - 1);
+    }
+
+    private void allocate(int capacity) {
+
+        ids = new int[capacity];
+        users = new int[capacity];
+        spots = new int[capacity];
+        lots = new int[capacity];
+        plates = new int[capacity];
+        starts = new int[capacity];
+        ends = new int[capacity];
+        bookingStatuses = new byte[capacity];
+        paymentStatuses = new byte[capacity];
+        amounts = new double[capacity];
+        totalAmounts = new double[capacity];
+    }
+
+    private void grow() {
+
+        int capacity = ids.length * 2;
+        ids = Arrays.copyOf(ids, capacity);
+        users = Arrays.copyOf(users, capacity);
+        spots = Arrays.copyOf(spots, capacity);
+        lots = Arrays.copyOf(lots, capacity);
+        plates = Arrays.copyOf(plates, capacity);
+        starts = Arrays.copyOf(starts, capacity);
+        ends = Arrays.copyOf(ends, capacity);
+        bookingStatuses = Arrays.copyOf(bookingStatuses, capacity);
+        paymentStatuses = Arrays.copyOf(paymentStatuses, capacity);
+        amounts = Arrays.copyOf(amounts, capacity);
+        totalAmounts = Arrays.copyOf(totalAmounts, capacity);
+    }
+
+    private int check(int row) {
+
+        if (row < 0 || row >= size)
+            throw new IndexOutOfBoundsException("Row " + row + " of " + size);
+        return row;
+    }
+
+    private int encodeID(String bookingID) {
+
+        int number = parseStandardID(bookingID);
+        return number >= 0 ? number : -(otherIDs.intern(bookingID) + 1);
+    }
+
+    // The stored form of an ID without registering it, or MIN_VALUE for an unseen irregular ID
+    private int encodeExisting(String bookingID) {
+
+        int number = parseStandardID(bookingID);
+        if (number >= 0)
+            return number;
+
+        int index = otherIDs.codeOf(bookingID);
+        return index < 0 ? Integer.MIN_VALUE : -(index + 1);
+    }
+
+    // The number in an N2S###### ID, or -1 if the ID has another shape
+    private static int parseStandardID(String bookingID) {
+
+        if (bookingID == null || bookingID.length() != ID_PREFIX.length() + ID_DIGITS || !bookingID.startsWith(ID_PREFIX))
+            return -1;
+
+        int number = 0;
+        for (int i = ID_PREFIX.length(); i < bookingID.length(); i++) {
+            char c = bookingID.charAt(i);
+            if (c < '0' || c > '9')
+                return -1;
+            number = number * 10 + (c - '0');
+        }
+        return number;
+    }
+
+    // N2S followed by the number zero-padded to six digits, as Booking generates them
+    private static String formatID(int number) {
+
+        char[] chars = new char[ID_PREFIX.length() + ID_DIGITS];
+        ID_PREFIX.getChars(0, ID_PREFIX.length(), chars, 0);
+
+        for (int i = chars.length - 1; i >= ID_PREFIX.length(); i--) {
+            chars[i] = (char) ('0' + number % 10);
+            number /= 10;
+        }
+        return new String(chars);
+    }
+
+    private static int parseTime(String value) {
+        return LocalTime.parse(value.trim(), BookingIntervalTree.TIME_FORMAT).toSecondOfDay();
+    }
+
+    private static LocalTime toTime(int second) {
+        return LocalTime.ofSecondOfDay(second);
+    }
+
+    /**
+     * Dictionary of distinct strings, each stored once and referred to by its index
+     */
+    private static class StringTable {
+
+        private final int limit;
+        private final List<String> values = new ArrayList<>();
+        private final Map<String, Integer> codes = new HashMap<>();
+
+        StringTable(int limit) {
+            this.limit = limit;
+        }
+
+        int intern(String value) {
+
+            Integer code = codes.get(value);
+            if (code != null)
+                return code;
+
+            if (values.size() >= limit)
+                throw new IllegalStateException("Too many distinct values: " + value);
+
+            values.add(value);
+            codes.put(value, values.size() - 1);
+            return values.size() - 1;
+        }
+
+        int codeOf(String value) {
+            Integer code = codes.get(value);
+            return code == null ? -1 : code;
+        }
+
+        String get(int code) {
+            return values.get(code);
+        }
+    }
+}
@@ -0,0 +1,163 @@
+package com.company;
+
+import java.io.*;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A table kept as a plain CSV file: every read parses the file, whole-table writes replace it
+ * atomically and single-row inserts are appended.
+ */
+public class CsvRecordTable implements RecordTable {
+
+    private static final String DELIMITER = ",";
+
+    private final String path;
+    private final int keyColumn;
+    private final String header;
+
+    private long fileLength = -1;
+    private long fileModified = -1;
+    private long generation;
+
+    /**
+     * @param header written first when a missing file is created by an insert, or null for none
+     */
+    public CsvRecordTable(String path, int keyColumn, String header) {
+        this.path = path;
+        this.keyColumn = keyColumn;
+        this.header = header;
+    }
+
+    @Override
+    public synchronized List<String> readAllLines() throws IOException {
+
+        List<String> lines = new ArrayList<>();
+
+        try (BufferedReader reader = new BufferedReader(new FileReader(path))) {
+
+            String line;
+            while ((line = reader.readLine()) != null)
+                lines.add(line);
+        }
+        return lines;
+    }
+
+    @Override
+    public synchronized boolean replaceAll(List<String> lines) {
+
+        try {
+            DurableFiles.replace(path, lines);
+        }
+        catch (IOException e) {
+            System.err.println("Error writing " + path + ": " + e.getMessage());
+            return false;
+        }
+        changed();
+        return true;
+    }
+
+    @Override
+    public synchronized void appendInsert(String line) throws IOException {
+        appendInserts(Collections.singletonList(line));
+    }
+
+    @Override
+    public synchronized void appendInserts(List<String> newLines) throws IOException {
+
+        List<String> lines = new ArrayList<>(newLines.size() + 1);
+        if (header != null && !new File(path).exists())
+            lines.add(header);
+        lines.addAll(newLines);
+
+        DurableFiles.append(path, lines);
+        changed();
+    }
+
+    @Override
+    public synchronized void appendUpdate(String key, int fieldIndex, String newValue) throws IOException {
+
+        List<String> lines = readAllLines();
+
+        for (int i = firstRow(lines); i < lines.size(); i++) {
+
+            String[] data = lines.get(i).split(DELIMITER);
+            if (keyColumn < data.length && data[keyColumn].trim().equals(key) && fieldIndex < data.length) {
+                data[fieldIndex] = newValue;
+                lines.set(i, String.join(DELIMITER, data));
+
+                if (!replaceAll(lines))
+                    throw new IOException("Could not rewrite " + path);
+                return;
+            }
+        }
+    }
+
+    @Override
+    public synchronized String[] findRecord(String key) throws IOException {
+
+        List<String> lines = readAllLines();
+
+        for (int i = firstRow(lines); i < lines.size(); i++) {
+
+            String[] data = lines.get(i).split(DELIMITER);
+            if (keyColumn < data.length && data[keyColumn].trim().equals(key))
+                return data;
+        }
+        return null;
+    }
+
+    @Override
+    public boolean contains(String key) {
+
+        try {
+            return findRecord(key) != null;
+        }
+        catch (IOException e) {
+            return false;
+        }
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return new File(path).length() == 0;
+    }
+
+    /**
+     * Also moves on when the file was changed on disk by someone else
+     */
+    @Override
+    public synchronized long getGeneration() {
+
+        File file = new File(path);
+        if (file.length() != fileLength || file.lastModified() != fileModified) {
+            captureStamp(file);
+            generation++;
+        }
+        return generation;
+    }
+
+    @Override
+    public void compact() {
+        // nothing is pending, every write goes straight to the file
+    }
+
+    public String getPath() {
+        return path;
+    }
+
+    private void changed() {
+        captureStamp(new File(path));
+        generation++;
+    }
+
+    private void captureStamp(File file) {
+        fileLength = file.length();
+        fileModified = file.lastModified();
+    }
+
+    private int firstRow(List<String> lines) {
+        return header == null || lines.isEmpty() ? 0 : 1;
+    }
+}
@@ -0,0 +1,31 @@
+package com.company;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The original storage: one CSV file per table. Bookings go through their write-ahead log,
+ * every other table is read and rewritten as a whole file.
+ */
+public class CsvStorageEngine implements StorageEngine {
+
+    public static final String NAME = "csv";
+
+    private final Map<String, CsvRecordTable> tables = new HashMap<>();
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public synchronized RecordTable table(StorageTable table) {
+
+        String path = table.path();
+
+        if (table == StorageTable.BOOKINGS)
+            return BookingWriteAheadLog.forSnapshot(path);
+
+        return tables.computeIfAbsent(path, p -> new CsvRecordTable(p, table.getKeyColumn(), table.getHeader()));
+    }
+}
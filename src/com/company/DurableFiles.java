@@ -0,0 +1,281 @@
+package com.company;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Crash-safe replacement of whole data files, and synced appends to journal files.
+ * New contents are written to a temporary file next to the target, forced to disk and then
+ * moved over the target in one atomic step, so a reader or a crash sees either the old file
+ * or the new one but never a truncated one. The replacement keeps the target's permissions.
+ *
+ * With group commit on, the new contents are still forced before the move, but the sync of the
+ * directory entry and of appended lines is deferred and issued once per window for everything
+ * touched in it, so a burst of writes shares one sync. A crash can then lose up to one window
+ * of changes, never the consistency of a file.
+ */
+public final class DurableFiles {
+
+    private static final Object LOCK = new Object();
+
+    // Files and directories replaced since the last group sync
+    private static final Set<Path> dirty = new LinkedHashSet<>();
+
+    private static long groupCommitMillis; // 0 = force on every write
+    private static ScheduledExecutorService syncer;
+    private static ScheduledFuture<?> pendingSync;
+    private static boolean hookInstalled;
+
+    private DurableFiles() {
+    }
+
+    /**
+     * Atomically replaces the file with the given lines, one per line separator
+     */
+    public static void replace(String path, List<String> lines) throws IOException {
+
+        StringBuilder text = new StringBuilder();
+        for (String line : lines)
+            text.append(line).append(System.lineSeparator());
+
+        replace(Paths.get(path), text.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Atomically replaces the file with the given bytes
+     */
+    public static void replace(Path target, byte[] contents) throws IOException {
+
+        Path absolute = target.toAbsolutePath();
+        Path dir = absolute.getParent();
+        Files.createDirectories(dir);
+
+        Path tmp = createTemporary(absolute);
+
+        try {
+            try (FileChannel channel = FileChannel.open(tmp, StandardOpenOption.WRITE)) {
+
+                ByteBuffer buffer = ByteBuffer.wrap(contents);
+                while (buffer.hasRemaining())
+                    channel.write(buffer);
+
+                // Always, so the rename can never reach the disk ahead of the data
+                channel.force(true);
+            }
+            copyPermissions(absolute, tmp);
+            move(tmp, absolute);
+        }
+        finally {
+            Files.deleteIfExists(tmp); // only still there if the write or move failed
+        }
+
+        if (isGroupCommit())
+            markDirty(dir);
+        else
+            forceDirectory(dir);
+    }
+
+    /**
+     * Appends the lines to the file, creating it if needed, and forces them to disk, or with
+     * group commit on, at the end of the current window
+     */
+    public static void append(String path, List<String> lines) throws IOException {
+
+        StringBuilder text = new StringBuilder();
+        for (String line : lines)
+            text.append(line).append(System.lineSeparator());
+
+        append(Paths.get(path), text.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Appends the bytes to the file, creating it if needed, and forces them to disk, or with
+     * group commit on, at the end of the current window
+     */
+    public static void append(Path target, byte[] contents) throws IOException {
+
+        Path absolute = target.toAbsolutePath();
+        Files.createDirectories(absolute.getParent());
+
+        boolean created = !Files.exists(absolute);
+        boolean grouped = isGroupCommit();
+
+        try (FileChannel channel = FileChannel.open(absolute, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+
+            ByteBuffer buffer = ByteBuffer.wrap(contents);
+            while (buffer.hasRemaining())
+                channel.write(buffer);
+
+            if (!grouped)
+                channel.force(false);
+        }
+
+        if (grouped) {
+            markDirty(absolute);
+            if (created)
+                markDirty(absolute.getParent());
+        }
+        else if (created)
+            forceDirectory(absolute.getParent());
+    }
+
+    /**
+     * Turns group commit on with the given window, or off with 0.
+     * Turning it off forces everything still pending.
+     */
+    public static void setGroupCommitWindow(long millis) {
+
+        if (millis < 0)
+            throw new IllegalArgumentException("Group commit window must not be negative");
+
+        synchronized (LOCK) {
+            groupCommitMillis = millis;
+
+            if (millis > 0 && !hookInstalled) {
+                Runtime.getRuntime().addShutdownHook(new Thread(DurableFiles::sync, "durable-files-shutdown"));
+                hookInstalled = true;
+            }
+        }
+
+        if (millis == 0)
+            sync();
+    }
+
+    public static long getGroupCommitWindow() {
+
+        synchronized (LOCK) {
+            return groupCommitMillis;
+        }
+    }
+
+    public static boolean isGroupCommit() {
+        return getGroupCommitWindow() > 0;
+    }
+
+    /**
+     * Forces every pending append and directory entry since the last sync
+     */
+    public static void sync() {
+
+        Path[] pending;
+        synchronized (LOCK) {
+            pending = dirty.toArray(new Path[0]);
+            dirty.clear();
+            pendingSync = null;
+        }
+
+        for (Path path : pending) {
+            if (Files.isDirectory(path))
+                forceDirectory(path);
+            else
+                forceFile(path);
+        }
+    }
+
+    /**
+     * Returns how many files and directories are waiting for the next group sync
+     */
+    public static int pendingCount() {
+
+        synchronized (LOCK) {
+            return dirty.size();
+        }
+    }
+
+    private static void move(Path tmp, Path target) throws IOException {
+
+        try {
+            Files.move(tmp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        }
+        catch (AtomicMoveNotSupportedException e) {
+            Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    // A uniquely named empty file next to the target. Unlike Files.createTempFile it gets the
+    // default permissions for new files rather than owner-only ones.
+    private static Path createTemporary(Path target) throws IOException {
+
+        String prefix = target.getFileName().toString() + ".";
+
+        while (true) {
+            Path tmp = target.resolveSibling(prefix + Long.toUnsignedString(ThreadLocalRandom.current().nextLong(), 36) + ".tmp");
+            try {
+                return Files.createFile(tmp);
+            }
+            catch (FileAlreadyExistsException e) {
+                // try another name
+            }
+        }
+    }
+
+    private static void copyPermissions(Path from, Path to) {
+
+        if (!Files.exists(from))
+            return;
+
+        try {
+            Files.setPosixFilePermissions(to, Files.getPosixFilePermissions(from));
+        }
+        catch (UnsupportedOperationException | IOException e) {
+            // not a POSIX file system; the new file keeps its default permissions
+        }
+    }
+
+    private static void markDirty(Path path) {
+
+        synchronized (LOCK) {
+            dirty.add(path);
+
+            if (pendingSync == null) {
+                if (syncer == null) {
+                    syncer = Executors.newSingleThreadScheduledExecutor(r -> {
+                        Thread thread = new Thread(r, "durable-files-sync");
+                        thread.setDaemon(true);
+                        return thread;
+                    });
+                }
+                pendingSync = syncer.schedule(DurableFiles::sync, groupCommitMillis, TimeUnit.MILLISECONDS);
+            }
+        }
+    }
+
+    private static void forceFile(Path file) {
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.force(true);
+        }
+        catch (IOException e) {
+            System.err.println("Error syncing " + file + ": " + e.getMessage());
+        }
+    }
+
+    // Makes the rename itself durable; not every platform can open a directory, so best effort
+    private static void forceDirectory(Path dir) {
+
+        try (FileChannel channel = FileChannel.open(dir, StandardOpenOption.READ)) {
+            channel.force(true);
+        }
+        catch (IOException e) {
+            // the file contents are already safe; only the directory entry may lag
+        }
+    }
+}
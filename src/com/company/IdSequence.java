@@ -0,0 +1,198 @@
+package com.company;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Hands out increasing IDs from blocks reserved in a shared high-water mark file (hi/lo).
+ * Taking an ID is a single atomic increment; only when a block runs out is the file locked,
+ * read, raised by one block and written back, so processes sharing a data directory never
+ * get overlapping blocks. The first reservation in a process also lifts the mark above the
+ * seed, the highest ID already in the table, to cover rows written without the sequence.
+ * IDs left in a block when the process stops are skipped, never reused. An ID taken outside
+ * the sequence is recorded with advancePast, which also lifts the shared mark past it.
+ */
+public class IdSequence {
+
+    public static final int DEFAULT_BLOCK_SIZE = 50;
+
+    private static final Map<String, IdSequence> sequences = new HashMap<>();
+
+    private final Path path;
+    private final int blockSize;
+    private final LongSupplier seed;
+
+    private volatile Block block = new Block(1, 0); // empty until the first reservation
+    private boolean seeded;
+    private long floor; // highest ID known to be reserved here or taken outside the sequence
+    private volatile long takenOutside; // highest ID passed to advancePast; next never returns it or below
+    private int reservations;
+
+    private interface MarkUpdate<T> {
+        T apply(FileChannel channel) throws IOException;
+    }
+
+    // IDs from next up to and including limit
+    private static final class Block {
+
+        final AtomicLong next;
+        final long limit;
+
+        Block(long first, long limit) {
+            this.next = new AtomicLong(first);
+            this.limit = limit;
+        }
+    }
+
+    IdSequence(String path, int blockSize, LongSupplier seed) {
+
+        if (blockSize <= 0)
+            throw new IllegalArgumentException("Block size must be positive");
+
+        this.path = Paths.get(path);
+        this.blockSize = blockSize;
+        this.seed = seed;
+    }
+
+    /**
+     * Returns the shared sequence kept in the given file; one per file in a process, since
+     * file locks are held by the process and cannot keep two of its own sequences apart
+     */
+    public static synchronized IdSequence forPath(String path, int blockSize, LongSupplier seed) {
+        return sequences.computeIfAbsent(path, p -> new IdSequence(p, blockSize, seed));
+    }
+
+    /**
+     * @return the next ID, unique across every process using the same file
+     */
+    public long next() {
+
+        while (true) {
+
+            Block current = block;
+            long id = current.next.getAndIncrement();
+
+            // An ID drawn while advancePast raised the block is skipped, not handed out twice
+            if (id <= current.limit && id > takenOutside)
+                return id;
+            if (id <= current.limit)
+                continue;
+
+            synchronized (this) {
+                if (block == current)
+                    block = reserve();
+            }
+        }
+    }
+
+    /**
+     * Makes sure the next ID handed out is above the given one, for IDs taken outside the
+     * sequence
+     */
+    public synchronized void advancePast(long id) {
+
+        if (id <= takenOutside)
+            return;
+
+        takenOutside = id;
+        floor = Math.max(floor, id);
+
+        Block current = block;
+        if (id < current.limit) {
+            current.next.accumulateAndGet(id + 1, Math::max); // the mark is already past the block
+            return;
+        }
+
+        // Beyond our block, so other processes must not reserve it either
+        updateMark(channel -> {
+            if (readMark(channel) < id)
+                writeMark(channel, id);
+            return null;
+        });
+        block = new Block(1, 0); // the next call reserves a fresh block above the floor
+    }
+
+    int getReservations() {
+        return reservations;
+    }
+
+    // Locks the mark file, raises it by one block and returns that block
+    private Block reserve() {
+
+        return updateMark(channel -> {
+
+            long mark = Math.max(readMark(channel), floor);
+
+            if (!seeded) {
+                mark = Math.max(mark, seed.getAsLong());
+                seeded = true;
+            }
+
+            long limit = mark + blockSize;
+            writeMark(channel, limit);
+            floor = limit;
+            reservations++;
+            return new Block(mark + 1, limit);
+        });
+    }
+
+    // Runs the update holding an exclusive lock on the mark file
+    private <T> T updateMark(MarkUpdate<T> update) {
+
+        try {
+            Files.createDirectories(path.toAbsolutePath().getParent());
+
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE,
+                    StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+
+                FileLock lock = channel.lock();
+                try {
+                    return update.apply(channel);
+                }
+                finally {
+                    lock.release();
+                }
+            }
+        }
+        catch (IOException e) {
+            throw new IllegalStateException("Cannot update IDs in " + path + ": " + e.getMessage(), e);
+        }
+    }
+
+    // An empty or damaged file reads as 0; the seed then puts the mark back above the table
+    private static long readMark(FileChannel channel) throws IOException {
+
+        ByteBuffer buffer = ByteBuffer.allocate((int) Math.min(channel.size(), 64));
+        channel.read(buffer, 0);
+
+        String text = new String(buffer.array(), 0, buffer.position(), StandardCharsets.US_ASCII).trim();
+        try {
+            return text.isEmpty() ? 0 : Long.parseLong(text);
+        }
+        catch (NumberFormatException e) {
+            System.err.println("Warning: Invalid ID sequence mark: " + text);
+            return 0;
+        }
+    }
+
+    private static void writeMark(FileChannel channel, long mark) throws IOException {
+
+        ByteBuffer buffer = ByteBuffer.wrap((mark + System.lineSeparator()).getBytes(StandardCharsets.US_ASCII));
+
+        channel.truncate(0);
+        while (buffer.hasRemaining())
+            channel.write(buffer, channel.size());
+        channel.force(false);
+    }
+}
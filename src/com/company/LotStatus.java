@@ -0,0 +1,51 @@
+package com.company;
+
+/**
+ * State of a parking lot with a one-byte code. Legacy CSV values are matched ignoring case,
+ * and the older "Active" and "Closed" spellings read as ENABLED and DISABLED.
+ */
+public enum LotStatus {
+
+    ENABLED("enabled", "active"),
+    DISABLED("disabled", "closed"),
+    MAINTENANCE("Maintenance", null),
+    UNKNOWN("Unknown", null);
+
+    private static final LotStatus[] BY_CODE = values();
+
+    private final String label;
+    private final String alias;
+
+    LotStatus(String label, String alias) {
+        this.label = label;
+        this.alias = alias;
+    }
+
+    public byte code() {
+        return (byte) ordinal();
+    }
+
+    public String label() {
+        return label;
+    }
+
+    public static LotStatus fromCode(byte code) {
+        return code >= 0 && code < BY_CODE.length ? BY_CODE[code] : UNKNOWN;
+    }
+
+    /**
+     * Reads a status as written in the lot file; never throws
+     */
+    public static LotStatus parse(String value) {
+
+        if (value == null)
+            return UNKNOWN;
+
+        String trimmed = value.trim();
+        for (LotStatus status : BY_CODE) {
+            if (status.label.equalsIgnoreCase(trimmed) || (status.alias != null && status.alias.equalsIgnoreCase(trimmed)))
+                return status;
+        }
+        return UNKNOWN;
+    }
+}
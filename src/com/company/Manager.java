@@ -1,18 +1,16 @@
 package com.company;
 
-import java.io.*;
 import java.util.*;
-import java.nio.file.Paths;
 
 public class Manager implements ManagementTeam {
 
-    private static final String PARKINGLOT_CSV = "data/Parking_Lot_Database.csv";
-    private static final String PARKINGSPOT_CSV = "data/Parking_Spaces_Database.csv";
+    public static final int DEFAULT_LOT_CAPACITY = 100;
 
 
     private String name;
     private String email;
     private String password;
+    private int lotCapacity = DEFAULT_LOT_CAPACITY; // spaces created with each new lot
 
     public Manager() {
 
@@ -32,7 +30,15 @@ public class Manager implements ManagementTeam {
     @Override
     public boolean addParkingLot(ParkingLotManager plManager, String location) {
 
-        if (plManager == null) {
+        return addParkingLot(plManager, location, lotCapacity);
+    }
+
+    /**
+     * Adds a lot with the given number of spaces, all written in one batch
+     */
+    public boolean addParkingLot(ParkingLotManager plManager, String location, int capacity) {
+
+        if (plManager == null || capacity < 0) {
             return false;
         }
 
@@ -43,11 +49,7 @@ public class Manager implements ManagementTeam {
             ParkingLot newLot = new ParkingLot(newID, location);
             plManager.addParkingLot(newLot);
 
-            int newSpotID = plManager.getNextParkingSpotID();
-            for (int i = 0; i < 100; i++) {
-                ParkingSpace newSpot = new ParkingSpace(newSpotID + i, newID, newSpotID + i);
-                plManager.addParkingSpace(newSpot);
-            }
+            plManager.addParkingSpaces(newID, capacity);
             return true;
         } catch (Exception e) {
             e.printStackTrace();
@@ -62,14 +64,24 @@ public class Manager implements ManagementTeam {
             return;
         }
 
+        enableLots(plManager, Collections.singletonList(lotID));
+    }
+
+    /**
+     * Enables several lots and their spaces with one pass over the lot file
+     * @return the number of lots that were found and updated
+     */
+    public int enableLots(ParkingLotManager plManager, Collection<Integer> lotIDs) {
+
+        if (plManager == null) {
+            return 0;
+        }
+
         try {
-            ParkingLot lot = plManager.findLotByID(lotID);
-            if (lot != null) {
-                plManager.updateLotStatusInCSV(lot, "enabled");
-                plManager.updateSpacesStatusinCSV(lot, "available");
-            }
+            return plManager.updateLotsStatus(lotIDs, LotStatus.ENABLED.label(), SpaceStatus.AVAILABLE.label()).size();
         } catch (Exception e) {
             e.printStackTrace();
+            return 0;
         }
     }
 
@@ -80,14 +92,24 @@ public class Manager implements ManagementTeam {
             return;
         }
 
+        disableLots(plManager, Collections.singletonList(lotID));
+    }
+
+    /**
+     * Disables several lots and their spaces with one pass over the lot file
+     * @return the number of lots that were found and updated
+     */
+    public int disableLots(ParkingLotManager plManager, Collection<Integer> lotIDs) {
+
+        if (plManager == null) {
+            return 0;
+        }
+
         try {
-            ParkingLot lot = plManager.findLotByID(lotID);
-            if (lot != null) {
-                plManager.updateLotStatusInCSV(lot, "disabled");
-                plManager.updateSpacesStatusinCSV(lot, "disabled");
-            }
+            return plManager.updateLotsStatus(lotIDs, LotStatus.DISABLED.label(), SpaceStatus.DISABLED.label()).size();
         } catch (Exception e) {
             e.printStackTrace();
+            return 0;
         }
     }
 
@@ -101,7 +123,7 @@ public class Manager implements ManagementTeam {
         try {
             ParkingSpace spot = plManager.findSpaceByID(spotID);
             if (spot != null) {
-                plManager.updateSpaceStatusinCSV(spot, "available");
+                plManager.updateSpaceStatusinCSV(spot, SpaceStatus.AVAILABLE.label());
             }
         } catch (Exception e) {
             e.printStackTrace();
@@ -118,7 +140,7 @@ public class Manager implements ManagementTeam {
         try {
             ParkingSpace spot = plManager.findSpaceByID(spotID);
             if (spot != null) {
-                plManager.updateSpaceStatusinCSV(spot, "disabled");
+                plManager.updateSpaceStatusinCSV(spot, SpaceStatus.DISABLED.label());
             }
         } catch (Exception e) {
             e.printStackTrace();
@@ -154,118 +176,36 @@ public class Manager implements ManagementTeam {
     @Override
     public boolean isMaintenanceRequiredLot(int parkingID) {
 
-        List<String> updatedRows = new ArrayList<>();
-        boolean need_maintenance = false;
-        boolean found = false;
-
-        try (BufferedReader br = new BufferedReader(new FileReader(PARKINGLOT_CSV))) {
-            String header = br.readLine();
-            updatedRows.add(header);
-
-            String line;
-            while ((line = br.readLine()) != null) {
-                String[] data = line.split(",");
-
-                if (data.length >= 3) { // Adjusted for maintenance column being at index 3 or 4 depending how you formatted it
-                    for (int i = 0; i < data.length; i++) {
-                        data[i] = data[i].trim();
-                    }
-
-                    int id = Integer.parseInt(data[0]);
-
-                    if (id == parkingID) {
-                        found = true;
-                        need_maintenance = Boolean.parseBoolean(data[3]); // assuming column 3 is "maintenance?"
-
-                        if (need_maintenance) {
-                            data[2] = "disabled"; // status column ("enabled"/"disabled") is at index 2
-                        } else {
-                            data[2] = "enabled";
-                        }
-                    }
-
-                    updatedRows.add(String.join(",", data));
-                }
-            }
-        }
-        catch (IOException | NumberFormatException e) {
-            e.printStackTrace();
-        }
-
-        if (found) {
-            try (PrintWriter pw = new PrintWriter(new FileWriter(PARKINGLOT_CSV))) {
-                for (String row : updatedRows) {
-                    pw.println(row);
-                }
-            }
-            catch (IOException e) {
-                e.printStackTrace();
-            }
+        // Under the lot's stripe and the lot file lock, so it cannot lose a concurrent lot update
+        Boolean need_maintenance = ParkingLotManager.applyLotMaintenance(parkingID);
 
-            System.out.println("Parking lot " + parkingID + " updated. Maintenance = " + need_maintenance);
-        }
-        else {
+        if (need_maintenance == null) {
             System.out.println("No parking lot found with ID: " + parkingID);
+            return false;
         }
 
+        System.out.println("Parking lot " + parkingID + " updated. Maintenance = " + need_maintenance);
         return need_maintenance;
     }
 
     @Override
     public boolean isMaintenanceRequiredSpot(int sptID) {
 
-        List<String> updatedRows = new ArrayList<>();
-        boolean need_maintenance = false;
-        boolean found = false;
-
-        try (BufferedReader br = new BufferedReader(new FileReader(PARKINGSPOT_CSV))) {
+        // Go through the resident spot table so journaled status changes are not overwritten
+        ParkingSpaceStore store = ParkingSpaceStore.getInstance();
+        ParkingSpace spot = store.get(sptID);
 
-            String header = br.readLine();
-            updatedRows.add(header);
-            String line;
-
-            while ((line = br.readLine()) != null) {
-
-                String[] data = line.split(",");
-
-                if (data.length >= 4) {
-
-                    for (int i = 0; i < data.length; i++)
-                        data[i] = data[i].trim();
-
-
-                    int id = Integer.parseInt(data[0]);
-
-                    if (id == sptID) {
-
-                        found = true;
-                        need_maintenance = Boolean.parseBoolean(data[4]);
-                        data[2] = need_maintenance ? "Disabled" : "Available";
-                    }
-
-                    updatedRows.add(String.join(",", data));
-                }
-            }
-
-            try (PrintWriter pw = new PrintWriter(new FileWriter(PARKINGSPOT_CSV))) {
-
-                for (String row : updatedRows)
-                    pw.println(row);
-
-            }
-
-            if (found)
-                System.out.println("Parking spot " + sptID + " was updated. Maintenance = " + need_maintenance);
+        if (spot == null) {
+            System.out.println("No parking spot found with ID: " + sptID);
+            return false;
+        }
 
-            else
-                System.out.println("No parking spot found with ID: " + sptID);
+        boolean need_maintenance = Boolean.parseBoolean(spot.getNeedMaintenance());
 
+        // The same path as ParkingLotManager.updateSpaceStatusinCSV, under the spot's lot stripe
+        ParkingLotManager.setSpaceStatus(store, sptID, (need_maintenance ? SpaceStatus.DISABLED : SpaceStatus.AVAILABLE).label());
 
-        }
-        catch (IOException | NumberFormatException e) {
-            e.printStackTrace();
-        }
-
+        System.out.println("Parking spot " + sptID + " was updated. Maintenance = " + need_maintenance);
         return need_maintenance;
     }
 
@@ -277,32 +217,25 @@ public class Manager implements ManagementTeam {
             return "Visitor";
         }
 
-        String YORKU_CSV = Paths.get(System.getProperty("user.dir"), "data", "YU_Database.csv").toString();
-
-        try (BufferedReader br = new BufferedReader(new FileReader(YORKU_CSV))) {
-
-            String line;
-            br.readLine();
-
-            while ((line = br.readLine()) != null) {
-
-                String[] data = line.split(",");
+        String userType = YorkUDirectory.getInstance().lookup(email);
+        return userType == null ? "Visitor" : userType;
+    }
 
-                if (data.length >= 4) {
-                    String entryEmail = data[3].trim();
-                    String user_type = data[0].trim();
+    /**
+     * Validates many emails against one view of the university directory, for onboarding a
+     * whole intake at once
+     * @return each email mapped to its user type, "Visitor" if it is not in the directory
+     */
+    public Map<String, String> validateYorkUAll(Collection<String> emails) {
 
-                    if (entryEmail.equalsIgnoreCase(email.trim()))
-                        return user_type;
+        Map<String, String> types = YorkUDirectory.getInstance().lookupAll(emails);
 
-                }
-            }
+        for (Map.Entry<String, String> entry : types.entrySet()) {
+            String email = entry.getKey();
+            if (entry.getValue() == null || email == null || email.trim().isEmpty())
+                entry.setValue("Visitor");
         }
-        catch (IOException e) {
-            e.printStackTrace();
-        }
-
-        return "Visitor";
+        return types;
     }
 
     public String getName() {
@@ -328,4 +261,18 @@ public class Manager implements ManagementTeam {
     public void setPassword(String password) {
         this.password = password;
     }
+
+    public int getLotCapacity() {
+        return lotCapacity;
+    }
+
+    /**
+     * Sets how many spaces addParkingLot creates for each new lot
+     */
+    public void setLotCapacity(int lotCapacity) {
+
+        if (lotCapacity < 0)
+            throw new IllegalArgumentException("Lot capacity cannot be negative");
+        this.lotCapacity = lotCapacity;
+    }
 }
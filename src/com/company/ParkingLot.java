@@ -8,13 +8,14 @@ public class ParkingLot {
     private String location;
     private List<ParkingSpace> spaces;
     private String status;
+    private byte statusCode; // LotStatus code of status
     private String needMaintenance;
 
     public ParkingLot(int lotID, String location) {
         this.lotID = lotID;
         this.location = location;
         this.spaces = new ArrayList<>();
-        this.status = "enabled";
+        setLotStatus(LotStatus.ENABLED);
         this.needMaintenance = "FALSE";// Default status
 
     }
@@ -40,6 +41,20 @@ public class ParkingLot {
 
     public void setStatus(String status) {
         this.status = status;
+        this.statusCode = LotStatus.parse(status).code();
+    }
+
+    // The status is written back with its canonical label
+    public void setLotStatus(LotStatus status) {
+        this.status = status.label();
+        this.statusCode = status.code();
+    }
+
+    public LotStatus getLotStatus() {
+        return LotStatus.fromCode(statusCode);
+    }
 
+    public boolean isEnabled() {
+        return statusCode == LotStatus.ENABLED.code();
     }
 }
@@ -2,18 +2,40 @@ package com.company;
 import java.io.*;
 import java.nio.file.Files;
 import java.nio.file.Paths;
-import java.time.LocalDateTime;
+import java.time.Duration;
 import java.time.LocalTime;
-import java.time.format.DateTimeFormatter;
 import java.util.*;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 public class ParkingLotManager {
-    private Timer timer;
+    private static final String SENSOR_FEED_CSV = "data/sensor_timestamped.csv";
+    private static final long CHECKOUT_MARGIN_MILLIS = 1000; // fire just after a booking's end time
+
+    // Background jobs run by scheduleRegularUpdates
+    public static final String SENSOR_INGEST_JOB = "sensor-ingest";
+    public static final String CHECKOUT_SWEEP_JOB = "checkout-sweep";
+    public static final String LOG_COMPACTION_JOB = "log-compaction";
+
+    // Spot state and the lot file are shared by every manager, so their locks are too.
+    // Locks are always taken in the order lot stripes, lot file, spot store.
+    private static final StripedLotLocks LOT_LOCKS = new StripedLotLocks();
+    private static final Object LOT_FILE_LOCK = new Object();
+
+    private final Map<String, long[]> jobTimings = new LinkedHashMap<>(); // job -> {period, jitter} in ms
+    private UpdateScheduler scheduler;
+    private ParkingSpaceStore spaceStore;
+    private SensorFeedReader sensorFeed;
+    private final Consumer<LocalTime> deadlineWaker = this::wakeCheckoutAt;
 
     public ParkingLotManager() {
-        timer = new Timer();
+        scheduler = new UpdateScheduler();
+        jobTimings.put(SENSOR_INGEST_JOB, new long[] {5000, 500});          // every 5 seconds
+        jobTimings.put(CHECKOUT_SWEEP_JOB, new long[] {900000, 30000});     // every 15 minutes
+        jobTimings.put(LOG_COMPACTION_JOB, new long[] {3600000, 60000});    // every hour
+        spaceStore = ParkingSpaceStore.getInstance();
+        sensorFeed = new SensorFeedReader(Paths.get(System.getProperty("user.dir"), SENSOR_FEED_CSV).toString());
 
         try {
             File dataDir = new File(System.getProperty("user.dir"), "data");
@@ -80,71 +102,32 @@ public class ParkingLotManager {
 
     public int getNextParkingSpotID() {
 
-        int lastID = 0;
-
-        try (BufferedReader br = new BufferedReader(new FileReader(getAbsolutePathForSpot()))) {
-
-            String line;
-            br.readLine();
-
-            while ((line = br.readLine()) != null) {
-
-                String[] data = line.split(",");
-
-                if (data.length >= 5) {
-                    try {
-
-                        int id = Integer.parseInt(data[0]);
-                        if (id > lastID)
-                            lastID = id;
-
-                    }
-                    catch (NumberFormatException e) {
-                        System.err.println("Error data reading " + e.getMessage());
-                        e.printStackTrace();
-                    }
-                }
-            }
-        }
-        catch (IOException e) {
-            System.err.println("getting next p id " + e.getMessage());
-            e.printStackTrace();
-        }
-        return lastID + 1;
+        return spaceStore.getMaxSpotID() + 1;
     }
 
     public int getNextParkingLotID() {
 
         int lastID = 0;
+        List<String> lines = readLotLines();
 
-        try (BufferedReader br = new BufferedReader(new FileReader(getAbsolutePathForLot()))) {
-
-            String line;
-            br.readLine();
+        for (int i = 1; i < lines.size(); i++) {
 
-            while ((line = br.readLine()) != null) {
+            String[] data = lines.get(i).split(",");
 
-                String[] data = line.split(",");
+            if (data.length >= 4) {
 
-                if (data.length >= 4) {
+                try {
+                    int id = Integer.parseInt(data[0]);
+                    if (id > lastID)
+                        lastID = id;
 
-                    try {
-                        int id = Integer.parseInt(data[0]);
-                        if (id > lastID)
-                            lastID = id;
-
-                    }
-                    catch (NumberFormatException e) {
-                        System.err.println("Error data reading " + e.getMessage());
-                        e.printStackTrace();
-                    }
+                }
+                catch (NumberFormatException e) {
+                    System.err.println("Error data reading " + e.getMessage());
+                    e.printStackTrace();
                 }
             }
         }
-        catch (IOException e) {
-            System.err.println("getting next l id " + e.getMessage());
-            e.printStackTrace();
-        }
 
         return lastID + 1;
     }
@@ -153,129 +136,91 @@ public class ParkingLotManager {
     public List<ParkingLot> getAllLots() {
 
         List<ParkingLot> lots = new ArrayList<>();
+        List<String> lines = readLotLines();
 
-        try (BufferedReader br = new BufferedReader(new FileReader(getAbsolutePathForLot()))) {
-
-            String line=br.readLine();
+        for (int i = 1; i < lines.size(); i++) {
 
-            while ((line = br.readLine()) != null) {
+            String[] data = lines.get(i).split(",");
 
-                String[] data = line.split(",");
+            if (data.length >= 4) {
+                try {
 
-                if (data.length >= 4) {
-                    try {
-
-                        int lotID = Integer.parseInt(data[0].trim());
-                        String location = data[1].trim();
-                        String status = data[2].trim();
-                        ParkingLot lot = new ParkingLot(lotID, location);
-                        String needMaintenance = data[3].trim();
-                        lot.setNeedMaintenance(needMaintenance);
-                        lot.setStatus(status);
-                        lots.add(lot);
-                    }
-                    catch (NumberFormatException e) {
-                        System.err.println("Error parsing lot ID: " + e.getMessage());
-                    }
+                    int lotID = Integer.parseInt(data[0].trim());
+                    String location = data[1].trim();
+                    String status = data[2].trim();
+                    ParkingLot lot = new ParkingLot(lotID, location);
+                    String needMaintenance = data[3].trim();
+                    lot.setNeedMaintenance(needMaintenance);
+                    lot.setStatus(status);
+                    lots.add(lot);
+                }
+                catch (NumberFormatException e) {
+                    System.err.println("Error parsing lot ID: " + e.getMessage());
                 }
             }
         }
-        catch (IOException e) {
-            System.err.println("Error reading file: " + e.getMessage());
-            e.printStackTrace();
-        }
         return lots;
     }
 
 
-    // Load parking spaces for a specific parking lot from CSV
+    // Load parking spaces from the resident spot table
     public List<ParkingSpace> getAllSpaces() {
 
-        List<ParkingSpace> spaces = new ArrayList<>();
-
-        try (BufferedReader br = new BufferedReader(new FileReader(getAbsolutePathForSpot()))) {
-
-            String line=br.readLine();
-            while ((line = br.readLine()) != null) {
-
-                String[] data = line.split(",");
-
-                if (data.length >= 5) {
-                    try {
-                        int spotID = Integer.parseInt(data[0].trim());
-                        int lotID = Integer.parseInt(data[1].trim());
-                        String status = data[2].trim();
-                        int sensorID = Integer.parseInt(data[3].trim());
-                        ParkingSpace space = new ParkingSpace(spotID, lotID, sensorID);
-                        space.setStatus(status);
-                        String needMaintenance = data[4].trim();
-                        space.setNeedMaintenance(needMaintenance);
-                        spaces.add(space);
-                    }
-                    catch (NumberFormatException e) {
-                        System.err.println("Error parsing spot or lot ID: " + e.getMessage());
-                    }
-                }
-            }
-        }
-        catch (IOException e) {
-            System.err.println("Error reading file: " + e.getMessage());
-            e.printStackTrace();
-        }
-        return spaces;
+        return spaceStore.getAll();
     }
 
     public void addParkingLot(ParkingLot newLot) {
 
-        List<ParkingLot> existingLots = getAllLots(); // read all current lots
-        existingLots.add(newLot);                     // add the new one
+        synchronized (LOT_FILE_LOCK) {
+            List<ParkingLot> existingLots = getAllLots(); // read all current lots
+            existingLots.add(newLot);                     // add the new one
 
-        List<String> lines = new ArrayList<>();
-        lines.add("LotID,Location,Status,NeedMaintenance"); // header line for CSV
+            List<String> lines = new ArrayList<>();
+            lines.add("LotID,Location,Status,NeedMaintenance"); // header line for CSV
 
-        for (ParkingLot lot : existingLots) {
+            for (ParkingLot lot : existingLots) {
 
-            String record = lot.getLotID() + "," + lot.getLocation() + "," + lot.getStatus() + "," + lot.getNeedMaintenance();
-            lines.add(record);
+                String record = lot.getLotID() + "," + lot.getLocation() + "," + lot.getStatus() + "," + lot.getNeedMaintenance();
+                lines.add(record);
+            }
+            writeAllLinesToParkingLotCSV(lines);
         }
-        writeAllLinesToParkingLotCSV(lines);
     }
 
     public void addParkingSpace(ParkingSpace newSpot) {
 
-        List<ParkingSpace> existingSpaces = getAllSpaces(); // read all current spaces
-        existingSpaces.add(newSpot);                        // add the new one
+        spaceStore.add(newSpot); // journaled, no rewrite of the spot file
+    }
 
-        List<String> lines = new ArrayList<>();
-        lines.add("SpotID,LotID,Status,SensorID,NeedMaintenance"); // header line for CSV
+    /**
+     * Adds all the given spaces with a single append to the spot journal
+     */
+    public void addParkingSpaces(List<ParkingSpace> newSpots) {
 
-        for (ParkingSpace space : existingSpaces) {
+        spaceStore.addAll(newSpots);
+    }
 
-            String record = space.getSpotID() + "," + space.getLotID() + "," + space.getStatus() + "," + space.getSensorID() + "," + space.getNeedMaintenance();
-            lines.add(record);
-        }
+    /**
+     * Creates count new spaces for a lot in one batch, numbered after the highest spot ID
+     * @return the spaces that were created
+     */
+    public List<ParkingSpace> addParkingSpaces(int lotID, int count) {
 
-        writeAllLinesToParkingSpaceCSV(lines);
+        return spaceStore.provision(lotID, count);
     }
 
     public ParkingLot findLotByID(int lotID) {
 
-        try (BufferedReader br = new BufferedReader(new FileReader(getAbsolutePathForLot()))) {
-            String line=br.readLine();
-
-            while ((line = br.readLine()) != null) {
-
-                String[] data = line.split(",");
-                int id = Integer.parseInt(data[0]);
+        try {
+            String[] data = Storage.getEngine().lots().findRecord(Integer.toString(lotID));
 
-                if (id == lotID) {
+            if (data != null) {
 
-                    ParkingLot lot = new ParkingLot(id, data[1]);
-                    lot.setStatus(data[2]);
-                    String needMaintenance = data[3].trim();
-                    lot.setNeedMaintenance(needMaintenance);
-                    return lot;
-                }
+                ParkingLot lot = new ParkingLot(lotID, data[1]);
+                lot.setStatus(data[2]);
+                String needMaintenance = data[3].trim();
+                lot.setNeedMaintenance(needMaintenance);
+                return lot;
             }
         }
         catch (IOException e) {
@@ -287,50 +232,38 @@ public class ParkingLotManager {
 
     public ParkingSpace findSpaceByID(int spaceID) {
 
-        try (BufferedReader br = new BufferedReader(new FileReader(getAbsolutePathForSpot()))) {
-            String line=br.readLine();
-
-            while ((line = br.readLine()) != null) {
-
-                String[] data = line.split(",");
-                int id = Integer.parseInt(data[0]);
-
-                if (id == spaceID) {
-                    ParkingSpace space = new ParkingSpace(id, Integer.parseInt(data[1]), Integer.parseInt(data[3]));
-
-                    space.setStatus(data[2]);
-                    space.setNeedMaintenance(data[4].trim());
-                    return space;
-                }
-            }
-        }
-        catch (IOException e) {
-            System.err.println("Error finding space by ID: " + e.getMessage());
-            e.printStackTrace();
-        }
-        return null;
+        return spaceStore.get(spaceID);
     }
 
     public List<ParkingSpace> getAvailableSpaces() {
 
         List<ParkingSpace> allSpaces = getAllSpaces();
-        return allSpaces.stream().filter(space -> "Available".equalsIgnoreCase(space.getStatus())).collect(Collectors.toList());
+        return allSpaces.stream().filter(ParkingSpace::isAvailable).collect(Collectors.toList());
     }
 
-    public List<ParkingSpace> getTimeAvailableSpaces(LocalTime startTime, LocalTime endTime) {
-        
-        List<ParkingSpace> availableSpaces = getAvailableSpaces(); // Get all available spaces based on status
-        List<Booking> activeBookings = BookingDatabaseHelper.getBookingsForTimeSlot(startTime, endTime); // Assuming implementation exists to fetch bookings
-
-        Set<Integer> bookedSpotIDs = activeBookings.stream().map(Booking::getParkingSpace).collect(Collectors.toSet());
+    /**
+     * Spots that are available and not held by a live booking at any point in [startTime, endTime],
+     * as a bitset indexed by spot ID: an AND-NOT over the availability bitmaps
+     */
+    public BitSet getTimeAvailableSpotIDs(LocalTime startTime, LocalTime endTime) {
 
-        return availableSpaces.stream().filter(space -> !bookedSpotIDs.contains(space.getSpotID())).collect(Collectors.toList());
+        BitSet free = spaceStore.getAvailableSpotIDs();
+        free.andNot(BookingDatabaseHelper.getBookedSpotIDs(startTime, endTime));
+        return free;
     }
 
+    public List<ParkingSpace> getTimeAvailableSpaces(LocalTime startTime, LocalTime endTime) {
 
+        BitSet free = getTimeAvailableSpotIDs(startTime, endTime);
+        List<ParkingSpace> spaces = new ArrayList<>(free.cardinality());
 
-
-
+        for (int spotID = free.nextSetBit(0); spotID >= 0; spotID = free.nextSetBit(spotID + 1)) {
+            ParkingSpace space = spaceStore.get(spotID);
+            if (space != null)
+                spaces.add(space);
+        }
+        return spaces;
+    }
 
     // Update the status of a parking lot in the CSV file
     public void updateLotStatusInCSV(ParkingLot lot, String newStatus) {
@@ -339,49 +272,89 @@ public class ParkingLotManager {
             System.err.println("Warning: Cannot update status of null parking lot");
             return;
         }
-        List<ParkingLot> existingLots = getAllLots(); // read all current lots
+        LOT_LOCKS.withLot(lot.getLotID(), () -> {
+            synchronized (LOT_FILE_LOCK) {
+                List<ParkingLot> existingLots = getAllLots(); // read all current lots
+
+                for (ParkingLot l : existingLots) {
+                    if (l.getLotID() == lot.getLotID()) {
+                        l.setStatus(newStatus); // update status
+                    }
+                }
+
+                List<String> lines = new ArrayList<>();
+                lines.add("LotID,Location,Status,NeedMaintenance"); // header
 
-        for (ParkingLot l : existingLots) {
-            if (l.getLotID() == lot.getLotID()) {
-                l.setStatus(newStatus); // update status
+                for (ParkingLot l : existingLots) {
+                    String record = l.getLotID() + "," + l.getLocation() + "," + l.getStatus() + "," + l.getNeedMaintenance();
+                    lines.add(record);
+                }
+
+                writeAllLinesToParkingLotCSV(lines);
             }
-        }
+        });
+    }
 
-        List<String> lines = new ArrayList<>();
-        lines.add("LotID,Location,Status,NeedMaintenance"); // header
 
-        for (ParkingLot l : existingLots) {
-            String record = l.getLotID() + "," + l.getLocation() + "," + l.getStatus() + "," + l.getNeedMaintenance();
-            lines.add(record);
-        }
+    /**
+     * Sets the status of several lots and of all their spaces in one pass: the lot file is read
+     * and written once, only the matching rows change, and the spaces are found through the
+     * store's lot index and journaled in a single append
+     * @return the IDs of the lots that were found and updated
+     */
+    public List<Integer> updateLotsStatus(Collection<Integer> lotIDs, String lotStatus, String spaceStatus) {
 
-        writeAllLinesToParkingLotCSV(lines);
+        if (lotIDs == null || lotIDs.isEmpty())
+            return new ArrayList<>();
+
+        return LOT_LOCKS.withLots(lotIDs, () -> {
+            synchronized (LOT_FILE_LOCK) {
+                return rewriteLotsStatus(new HashSet<>(lotIDs), lotStatus, spaceStatus);
+            }
+        });
     }
 
+    private List<Integer> rewriteLotsStatus(Set<Integer> wanted, String lotStatus, String spaceStatus) {
 
-    public void updateSpacesStatusinCSV(ParkingLot lot, String status) {
-        // Check for null lot
-        if (lot == null) {
-            System.err.println("Warning: Cannot update spaces status for null parking lot");
-            return;
-        }
-        List<ParkingSpace> existingSpaces = getAllSpaces(); // read all current spaces
+        List<Integer> updated = new ArrayList<>();
+        List<String> lines = readLotLines();
+
+        // Row 0 is the header and is kept as it is
+        for (int i = 1; i < lines.size(); i++) {
 
-        for (ParkingSpace s : existingSpaces) {
-            if (s.getLotID() == lot.getLotID()) {
-                s.setStatus(status);  // update status of all spaces in that lot
+            String[] data = lines.get(i).split(",");
+
+            if (data.length >= 4) {
+                try {
+                    int lotID = Integer.parseInt(data[0].trim());
+                    if (wanted.contains(lotID)) {
+                        data[2] = lotStatus;
+                        lines.set(i, String.join(",", data));
+                        updated.add(lotID);
+                    }
+                }
+                catch (NumberFormatException e) {
+                    System.err.println("Error parsing lot ID: " + e.getMessage());
+                }
             }
         }
 
-        List<String> lines = new ArrayList<>();
-        lines.add("SpotID,LotID,Status,SensorID,NeedMaintenance"); // header
+        if (!updated.isEmpty()) {
+            writeAllLinesToParkingLotCSV(lines);
+            spaceStore.updateLotStatus(updated, spaceStatus);
+        }
+        return updated;
+    }
 
-        for (ParkingSpace s : existingSpaces) {
-            String record = s.getSpotID() + "," + s.getLotID() + "," + s.getStatus() + "," + s.getSensorID() + "," + s.getNeedMaintenance();
-            lines.add(record);
+    public void updateSpacesStatusinCSV(ParkingLot lot, String status) {
+        // Check for null lot
+        if (lot == null) {
+            System.err.println("Warning: Cannot update spaces status for null parking lot");
+            return;
         }
 
-        writeAllLinesToParkingSpaceCSV(lines);
+        LOT_LOCKS.withLot(lot.getLotID(), () ->
+                spaceStore.updateLotStatus(Collections.singletonList(lot.getLotID()), status)); // one journal append per lot
     }
 
     public void updateSpaceStatusinCSV(ParkingSpace spot, String status) {
@@ -390,81 +363,123 @@ public class ParkingLotManager {
             System.err.println("Warning: Cannot update status of null parking space");
             return;
         }
-        List<ParkingSpace> existingSpaces = getAllSpaces(); // read all current spaces
-
-        for (ParkingSpace s : existingSpaces) {
-            if (s.getSpotID() == spot.getSpotID()) {
-                s.setStatus(status);  // update status
-            }
-        }
 
-        List<String> lines = new ArrayList<>();
-        lines.add("SpotID,LotID,Status,SensorID,NeedMaintenance"); // header
+        // One map update plus one journal append instead of rewriting every spot
+        setSpaceStatus(spaceStore, spot.getSpotID(), status);
+    }
 
-        for (ParkingSpace s : existingSpaces) {
-            String record = s.getSpotID() + "," + s.getLotID() + "," + s.getStatus() + "," + s.getSensorID() + "," + s.getNeedMaintenance();
-            lines.add(record);
+    /**
+     * Changes one space's status holding its lot's stripe. The space is looked up again under
+     * the stripe, so a space that moved to another lot in the meantime is retried under the
+     * right one.
+     * @return false if there is no such space
+     */
+    static boolean setSpaceStatus(ParkingSpaceStore store, int spotID, String status) {
+
+        // Work run inside store.batch holds its lots' stripes already, and taking a stripe
+        // after the store would break the lock order
+        if (Thread.holdsLock(store))
+            return store.updateStatus(spotID, status);
+
+        while (true) {
+
+            ParkingSpace space = store.get(spotID);
+            if (space == null)
+                return false;
+
+            Boolean updated = LOT_LOCKS.withLot(space.getLotID(), () -> {
+                ParkingSpace current = store.get(spotID);
+                if (current != null && current.getLotID() != space.getLotID())
+                    return null;
+                return current != null && store.updateStatus(spotID, status);
+            });
+
+            if (updated != null)
+                return updated;
         }
+    }
+
+    /**
+     * Sets a lot's status from its maintenance flag, disabled if it needs maintenance and
+     * enabled otherwise, holding the lot's stripe and the lot file like every other lot update
+     * @return the lot's maintenance flag, or null if there is no such lot
+     */
+    static Boolean applyLotMaintenance(int lotID) {
 
-        writeAllLinesToParkingSpaceCSV(lines);
+        return LOT_LOCKS.withLot(lotID, () -> {
+            synchronized (LOT_FILE_LOCK) {
+                return rewriteLotMaintenance(lotID);
+            }
+        });
     }
-    public void writeAllLinesToParkingSpaceCSV(List<String> lines) {
-        File outputFile = new File(getAbsolutePathForSpot());
-        try (BufferedWriter bw = new BufferedWriter(new FileWriter(outputFile, false))) {  // false to overwrite the file
-            for (String line : lines) {
-                bw.write(line);
-                bw.newLine();
+
+    private static Boolean rewriteLotMaintenance(int lotID) {
+
+        List<String> updatedRows = new ArrayList<>();
+        boolean needMaintenance = false;
+        boolean found = false;
+
+        RecordTable lots = Storage.getEngine().lots();
+
+        try {
+            List<String> lines = lots.readAllLines();
+            if (!lines.isEmpty())
+                updatedRows.add(lines.get(0)); // header
+
+            for (int row = 1; row < lines.size(); row++) {
+                String[] data = lines.get(row).split(",");
+
+                if (data.length >= 3) { // Adjusted for maintenance column being at index 3 or 4 depending how you formatted it
+                    for (int i = 0; i < data.length; i++) {
+                        data[i] = data[i].trim();
+                    }
+
+                    int id = Integer.parseInt(data[0]);
+
+                    if (id == lotID) {
+                        found = true;
+                        needMaintenance = Boolean.parseBoolean(data[3]); // assuming column 3 is "maintenance?"
+
+                        // status column ("enabled"/"disabled") is at index 2
+                        data[2] = (needMaintenance ? LotStatus.DISABLED : LotStatus.ENABLED).label();
+                    }
+
+                    updatedRows.add(String.join(",", data));
+                }
             }
-        } catch (IOException e) {
-            System.err.println("Error writing updated data to file: " + e.getMessage());
+        }
+        catch (IOException | NumberFormatException e) {
             e.printStackTrace();
         }
+
+        if (!found)
+            return null;
+
+        lots.replaceAll(updatedRows);
+        return needMaintenance;
+    }
+    public void writeAllLinesToParkingSpaceCSV(List<String> lines) {
+        Storage.getEngine().spots().replaceAll(lines); // readers see the old table or the new one, never half of it
     }
     public void writeAllLinesToParkingLotCSV(List<String> lines) {
-        File outputFile = new File(getAbsolutePathForLot());
-        try (BufferedWriter bw = new BufferedWriter(new FileWriter(outputFile, false))) {  // false to overwrite the file
-            for (String line : lines) {
-                bw.write(line);
-                bw.newLine();
-            }
+        Storage.getEngine().lots().replaceAll(lines);
+    }
+
+    // Lines of the lots table, header first; empty if it cannot be read
+    private List<String> readLotLines() {
+        try {
+            return Storage.getEngine().lots().readAllLines();
         } catch (IOException e) {
-            System.err.println("Error writing updated data to file: " + e.getMessage());
+            System.err.println("Error reading file: " + e.getMessage());
             e.printStackTrace();
+            return new ArrayList<>();
         }
     }
     public List<SensorData> readSensorData(String filePath) {
         List<SensorData> sensorDataList = new ArrayList<>();
         try (Stream<String> lines = Files.lines(Paths.get(filePath))) {
             return lines.skip(1)  // Skip header
-                    .map(line -> line.split(","))
-                    .map(data -> {
-                        try {
-                            int sensorId = Integer.parseInt(data[0]);
-                            boolean carDetected = "true".equalsIgnoreCase(data[1]);
-
-                            // Try multiple date formats
-                            LocalDateTime timestamp = null;
-                            try {
-                                // Try yyyy-MM-dd HH:mm:ss format
-                                DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
-                                timestamp = LocalDateTime.parse(data[2], formatter);
-                            } catch (Exception e1) {
-                                try {
-                                    // Try HH:mm format
-                                    DateTimeFormatter formatter = DateTimeFormatter.ofPattern("HH:mm");
-                                    timestamp = LocalDateTime.parse(data[2], formatter);
-                                } catch (Exception e2) {
-                                    // Default to current time if parsing fails
-                                    timestamp = LocalDateTime.now();
-                                }
-                            }
-
-                            return new SensorData(sensorId, carDetected, timestamp);
-                        } catch (Exception e) {
-                            System.err.println("Error parsing sensor data: " + e.getMessage());
-                            return null;
-                        }
-                    })
+                    .map(SensorFeedReader::parseLine)
                     .filter(data -> data != null)
                     .collect(Collectors.toList());
         } catch (IOException e) {
@@ -474,6 +489,27 @@ public class ParkingLotManager {
         }
     }
 
+    /**
+     * Applies the readings appended to the sensor feed since the last poll
+     */
+    public SensorIngestResult pollSensorFeed() {
+
+        return ingestSensorData(sensorFeed.poll());
+    }
+
+    /**
+     * Points the tailing reader at another sensor feed, starting from its beginning
+     */
+    public void setSensorFeedPath(String path) {
+
+        sensorFeed = new SensorFeedReader(path);
+    }
+
+    public String getSensorFeedPath() {
+
+        return sensorFeed.getPath();
+    }
+
 
     public void updateParkingSpaces(List<SensorData> sensorDataList) {
         if (sensorDataList == null) {
@@ -481,40 +517,187 @@ public class ParkingLotManager {
             return;
         }
 
-        sensorDataList.forEach(data -> {
-            ParkingSpace space = findSpaceByID(data.getSpotID());
-            if (space != null && space.isAvailable() != !data.isCarDetected()) {
-                space.setStatus(data.isCarDetected() ? "occupied" : "available");
-                updateSpaceStatusinCSV(space, space.getStatus());  // Assuming this method updates the CSV
-            }
-        });
+        ingestSensorData(sensorDataList);
+    }
+
+    /**
+     * Applies a batch of sensor readings: readings are coalesced to the latest one per spot,
+     * only spots whose status differs are changed, and the changes are persisted with a single
+     * journal append
+     */
+    public SensorIngestResult ingestSensorData(List<SensorData> sensorDataList) {
+
+        if (sensorDataList == null)
+            return new SensorIngestResult(0, 0, 0);
+
+        // Latest reading per spot; on equal timestamps the later reading in the list wins
+        Map<Integer, SensorData> latest = new LinkedHashMap<>();
+        for (SensorData data : sensorDataList) {
+            if (data == null)
+                continue;
+
+            SensorData current = latest.get(data.getSpotID());
+            if (current == null || !isOlder(data, current))
+                latest.put(data.getSpotID(), data);
+        }
+
+        // Hold every affected lot so the compare-and-set below cannot race a manager action.
+        // The lots are found again under the locks; if a spot moved to a lot we do not hold,
+        // the locks are given back and taken again for the new set.
+        Set<Integer> lots = lotsOf(latest.keySet());
+        Integer changed = null;
+
+        while (changed == null) {
+            Set<Integer> held = lots;
+            changed = LOT_LOCKS.withLots(held, () -> {
+
+                Set<Integer> current = lotsOf(latest.keySet());
+                if (!held.containsAll(current)) {
+                    held.addAll(current);
+                    return null;
+                }
+
+                // Inside the batch updateSpaceStatusinCSV goes straight to the store, as the
+                // stripes are already held
+                int[] count = new int[1];
+                spaceStore.batch(() -> {
+                    for (SensorData data : latest.values()) {
+                        ParkingSpace space = findSpaceByID(data.getSpotID());
+                        if (space != null && space.isAvailable() != !data.isCarDetected()) {
+                            space.setSpaceStatus(data.isCarDetected() ? SpaceStatus.OCCUPIED : SpaceStatus.AVAILABLE);
+                            updateSpaceStatusinCSV(space, space.getStatus());
+                            count[0]++;
+                        }
+                    }
+                });
+                return count[0];
+            });
+        }
+
+        return new SensorIngestResult(sensorDataList.size(), latest.size(), changed);
     }
+
+    private Set<Integer> lotsOf(Collection<Integer> spotIDs) {
+
+        Set<Integer> lots = new HashSet<>();
+        for (int spotID : spotIDs) {
+            ParkingSpace space = findSpaceByID(spotID);
+            if (space != null)
+                lots.add(space.getLotID());
+        }
+        return lots;
+    }
+
+    // Readings without a timestamp count as older than any stamped reading
+    private static boolean isOlder(SensorData data, SensorData than) {
+
+        if (data.getTimestamp() == null)
+            return than.getTimestamp() != null;
+        return than.getTimestamp() != null && data.getTimestamp().isBefore(than.getTimestamp());
+    }
+
+    /**
+     * Checks out the active paid bookings whose end time has passed. Only the deadlines that
+     * came due are taken from the booking deadline queue, and the checkout job is then woken
+     * for the next one instead of waiting for its regular period. A booking whose checkout
+     * failed is retried a few times with a growing delay; one without a payment to charge
+     * cannot be checked out and is not retried.
+     */
     public void checkCompletedBookings() {
-        
-        List<Booking> allBookings = BookingDatabaseHelper.readAllBookings();
+
         LocalTime now = LocalTime.now();
 
-        for (Booking booking : allBookings) {
-            if ("Active".equals(booking.getBookingStatus()) && 
-                "Paid".equals(booking.getPaymentStatus()) && 
-                now.isAfter(booking.getEnd())) {
-                booking.checkout();
+        for (String bookingID : BookingDatabaseHelper.takeDueCheckouts(now)) {
+            Booking booking = BookingDatabaseHelper.findBookingByID(bookingID);
+            if (booking == null ||
+                !"Active".equals(booking.getBookingStatus()) ||
+                !"Paid".equals(booking.getPaymentStatus()))
+                continue;
+
+            if (booking.getPayment() == null) {
+                System.err.println("Booking " + bookingID + " has no payment to check out");
+                continue;
+            }
+
+            try {
+                if (now.isAfter(booking.getEnd()))
+                    booking.checkout();
             }
+            catch (RuntimeException e) {
+                System.err.println("Checkout of booking " + bookingID + " failed: " + e.getMessage());
+            }
+
+            if ("Paid".equals(booking.getPaymentStatus()) && BookingDatabaseHelper.retryCheckout(bookingID, now) == null)
+                System.err.println("Giving up on checkout of booking " + bookingID);
         }
+
+        wakeCheckoutAt(BookingDatabaseHelper.nextCheckoutDeadline());
     }
+
+    // Run the checkout job just after the given end time passes
+    private void wakeCheckoutAt(LocalTime deadline) {
+
+        if (deadline == null)
+            return;
+
+        long millis = Math.max(0, Duration.between(LocalTime.now(), deadline).toMillis()) + CHECKOUT_MARGIN_MILLIS;
+        scheduler.wake(CHECKOUT_SWEEP_JOB, millis);
+    }
+
     public void scheduleRegularUpdates() {
-        timer.schedule(new TimerTask() {
-            @Override
-            public void run() {
-                List<SensorData> sensorData = readSensorData("path/to/sensor_timestamped.csv");
-                updateParkingSpaces(sensorData);
-                checkCompletedBookings(); // Add automatic checkout check
-            }
-        }, 0, 900000);  // Schedule to run every 15 minutes (900,000 milliseconds)
+        scheduleJob(SENSOR_INGEST_JOB, this::pollSensorFeed, true);             // only readings appended since the last poll
+        scheduleJob(CHECKOUT_SWEEP_JOB, this::checkCompletedBookings, true);    // automatic checkout check
+        scheduleJob(LOG_COMPACTION_JOB, this::compactLogs, false);
+        BookingDatabaseHelper.setCheckoutDeadlineListener(deadlineWaker); // new deadlines wake the checkout job
+    }
+
+    /**
+     * Stops the background jobs and the checkout deadline listener registered by
+     * scheduleRegularUpdates
+     */
+    public void shutdown() {
+
+        BookingDatabaseHelper.removeCheckoutDeadlineListener(deadlineWaker);
+        scheduler.shutdown();
+    }
+
+    /**
+     * Sets how often a background job runs; a job that is already scheduled picks up the
+     * new timing from its next run
+     */
+    public void setJobTiming(String job, long periodMillis, long jitterMillis) {
+
+        if (!jobTimings.containsKey(job))
+            throw new IllegalArgumentException("Unknown job: " + job);
+        if (periodMillis <= 0 || jitterMillis < 0)
+            throw new IllegalArgumentException("Invalid timing for job " + job);
+
+        jobTimings.put(job, new long[] {periodMillis, jitterMillis});
+        scheduler.reschedule(job, periodMillis, jitterMillis);
+    }
+
+    public long getJobPeriod(String job) {
+
+        long[] timing = jobTimings.get(job);
+        return timing == null ? -1 : timing[0];
+    }
+
+    private void scheduleJob(String job, Runnable task, boolean runAtStart) {
+
+        long[] timing = jobTimings.get(job);
+        scheduler.schedule(job, task, runAtStart ? 0 : timing[0], timing[0], timing[1]);
+    }
+
+    // Folds the booking write-ahead log and the spot journal into their snapshots
+    private void compactLogs() {
+
+        Storage.getEngine().bookings().compact();
+        if (spaceStore.getJournalEntries() > 0)
+            spaceStore.compact();
     }
 
-    public Object getTimer() {
-        return timer;
+    public UpdateScheduler getScheduler() {
+        return scheduler;
     }
 }
 
@@ -4,6 +4,7 @@ public class ParkingSpace {
     private int spotID;
     private int lotID;
     private String status;
+    private byte statusCode; // SpaceStatus code of status, so checks compare bytes instead of strings
     private int sensorID;
     private String needMaintenance;
 
@@ -12,13 +13,27 @@ public class ParkingSpace {
         this.spotID = spotID;
         this.lotID = lotID;
         this.sensorID = sensorID;
-        this.status = "Available";
+        setSpaceStatus(SpaceStatus.AVAILABLE);
         this.needMaintenance = "FALSE";
     }
 
     public void setStatus(String status) {
         this.status = status;
+        this.statusCode = SpaceStatus.parse(status).code();
+    }
+
+    // The status is written back with its canonical label
+    public void setSpaceStatus(SpaceStatus status) {
+        this.status = status.label();
+        this.statusCode = status.code();
+    }
+
+    public SpaceStatus getSpaceStatus() {
+        return SpaceStatus.fromCode(statusCode);
+    }
 
+    public byte getStatusCode() {
+        return statusCode;
     }
     public void setNeedMaintenance(String needMaintenance) {
         this.needMaintenance = needMaintenance;
@@ -30,13 +45,13 @@ public class ParkingSpace {
 
     // Check if the space is currently available
     public boolean isAvailable() {
-        return "Available".equalsIgnoreCase(status);
+        return statusCode == SpaceStatus.AVAILABLE.code();
     }
 
 
 
     public void updateFromSensor(boolean isOccupied) {
-        setStatus(isOccupied ? "Occupied" : "Available");
+        setSpaceStatus(isOccupied ? SpaceStatus.OCCUPIED : SpaceStatus.AVAILABLE);
     }
 
     public int getSpotID() {
@@ -0,0 +1,591 @@
+package com.company;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.*;
+
+/**
+ * Resident table of parking spaces indexed by spot ID.
+ * Parking_Spaces_Database.csv holds the last compacted snapshot and every change after it
+ * is appended to Parking_Spaces_Journal.csv, so a status flip costs one map update plus one
+ * appended line instead of a full rewrite of the spot file.
+ *
+ * The store's monitor only covers the in-memory table. Journal records are queued under it in
+ * the order the changes were made and written afterwards under a separate journal lock, by
+ * whichever writer gets there first, so writers for different lots only meet briefly on the
+ * table and share a journal sync rather than queueing behind each other's disk writes.
+ * Locks are always taken journal first, then the store.
+ */
+public class ParkingSpaceStore {
+
+    private static final String SPOT_CSV = "data/Parking_Spaces_Database.csv";
+    private static final String JOURNAL_CSV = "data/Parking_Spaces_Journal.csv";
+    static final String HEADER = "SpotID,LotID,Status,SensorID,NeedMaintenance";
+    private static final String DELIMITER = ",";
+
+    // Journal record types
+    private static final String BASE = "#base";
+    private static final String ADD = "A";
+    private static final String STATUS = "S";
+
+    // Fold the journal back into the snapshot once it holds this many records
+    private static final int COMPACT_THRESHOLD = 1000;
+
+    private static ParkingSpaceStore instance;
+
+    private final String snapshotPath;
+    private final String journalPath;
+    private final Map<Integer, ParkingSpace> spaces = new LinkedHashMap<>();
+    private final BitSet[] spotsByStatus = new BitSet[SpaceStatus.values().length]; // spot IDs per status code
+    private final Map<Integer, Set<Integer>> spotsByLot = new HashMap<>(); // lot ID -> its spot IDs
+
+    // Length and modification time of the snapshot the in-memory table was built from
+    private long snapshotLength = -1;
+    private long snapshotModified = -1;
+    private int journalEntries;
+    private boolean loaded;
+    private List<String> pendingRecords; // journal records held back while a batch runs
+    private final List<String> unwritten = new ArrayList<>(); // applied in memory, not yet journaled
+    private final Object journalLock = new Object();
+    private int loads; // bumped by load, so a failed flush never requeues records of a dropped table
+
+    ParkingSpaceStore(String snapshotPath, String journalPath) {
+
+        this.snapshotPath = snapshotPath;
+        this.journalPath = journalPath;
+
+        for (int code = 0; code < spotsByStatus.length; code++)
+            spotsByStatus[code] = new BitSet();
+    }
+
+    /**
+     * Returns the shared store for the current data directory
+     */
+    public static synchronized ParkingSpaceStore getInstance() {
+
+        String currentDir = System.getProperty("user.dir");
+        String snapshot = Paths.get(currentDir, SPOT_CSV).toString();
+
+        if (instance == null || !instance.snapshotPath.equals(snapshot))
+            instance = new ParkingSpaceStore(snapshot, Paths.get(currentDir, JOURNAL_CSV).toString());
+
+        return instance;
+    }
+
+    public synchronized ParkingSpace get(int spotID) {
+
+        ensureLoaded();
+        ParkingSpace space = spaces.get(spotID);
+        return space == null ? null : copyOf(space);
+    }
+
+    public synchronized List<ParkingSpace> getAll() {
+
+        ensureLoaded();
+        List<ParkingSpace> result = new ArrayList<>(spaces.size());
+
+        for (ParkingSpace space : spaces.values())
+            result.add(copyOf(space));
+
+        return result;
+    }
+
+    public synchronized List<ParkingSpace> getByLot(int lotID) {
+
+        ensureLoaded();
+        Set<Integer> spotIDs = spotsByLot.getOrDefault(lotID, Collections.emptySet());
+        List<ParkingSpace> result = new ArrayList<>(spotIDs.size());
+
+        for (int spotID : spotIDs)
+            result.add(copyOf(spaces.get(spotID)));
+
+        return result;
+    }
+
+    public synchronized int getMaxSpotID() {
+
+        ensureLoaded();
+        int maxID = 0;
+
+        for (int id : spaces.keySet())
+            maxID = Math.max(maxID, id);
+
+        return maxID;
+    }
+
+    /**
+     * Returns the IDs of all available spots as a bitset indexed by spot ID
+     */
+    public synchronized BitSet getAvailableSpotIDs() {
+
+        return getSpotIDs(SpaceStatus.AVAILABLE);
+    }
+
+    /**
+     * Returns the IDs of all spots in the given state as a bitset indexed by spot ID
+     */
+    public synchronized BitSet getSpotIDs(SpaceStatus status) {
+
+        ensureLoaded();
+        return (BitSet) spotsByStatus[status.code()].clone();
+    }
+
+    public synchronized int size() {
+
+        ensureLoaded();
+        return spaces.size();
+    }
+
+    /**
+     * Adds a new space (or replaces one with the same spot ID)
+     */
+    public void add(ParkingSpace space) {
+
+        if (space == null)
+            return;
+
+        synchronized (this) {
+            ensureLoaded();
+            put(copyOf(space));
+            trackStatus(space);
+            appendToJournal(String.join(DELIMITER, ADD, toRecord(space)));
+        }
+        flushJournal();
+    }
+
+    /**
+     * Adds several spaces with a single append to the journal
+     */
+    public void addAll(Collection<ParkingSpace> added) {
+
+        if (added == null || added.isEmpty())
+            return;
+
+        synchronized (this) {
+            ensureLoaded();
+            List<String> records = new ArrayList<>(added.size());
+
+            for (ParkingSpace space : added) {
+                if (space == null)
+                    continue;
+                put(copyOf(space));
+                trackStatus(space);
+                records.add(String.join(DELIMITER, ADD, toRecord(space)));
+            }
+            appendToJournal(records);
+        }
+        flushJournal();
+    }
+
+    /**
+     * Creates count new spaces in a lot, numbered after the current highest spot ID, with one
+     * journal append. Each new space uses its spot ID as its sensor ID.
+     * @return the spaces that were created
+     */
+    public List<ParkingSpace> provision(int lotID, int count) {
+
+        List<ParkingSpace> created = new ArrayList<>(Math.max(0, count));
+        if (count <= 0)
+            return created;
+
+        synchronized (this) {
+            int firstID = getMaxSpotID() + 1;
+            for (int i = 0; i < count; i++)
+                created.add(new ParkingSpace(firstID + i, lotID, firstID + i));
+
+            addAll(created);
+        }
+        flushJournal();
+        return created;
+    }
+
+    /**
+     * Changes the status of a single space
+     * @return false if no space with that ID exists
+     */
+    public boolean updateStatus(int spotID, String status) {
+
+        synchronized (this) {
+            ensureLoaded();
+            ParkingSpace space = spaces.get(spotID);
+
+            if (space == null)
+                return false;
+
+            // Nothing to persist if the status did not actually change
+            SpaceStatus target = SpaceStatus.parse(status);
+            if (isSameStatus(space, target, status))
+                return true;
+
+            String value = labelOf(target, status);
+            space.setStatus(value);
+            trackStatus(space);
+            appendToJournal(String.join(DELIMITER, STATUS, Integer.toString(spotID), String.valueOf(value)));
+        }
+        flushJournal();
+        return true;
+    }
+
+    /**
+     * Sets the status of every space in the given lots, found through the lot index, with a
+     * single journal append
+     * @return the number of spaces whose status changed
+     */
+    public int updateLotStatus(Collection<Integer> lotIDs, String status) {
+
+        if (lotIDs == null || lotIDs.isEmpty())
+            return 0;
+
+        List<String> records = new ArrayList<>();
+        SpaceStatus target = SpaceStatus.parse(status);
+        String value = labelOf(target, status);
+
+        synchronized (this) {
+            ensureLoaded();
+
+            for (int lotID : new LinkedHashSet<>(lotIDs)) {
+                for (int spotID : spotsByLot.getOrDefault(lotID, Collections.emptySet())) {
+
+                    ParkingSpace space = spaces.get(spotID);
+                    if (isSameStatus(space, target, status))
+                        continue;
+
+                    space.setStatus(value);
+                    trackStatus(space);
+                    records.add(String.join(DELIMITER, STATUS, Integer.toString(spotID), String.valueOf(value)));
+                }
+            }
+
+            if (!records.isEmpty())
+                appendToJournal(records);
+        }
+        flushJournal();
+        return records.size();
+    }
+
+    /**
+     * Runs the given work holding the store, with every journal record it produces written in
+     * a single append once it finishes
+     */
+    public void batch(Runnable work) {
+
+        synchronized (this) {
+
+            // Nested batches fold into the outer one
+            if (pendingRecords != null) {
+                work.run();
+                return;
+            }
+
+            pendingRecords = new ArrayList<>();
+            try {
+                work.run();
+            }
+            finally {
+                List<String> records = pendingRecords;
+                pendingRecords = null;
+                if (!records.isEmpty())
+                    appendToJournal(records);
+            }
+        }
+        flushJournal();
+    }
+
+    /**
+     * Writes the current table as a fresh snapshot and starts an empty journal. The journal
+     * lock is taken first, so no flush can append a record the snapshot already holds.
+     */
+    public void compact() {
+
+        synchronized (journalLock) {
+            synchronized (this) {
+
+                ensureLoaded();
+                unwritten.clear(); // the snapshot already holds them
+
+                List<String> lines = new ArrayList<>(spaces.size() + 1);
+                lines.add(HEADER);
+                for (ParkingSpace space : spaces.values())
+                    lines.add(toRecord(space));
+
+                try {
+                    DurableFiles.replace(snapshotPath, lines);
+                }
+                catch (IOException e) {
+                    System.err.println("Error compacting parking space database: " + e.getMessage());
+                    return;
+                }
+
+                captureSnapshotStamp();
+                startJournal();
+            }
+        }
+    }
+
+    synchronized int getJournalEntries() {
+        return journalEntries;
+    }
+
+    // Reload when nothing is loaded yet or the snapshot was rewritten behind our back
+    private void ensureLoaded() {
+
+        File snapshot = new File(snapshotPath);
+        if (!loaded || snapshot.length() != snapshotLength || snapshot.lastModified() != snapshotModified)
+            load();
+    }
+
+    private void load() {
+
+        unwritten.clear(); // changes to the table being dropped
+        loads++;
+        spaces.clear();
+        spotsByLot.clear();
+        captureSnapshotStamp();
+
+        try (BufferedReader br = new BufferedReader(new FileReader(snapshotPath))) {
+
+            String line = br.readLine(); // skip header
+            while ((line = br.readLine()) != null) {
+
+                String[] data = line.split(DELIMITER);
+                if (data.length >= 5) {
+                    ParkingSpace space = parseRecord(data, 0);
+                    if (space != null)
+                        put(space);
+                }
+            }
+        }
+        catch (IOException e) {
+            System.err.println("Error reading parking space database: " + e.getMessage());
+        }
+
+        replayJournal();
+
+        for (BitSet spots : spotsByStatus)
+            spots.clear();
+        for (ParkingSpace space : spaces.values())
+            trackStatus(space);
+
+        loaded = true;
+    }
+
+    private void replayJournal() {
+
+        journalEntries = 0;
+        File journal = new File(journalPath);
+
+        if (!journal.exists())
+            return;
+
+        List<String> lines;
+        try {
+            lines = readWholeLines(journal);
+        }
+        catch (IOException e) {
+            System.err.println("Error replaying parking space journal: " + e.getMessage());
+            return;
+        }
+
+        // A journal written against another snapshot no longer applies to this one
+        if (lines.isEmpty() || !baseLine().equals(lines.get(0))) {
+            startJournal();
+            return;
+        }
+
+        for (String line : lines.subList(1, lines.size())) {
+
+            String[] data = line.split(DELIMITER);
+
+            if (data.length >= 6 && ADD.equals(data[0])) {
+                ParkingSpace space = parseRecord(data, 1);
+                if (space != null)
+                    put(space);
+            }
+            else if (data.length >= 3 && STATUS.equals(data[0])) {
+                ParkingSpace space = spaces.get(parseID(data[1]));
+                if (space != null)
+                    space.setStatus(data[2]);
+            }
+            journalEntries++;
+        }
+    }
+
+    // The file's complete lines; a last line without its line break is an append still in
+    // progress, or one cut short by a crash, and is left out
+    private static List<String> readWholeLines(File file) throws IOException {
+
+        String text = new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8);
+        List<String> lines = new ArrayList<>();
+
+        int start = 0;
+        for (int end = text.indexOf('\n'); end >= 0; end = text.indexOf('\n', start)) {
+            int stop = end > start && text.charAt(end - 1) == '\r' ? end - 1 : end;
+            lines.add(text.substring(start, stop));
+            start = end + 1;
+        }
+        return lines;
+    }
+
+    // Stores a space and keeps the lot index in step, including when a spot moves lots
+    private void put(ParkingSpace space) {
+
+        ParkingSpace previous = spaces.put(space.getSpotID(), space);
+
+        if (previous != null && previous.getLotID() != space.getLotID()) {
+            Set<Integer> oldLot = spotsByLot.get(previous.getLotID());
+            if (oldLot != null)
+                oldLot.remove(space.getSpotID());
+        }
+        spotsByLot.computeIfAbsent(space.getLotID(), id -> new LinkedHashSet<>()).add(space.getSpotID());
+    }
+
+    // Moves the spot's bit to the bitmap of its current status code
+    private void trackStatus(ParkingSpace space) {
+
+        int spotID = space.getSpotID();
+        if (spotID < 0)
+            return;
+
+        for (BitSet spots : spotsByStatus)
+            spots.clear(spotID);
+        spotsByStatus[space.getStatusCode()].set(spotID);
+    }
+
+    private void appendToJournal(String record) {
+        appendToJournal(Collections.singletonList(record));
+    }
+
+    // Queues records under the store's monitor; they reach the file with the next flush
+    private void appendToJournal(List<String> records) {
+
+        if (pendingRecords != null)
+            pendingRecords.addAll(records);
+        else
+            unwritten.addAll(records);
+    }
+
+    // Writes every queued record in one append, outside the store's monitor. A caller still
+    // inside the monitor (work run by batch) leaves it to the flush at the end of the batch.
+    private void flushJournal() {
+
+        if (Thread.holdsLock(this))
+            return;
+
+        synchronized (journalLock) {
+
+            List<String> records;
+            int loadedAs;
+            synchronized (this) {
+                if (unwritten.isEmpty())
+                    return;
+
+                loadedAs = loads;
+                records = new ArrayList<>(unwritten);
+                unwritten.clear();
+
+                if (!new File(journalPath).exists())
+                    startJournal();
+            }
+
+            try {
+                DurableFiles.append(journalPath, records);
+            }
+            catch (IOException e) {
+                System.err.println("Error appending to parking space journal: " + e.getMessage());
+
+                // Put the records back in front of any queued since, so the next flush retries them
+                synchronized (this) {
+                    if (loads == loadedAs)
+                        unwritten.addAll(0, records);
+                }
+                return;
+            }
+
+            synchronized (this) {
+                journalEntries += records.size();
+                if (journalEntries >= COMPACT_THRESHOLD)
+                    compact();
+            }
+        }
+    }
+
+    // Truncates the journal and tags it with the snapshot it applies to
+    private void startJournal() {
+
+        journalEntries = 0;
+
+        try {
+            DurableFiles.replace(journalPath, Collections.singletonList(baseLine()));
+        }
+        catch (IOException e) {
+            System.err.println("Error starting parking space journal: " + e.getMessage());
+        }
+    }
+
+    private String baseLine() {
+        return BASE + DELIMITER + snapshotLength + DELIMITER + snapshotModified;
+    }
+
+    private void captureSnapshotStamp() {
+
+        File snapshot = new File(snapshotPath);
+        snapshotLength = snapshot.length();
+        snapshotModified = snapshot.lastModified();
+    }
+
+    private static ParkingSpace parseRecord(String[] data, int offset) {
+
+        try {
+            int spotID = Integer.parseInt(data[offset].trim());
+            int lotID = Integer.parseInt(data[offset + 1].trim());
+            int sensorID = Integer.parseInt(data[offset + 3].trim());
+
+            ParkingSpace space = new ParkingSpace(spotID, lotID, sensorID);
+            space.setStatus(data[offset + 2].trim());
+            space.setNeedMaintenance(data[offset + 4].trim());
+            return space;
+        }
+        catch (NumberFormatException e) {
+            System.err.println("Error parsing spot or lot ID: " + e.getMessage());
+            return null;
+        }
+    }
+
+    private static int parseID(String value) {
+
+        try {
+            return Integer.parseInt(value.trim());
+        }
+        catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private static String toRecord(ParkingSpace space) {
+
+        return space.getSpotID() + DELIMITER + space.getLotID() + DELIMITER + space.getStatus() + DELIMITER
+                + space.getSensorID() + DELIMITER + space.getNeedMaintenance();
+    }
+
+    // Statuses are compared as SpaceStatus values, so "occupied" over "Occupied" is no change;
+    // values outside the enum are compared as written
+    private static boolean isSameStatus(ParkingSpace space, SpaceStatus target, String status) {
+        return space.getSpaceStatus() == target
+                && (target != SpaceStatus.UNKNOWN || Objects.equals(space.getStatus(), status));
+    }
+
+    // Known statuses are stored with their canonical label
+    private static String labelOf(SpaceStatus target, String status) {
+        return target == SpaceStatus.UNKNOWN ? status : target.label();
+    }
+
+    private static ParkingSpace copyOf(ParkingSpace space) {
+
+        ParkingSpace copy = new ParkingSpace(space.getSpotID(), space.getLotID(), space.getSensorID());
+        copy.setStatus(space.getStatus());
+        copy.setNeedMaintenance(space.getNeedMaintenance());
+        return copy;
+    }
+}
@@ -0,0 +1,116 @@
+package com.company;
+
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.security.spec.KeySpec;
+import javax.crypto.SecretKeyFactory;
+import javax.crypto.spec.PBEKeySpec;
+
+/**
+ * PBKDF2-with-SHA-256 password hashes in the stored format: the 16-byte salt followed by the
+ * 32-byte hash, as lower-case hex.
+ * Each thread keeps its own SecretKeyFactory, so a hash costs only the key derivation itself.
+ */
+public final class PasswordHasher {
+
+    static final String ALGORITHM = "PBKDF2WithHmacSHA256";
+    static final int ITERATIONS = 10000;
+    static final int SALT_BYTES = 16;
+    static final int KEY_BITS = 256;
+
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+    private static final SecureRandom random = new SecureRandom();
+
+    private static final ThreadLocal<SecretKeyFactory> factory = ThreadLocal.withInitial(() -> {
+        try {
+            return SecretKeyFactory.getInstance(ALGORITHM);
+        }
+        catch (GeneralSecurityException e) {
+            throw new IllegalStateException(ALGORITHM + " is not available", e);
+        }
+    });
+
+    private PasswordHasher() {
+    }
+
+    /**
+     * @return the hex salt and hash of the password with a fresh random salt
+     */
+    public static String hash(String password) {
+
+        if (password == null)
+            throw new IllegalArgumentException("Password cannot be null");
+
+        byte[] salt = new byte[SALT_BYTES];
+        random.nextBytes(salt);
+        return toHex(salt, derive(password, salt));
+    }
+
+    /**
+     * Hashes the password with the salt at the front of the stored hash and compares the two
+     * in constant time
+     * @return false if they differ or the stored hash is malformed
+     */
+    public static boolean matches(String password, String storedHash) {
+
+        if (password == null || storedHash == null || storedHash.length() < SALT_BYTES * 2)
+            return false;
+
+        byte[] stored = fromHex(storedHash);
+        if (stored == null)
+            return false;
+
+        byte[] salt = new byte[SALT_BYTES];
+        System.arraycopy(stored, 0, salt, 0, SALT_BYTES);
+
+        byte[] expected = new byte[stored.length - SALT_BYTES];
+        System.arraycopy(stored, SALT_BYTES, expected, 0, expected.length);
+
+        return MessageDigest.isEqual(expected, derive(password, salt));
+    }
+
+    private static byte[] derive(String password, byte[] salt) {
+
+        KeySpec spec = new PBEKeySpec(password.toCharArray(), salt, ITERATIONS, KEY_BITS);
+        try {
+            return factory.get().generateSecret(spec).getEncoded();
+        }
+        catch (GeneralSecurityException e) {
+            throw new RuntimeException("Error encrypting password", e);
+        }
+    }
+
+    static String toHex(byte[] salt, byte[] hash) {
+
+        char[] hex = new char[(salt.length + hash.length) * 2];
+        int at = 0;
+
+        for (byte[] part : new byte[][] {salt, hash}) {
+            for (byte b : part) {
+                hex[at++] = HEX[(b >> 4) & 0xF];
+                hex[at++] = HEX[b & 0xF];
+            }
+        }
+        return new String(hex);
+    }
+
+    // null if the text is not whole bytes of hex
+    static byte[] fromHex(String hex) {
+
+        if (hex.length() % 2 != 0)
+            return null;
+
+        byte[] bytes = new byte[hex.length() / 2];
+        for (int i = 0; i < bytes.length; i++) {
+
+            int high = Character.digit(hex.charAt(i * 2), 16);
+            int low = Character.digit(hex.charAt(i * 2 + 1), 16);
+            if (high < 0 || low < 0)
+                return null;
+
+            bytes[i] = (byte) ((high << 4) | low);
+        }
+        return bytes;
+    }
+}
@@ -0,0 +1,146 @@
+package com.company;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Fixed set of threads that do nothing but password hashing, so a burst of logins queues
+ * here instead of tying up the threads that serve requests. The queue is bounded: once it is
+ * full new work is refused straight away with a RejectedExecutionException in the returned
+ * future, which callers can turn into a "try again" instead of piling up more work.
+ */
+public class PasswordHashingPool {
+
+    public static final int DEFAULT_QUEUE_CAPACITY = 256;
+
+    private static PasswordHashingPool shared;
+
+    private final ThreadPoolExecutor executor;
+    private final int queueCapacity;
+
+    private final AtomicLong submitted = new AtomicLong();
+    private final AtomicLong completed = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicInteger maxQueueDepth = new AtomicInteger();
+
+    public PasswordHashingPool() {
+        this(Runtime.getRuntime().availableProcessors(), DEFAULT_QUEUE_CAPACITY);
+    }
+
+    public PasswordHashingPool(int threads, int queueCapacity) {
+
+        if (threads <= 0 || queueCapacity <= 0)
+            throw new IllegalArgumentException("Threads and queue capacity must be positive");
+
+        this.queueCapacity = queueCapacity;
+
+        AtomicInteger count = new AtomicInteger();
+        executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), r -> {
+                    Thread thread = new Thread(r, "password-hashing-" + count.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    /**
+     * Returns the pool shared by every AuthenticationService that was not given its own
+     */
+    public static synchronized PasswordHashingPool getShared() {
+
+        if (shared == null)
+            shared = new PasswordHashingPool();
+
+        return shared;
+    }
+
+    /**
+     * Runs the work on a hashing thread
+     * @return a future for the result, failed with RejectedExecutionException if the queue is full
+     */
+    public <T> CompletableFuture<T> submit(Supplier<T> work) {
+
+        CompletableFuture<T> result = new CompletableFuture<>();
+        submitted.incrementAndGet();
+
+        try {
+            executor.execute(() -> {
+                try {
+                    result.complete(work.get());
+                }
+                catch (RuntimeException | Error e) {
+                    result.completeExceptionally(e);
+                }
+                finally {
+                    completed.incrementAndGet();
+                }
+            });
+        }
+        catch (RejectedExecutionException e) {
+            rejected.incrementAndGet();
+            result.completeExceptionally(e);
+            return result;
+        }
+
+        maxQueueDepth.accumulateAndGet(executor.getQueue().size(), Math::max);
+        return result;
+    }
+
+    public int getQueueDepth() {
+        return executor.getQueue().size();
+    }
+
+    public int getQueueCapacity() {
+        return queueCapacity;
+    }
+
+    public Stats getStats() {
+        return new Stats(submitted.get(), completed.get(), rejected.get(), executor.getActiveCount(),
+                getQueueDepth(), maxQueueDepth.get());
+    }
+
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Point-in-time counters of a hashing pool
+     */
+    public static class Stats {
+
+        private final long submitted;
+        private final long completed;
+        private final long rejected;
+        private final int active;
+        private final int queueDepth;
+        private final int maxQueueDepth;
+
+        Stats(long submitted, long completed, long rejected, int active, int queueDepth, int maxQueueDepth) {
+            this.submitted = submitted;
+            this.completed = completed;
+            this.rejected = rejected;
+            this.active = active;
+            this.queueDepth = queueDepth;
+            this.maxQueueDepth = maxQueueDepth;
+        }
+
+        public long getSubmitted() { return submitted; }
+        public long getCompleted() { return completed; }
+        public long getRejected() { return rejected; }
+        public int getActive() { return active; }
+        public int getQueueDepth() { return queueDepth; }
+        public int getMaxQueueDepth() { return maxQueueDepth; }
+
+        @Override
+        public String toString() {
+            return "Stats{submitted=" + submitted + ", completed=" + completed + ", rejected=" + rejected
+                    + ", active=" + active + ", queueDepth=" + queueDepth + ", maxQueueDepth=" + maxQueueDepth + "}";
+        }
+    }
+}
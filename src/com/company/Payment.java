@@ -1,11 +1,7 @@
 package com.company;
 
 import java.time.*;
-import java.io.BufferedWriter;
-import java.io.FileWriter;
 import java.io.IOException;
-import java.io.File;
-import java.nio.file.Paths;
 
 public class Payment {
 
@@ -16,13 +12,8 @@ public class Payment {
 	private PriceCalculator calculator;
 	private boolean paymentStatus = false;
 	public Booking booking;
-	private static final String PAYMENT_CSV = "Payment_Database.csv";
 	private static final String DELIMITER = ",";
 
-	private static String getAbsolutePath(String filename) {
-        return Paths.get(System.getProperty("user.dir"), "data", filename).toString();
-    }
-
 	public Payment(String paymentID, double amount, double deposit, String method, Booking booking) {
 
 		this.paymentID = paymentID;
@@ -135,30 +126,21 @@ public class Payment {
 	}
 
 	/**
-	 * Saves payment details to Payment_Database.csv.
+	 * Saves payment details to the payments table.
 	 * @param userID the user ID of the user
 	 * @param depositAmount the deposit amount
 	 */
 	private void savePaymentToDatabase(int userID, double depositAmount) {
 		try {
-			// Create the data directory if it doesn't exist
-			File dataDir = new File("data");
-			if (!dataDir.exists()) {
-				dataDir.mkdirs();
-			}
-
-			// Write the payment details to the csv file
-			try (BufferedWriter writer = new BufferedWriter(new FileWriter(getAbsolutePath(PAYMENT_CSV), true))) {
-				String record = String.join(DELIMITER,
-						paymentID,
-						String.valueOf(userID),
-						method,
-						String.valueOf(depositAmount)
-				);
-				writer.write(record);
-				writer.newLine();
-				System.out.println("Payment record saved to database.");
-			}
+			// Append the payment details to the payments table
+			String record = String.join(DELIMITER,
+					paymentID,
+					String.valueOf(userID),
+					method,
+					String.valueOf(depositAmount)
+			);
+			Storage.getEngine().payments().appendInsert(record);
+			System.out.println("Payment record saved to database.");
 		} catch (IOException e) {
 			System.err.println("Error saving payment record: " + e.getMessage());
 		}
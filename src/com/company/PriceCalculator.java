@@ -6,17 +6,18 @@ import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.HashMap;
 import java.util.Map;
-import java.nio.file.Paths;
 
 public class PriceCalculator {
 	
-	private static final String USER_CSV = "User_Database.csv";
 	private static final String BOOKING_CSV = "Booking_Database.csv";
     
     private double amount;
     private double deposit;
     
     private static final Map<String, Double> hourlyRates = new HashMap<>();
+
+    // Shared by every calculator, since each booking creates its own
+    private static final UserTypeCache userTypes = new UserTypeCache(UserTypeCache.DEFAULT_CAPACITY);
     
     static {
         hourlyRates.put("Student", 5.00);
@@ -25,38 +26,14 @@ public class PriceCalculator {
         hourlyRates.put("Visitor", 15.00);
     }
     
-    private static String getAbsolutePath(String filename) {
-        return Paths.get(System.getProperty("user.dir"), "data", filename).toString();
-    }
-    
     public PriceCalculator() {
     	this.amount = 0.00;
     	this.deposit = 0.00;
     }
     
     public String getUserType(int userID) {
-    	
-    	String user_type = null; // Return null for invalid users
-        
-    	try (BufferedReader br = new BufferedReader(new FileReader(getAbsolutePath(USER_CSV)))) {
-    		
-    		String line;
-            br.readLine(); 
-            
-            while ((line = br.readLine()) != null) {
-                String[] data = line.split(",");
-                
-                if (data.length >= 6 && Integer.parseInt(data[0].trim()) == userID) {
-                    user_type = data[5].trim();
-                    break;
-                }
-            }
-        } 
-        catch (IOException e) {
-            // If file doesn't exist or can't be read, return null
-            System.err.println("Warning: Could not read user database at: " + getAbsolutePath(USER_CSV));
-        }
-        return user_type;
+
+        return userTypes.get(userID); // null for invalid users
     }
 
 
@@ -118,5 +95,9 @@ public class PriceCalculator {
 	public void setDeposit(double deposit) {
 		this.deposit = deposit;
 	}
+
+	static UserTypeCache getUserTypeCache() {
+		return userTypes;
+	}
     
 }
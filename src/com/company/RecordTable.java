@@ -0,0 +1,63 @@
+package com.company;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * One table of comma-separated rows, as the database helpers see it.
+ * Rows are identified by a key column; lines are returned as stored, header row included
+ * when the table has one. Implementations decide how the rows are kept on disk.
+ */
+public interface RecordTable {
+
+    /**
+     * @return every line of the table, header first
+     */
+    List<String> readAllLines() throws IOException;
+
+    /**
+     * Replaces the whole table with the given lines
+     * @return false if the table could not be written
+     */
+    boolean replaceAll(List<String> lines);
+
+    /**
+     * Adds one row at the end of the table
+     */
+    void appendInsert(String line) throws IOException;
+
+    /**
+     * Adds rows at the end of the table, one at a time unless the implementation can write them together
+     */
+    default void appendInserts(List<String> lines) throws IOException {
+        for (String line : lines)
+            appendInsert(line);
+    }
+
+    /**
+     * Changes one field of the row with the given key; unknown keys are ignored
+     */
+    void appendUpdate(String key, int fieldIndex, String newValue) throws IOException;
+
+    /**
+     * @return the row with the given key split into fields, or null if there is none
+     */
+    String[] findRecord(String key) throws IOException;
+
+    boolean contains(String key);
+
+    /**
+     * @return true if the table holds nothing at all, not even a header
+     */
+    boolean isEmpty();
+
+    /**
+     * Changes whenever the table is replaced or reloaded, so derived indexes know to rebuild
+     */
+    long getGeneration();
+
+    /**
+     * Folds any pending changes into the table's base storage
+     */
+    void compact();
+}
@@ -1,5 +1,16 @@
 package com.company;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Supplier;
+
 public class RegisterationSystem implements RegistrationFacade {
 
     private UserDatabaseHelper userDB;
@@ -45,6 +56,165 @@ public class RegisterationSystem implements RegistrationFacade {
         return true;
     }
 
+    /**
+     * Registers a whole batch of users, such as a semester's intake, in one go.
+     * Every user is checked against the in-memory user and YorkU directory indexes, the
+     * passwords of those that pass are hashed in parallel across the cores, and all of them
+     * are written with a single update of the users table. The given users are only changed,
+     * getting their hashed password and new ID, once that write has succeeded.
+     *
+     * @param users the users to register
+     * @return the outcome of every user, in the order given
+     */
+    public BulkImportReport registerAll(List<User> users) {
+
+        BulkImportReport.Row[] rows = new BulkImportReport.Row[users.size()];
+        List<Integer> candidates = new ArrayList<>();
+        Set<String> batchEmails = new HashSet<>();
+
+        for (int i = 0; i < users.size(); i++) {
+
+            User user = users.get(i);
+            String email = user == null ? null : user.getEmail();
+
+            if (user == null)
+                rows[i] = new BulkImportReport.Row(i, null, BulkImportReport.Outcome.INVALID, "No user");
+            else if (email == null || email.trim().isEmpty())
+                rows[i] = new BulkImportReport.Row(i, email, BulkImportReport.Outcome.INVALID, "Email is missing");
+            else if (user.getName() == null || user.getName().indexOf(" ") <= 0)
+                rows[i] = new BulkImportReport.Row(i, email, BulkImportReport.Outcome.INVALID, "Name needs a first and last name");
+            else if (user.getPassword() == null || !StrongPasswordRecognizer.isPasswordStrong(user.getPassword()))
+                rows[i] = new BulkImportReport.Row(i, email, BulkImportReport.Outcome.INVALID, "Password is missing or not strong enough");
+            else if (!batchEmails.add(email))
+                rows[i] = new BulkImportReport.Row(i, email, BulkImportReport.Outcome.DUPLICATE, "Email appears earlier in the batch");
+            else if (UserDatabaseHelper.isEmailRegistered(email))
+                rows[i] = new BulkImportReport.Row(i, email, BulkImportReport.Outcome.ALREADY_REGISTERED, "Email is already registered");
+            else
+                candidates.add(i);
+        }
+
+        // One pass over the YorkU directory for the whole batch
+        List<String> emails = new ArrayList<>(candidates.size());
+        for (int i : candidates)
+            emails.add(users.get(i).getEmail());
+        Map<String, String> directory = new Manager().validateYorkUAll(emails);
+
+        List<Integer> accepted = new ArrayList<>();
+        for (int i : candidates) {
+            User user = users.get(i);
+            if (isDirectoryType(user.getType()) && !user.getType().equals(directory.get(user.getEmail())))
+                rows[i] = new BulkImportReport.Row(i, user.getEmail(), BulkImportReport.Outcome.NOT_VALIDATED,
+                        "Not listed in the YorkU directory as " + user.getType());
+            else
+                accepted.add(i);
+        }
+
+        // Hashed on the shared pool, which bounds the hashing work of the whole process
+        PasswordHashingPool pool = PasswordHashingPool.getShared();
+
+        // Copies carrying the hashes are written; the given users stay as they are until then
+        List<User> records = new ArrayList<>();
+        List<Integer> recordRows = new ArrayList<>();
+
+        List<CompletableFuture<String>> hashes = new ArrayList<>();
+        for (int i : accepted) {
+            String password = users.get(i).getPassword();
+            hashes.add(submitWhenQueued(pool, hashes, () -> authService.hashPassword(password)));
+        }
+
+        for (int n = 0; n < accepted.size(); n++) {
+
+            int i = accepted.get(n);
+            User user = users.get(i);
+
+            try {
+                records.add(recordOf(user, hashes.get(n).join()));
+                recordRows.add(i);
+            }
+            catch (RuntimeException e) {
+                Throwable cause = e.getCause() == null ? e : e.getCause();
+                rows[i] = new BulkImportReport.Row(i, user.getEmail(), BulkImportReport.Outcome.FAILED,
+                        "Hashing failed: " + cause.getMessage());
+            }
+        }
+
+        boolean written = UserDatabaseHelper.addUsers(records);
+
+        for (int n = 0; n < records.size(); n++) {
+
+            int i = recordRows.get(n);
+            User user = users.get(i);
+            User record = records.get(n);
+
+            if (written) {
+                user.setPassword(record.getPassword());
+                user.setUserID(record.getUserID());
+                rows[i] = new BulkImportReport.Row(i, user.getEmail(), BulkImportReport.Outcome.REGISTERED,
+                        "Registered as user " + user.getUserID());
+            }
+            else
+                rows[i] = new BulkImportReport.Row(i, user.getEmail(), BulkImportReport.Outcome.FAILED,
+                        "Could not write the users table");
+        }
+
+        BulkImportReport report = new BulkImportReport(Arrays.asList(rows));
+        System.out.println("Bulk registration: " + report);
+        return report;
+    }
+
+    // The shared pool refuses work while its queue is full; the batch then waits for one of its own
+    // earlier hashes to finish before trying again, and only gives up once none are left to wait for
+    private static CompletableFuture<String> submitWhenQueued(PasswordHashingPool pool,
+                                                              List<CompletableFuture<String>> earlier,
+                                                              Supplier<String> work) {
+
+        CompletableFuture<String> hash = pool.submit(work);
+
+        while (isRejected(hash)) {
+
+            CompletableFuture<String> pending = earlier.stream().filter(f -> !f.isDone()).findFirst().orElse(null);
+            if (pending == null)
+                return hash;
+
+            pending.handle((result, e) -> result).join();
+            hash = pool.submit(work);
+        }
+        return hash;
+    }
+
+    private static boolean isRejected(CompletableFuture<?> future) {
+
+        if (!future.isCompletedExceptionally())
+            return false;
+
+        try {
+            future.join();
+            return false;
+        }
+        catch (CompletionException e) {
+            return e.getCause() instanceof RejectedExecutionException;
+        }
+    }
+
+    // The user types that must be listed in the YorkU directory under their own type, as their
+    // validate methods require; anyone else only needs an email
+    private static boolean isDirectoryType(String type) {
+        return Student.TYPE.equals(type) || FacultyMember.TYPE.equals(type) || NonFacultyStaff.TYPE.equals(type);
+    }
+
+    // The row to write for a user: its fields with the hashed password
+    private static User recordOf(User user, String hashedPassword) {
+
+        User record = new User();
+        record.setName(user.getName());
+        record.setEmail(user.getEmail());
+        record.setType(user.getType());
+        record.setPassword(hashedPassword);
+        if (user.hasUserID())
+            record.setUserID(user.getUserID());
+        return record;
+    }
+
     /**
      * Logs in a user
      */
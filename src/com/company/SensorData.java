@@ -15,4 +15,5 @@ public class SensorData {
     // Getters
     public int getSpotID() { return spotID; }
     public boolean isCarDetected() { return isCarDetected; }
+    public LocalDateTime getTimestamp() { return timestamp; }
 }
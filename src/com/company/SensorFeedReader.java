@@ -0,0 +1,124 @@
+package com.company;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Tails a sensor feed CSV (SensorID,CarDetected,Timestamp). Each poll reads only the bytes
+ * appended since the previous one, starting from a remembered byte offset, so readings that
+ * were already applied are never parsed again. A partial last line is left for the next poll,
+ * and a file that shrinks (rotated or truncated) is read again from the start.
+ */
+public class SensorFeedReader {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final String path;
+    private long offset;
+
+    public SensorFeedReader(String path) {
+        this.path = path;
+    }
+
+    /**
+     * Returns the readings appended since the last poll
+     */
+    public synchronized List<SensorData> poll() {
+
+        List<SensorData> readings = new ArrayList<>();
+        if (!new File(path).exists())
+            return readings;
+
+        try (FileChannel channel = FileChannel.open(Paths.get(path), StandardOpenOption.READ)) {
+
+            long size = channel.size();
+            if (size < offset)
+                offset = 0; // the feed was rotated or truncated under us
+            if (size == offset)
+                return readings;
+
+            ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+            ByteArrayOutputStream line = new ByteArrayOutputStream();
+            long position = offset;
+            long lineStart = offset;
+
+            while (position < size) {
+
+                buffer.clear();
+                int read = channel.read(buffer, position);
+                if (read <= 0)
+                    break;
+
+                for (int i = 0; i < read; i++) {
+
+                    byte b = buffer.get(i);
+                    if (b != '\n') {
+                        line.write(b);
+                        continue;
+                    }
+
+                    String text = new String(line.toByteArray(), StandardCharsets.UTF_8).trim();
+                    line.reset();
+
+                    // The line at byte 0 is the header
+                    if (lineStart != 0 && !text.isEmpty()) {
+                        SensorData data = parseLine(text);
+                        if (data != null)
+                            readings.add(data);
+                    }
+                    lineStart = position + i + 1;
+                }
+                position += read;
+            }
+
+            offset = lineStart; // resume at the start of any incomplete line
+        }
+        catch (IOException e) {
+            System.err.println("Error tailing sensor feed: " + e.getMessage());
+        }
+        return readings;
+    }
+
+    public synchronized long getOffset() {
+        return offset;
+    }
+
+    public String getPath() {
+        return path;
+    }
+
+    /**
+     * Parses one SensorID,CarDetected,Timestamp record; the timestamp may be yyyy-MM-dd HH:mm:ss
+     * or HH:mm (today) and falls back to the current time when it cannot be parsed
+     * @return null if the record is malformed
+     */
+    public static SensorData parseLine(String line) {
+
+        try {
+            String[] data = line.split(",");
+            if (data.length < 3) {
+                System.err.println("Error parsing sensor data: missing fields in " + line);
+                return null;
+            }
+
+            int sensorId = Integer.parseInt(data[0]);
+            boolean carDetected = "true".equalsIgnoreCase(data[1]);
+
+            LocalDateTime timestamp = SensorTimestampParser.parseOrNow(data[2]);
+
+            return new SensorData(sensorId, carDetected, timestamp);
+        } catch (Exception e) {
+            System.err.println("Error parsing sensor data: " + e.getMessage());
+            return null;
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.company;
+
+/**
+ * Summary of one batch of sensor readings applied by ParkingLotManager.ingestSensorData
+ */
+public class SensorIngestResult {
+
+    private final int readings;
+    private final int distinctSpots;
+    private final int changedSpots;
+
+    public SensorIngestResult(int readings, int distinctSpots, int changedSpots) {
+        this.readings = readings;
+        this.distinctSpots = distinctSpots;
+        this.changedSpots = changedSpots;
+    }
+
+    // Readings handed in, including any that were superseded or unparseable
+    public int getReadings() {
+        return readings;
+    }
+
+    // Spots that had at least one reading after coalescing
+    public int getDistinctSpots() {
+        return distinctSpots;
+    }
+
+    // Spots whose status actually changed
+    public int getChangedSpots() {
+        return changedSpots;
+    }
+
+    @Override
+    public String toString() {
+        return "SensorIngestResult{readings=" + readings + ", distinctSpots=" + distinctSpots
+                + ", changedSpots=" + changedSpots + "}";
+    }
+}
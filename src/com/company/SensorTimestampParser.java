@@ -0,0 +1,102 @@
+package com.company;
+
+import java.time.LocalDate;
+import java.time.Month;
+import java.time.LocalDateTime;
+import java.time.Year;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Parses sensor timestamps in the two formats the feed uses, yyyy-MM-dd HH:mm:ss and HH:mm.
+ * The format is picked from the length and separator positions and the digits are read
+ * directly, so an unrecognised value costs a few comparisons instead of a thrown exception.
+ */
+public final class SensorTimestampParser {
+
+    public static final DateTimeFormatter DATE_TIME = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+    public static final DateTimeFormatter TIME = DateTimeFormatter.ofPattern("HH:mm");
+
+    private static final int DATE_TIME_LENGTH = 19; // yyyy-MM-dd HH:mm:ss
+    private static final int TIME_LENGTH = 5;       // HH:mm
+
+    private SensorTimestampParser() {
+    }
+
+    /**
+     * @return the parsed timestamp, or null if the text is in neither format or out of range.
+     * An HH:mm value is taken as that time today.
+     */
+    public static LocalDateTime parse(String text) {
+
+        if (text == null)
+            return null;
+
+        String value = text.trim();
+
+        if (value.length() == DATE_TIME_LENGTH)
+            return parseDateTime(value);
+        if (value.length() == TIME_LENGTH)
+            return parseTime(value);
+        return null;
+    }
+
+    /**
+     * Same as parse but falls back to the current time, like the feed always has
+     */
+    public static LocalDateTime parseOrNow(String text) {
+
+        LocalDateTime timestamp = parse(text);
+        return timestamp == null ? LocalDateTime.now() : timestamp;
+    }
+
+    private static LocalDateTime parseDateTime(String s) {
+
+        if (s.charAt(4) != '-' || s.charAt(7) != '-' || s.charAt(10) != ' ' || s.charAt(13) != ':' || s.charAt(16) != ':')
+            return null;
+
+        int year = digits(s, 0, 4);
+        int month = digits(s, 5, 2);
+        int day = digits(s, 8, 2);
+        int hour = digits(s, 11, 2);
+        int minute = digits(s, 14, 2);
+        int second = digits(s, 17, 2);
+
+        if (year < 0 || month < 1 || month > 12 || day < 1 || !validTime(hour, minute) || second < 0 || second > 59)
+            return null;
+        if (day > Month.of(month).length(Year.isLeap(year)))
+            return null;
+
+        return LocalDateTime.of(year, month, day, hour, minute, second);
+    }
+
+    private static LocalDateTime parseTime(String s) {
+
+        if (s.charAt(2) != ':')
+            return null;
+
+        int hour = digits(s, 0, 2);
+        int minute = digits(s, 3, 2);
+
+        if (!validTime(hour, minute))
+            return null;
+
+        return LocalDate.now().atTime(hour, minute);
+    }
+
+    private static boolean validTime(int hour, int minute) {
+        return hour >= 0 && hour <= 23 && minute >= 0 && minute <= 59;
+    }
+
+    // Reads count decimal digits starting at from, or returns -1 if any of them is not a digit
+    private static int digits(String s, int from, int count) {
+
+        int value = 0;
+        for (int i = from; i < from + count; i++) {
+            char c = s.charAt(i);
+            if (c < '0' || c > '9')
+                return -1;
+            value = value * 10 + (c - '0');
+        }
+        return value;
+    }
+}
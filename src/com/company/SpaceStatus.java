@@ -0,0 +1,50 @@
+package com.company;
+
+/**
+ * State of a parking space with a one-byte code. Legacy CSV values are matched ignoring case,
+ * so "available", "Available" and " AVAILABLE " all read as AVAILABLE.
+ */
+public enum SpaceStatus {
+
+    AVAILABLE("Available"),
+    OCCUPIED("Occupied"),
+    DISABLED("Disabled"),
+    MAINTENANCE("Maintenance"),
+    UNKNOWN("Unknown"); // anything the older files hold that is none of the above
+
+    private static final SpaceStatus[] BY_CODE = values();
+
+    private final String label;
+
+    SpaceStatus(String label) {
+        this.label = label;
+    }
+
+    public byte code() {
+        return (byte) ordinal();
+    }
+
+    public String label() {
+        return label;
+    }
+
+    public static SpaceStatus fromCode(byte code) {
+        return code >= 0 && code < BY_CODE.length ? BY_CODE[code] : UNKNOWN;
+    }
+
+    /**
+     * Reads a status as written in the spot files; never throws
+     */
+    public static SpaceStatus parse(String value) {
+
+        if (value == null)
+            return UNKNOWN;
+
+        String trimmed = value.trim();
+        for (SpaceStatus status : BY_CODE) {
+            if (status.label.equalsIgnoreCase(trimmed))
+                return status;
+        }
+        return UNKNOWN;
+    }
+}
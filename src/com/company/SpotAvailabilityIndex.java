@@ -0,0 +1,141 @@
+package com.company;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Booked spots per 15-minute bucket of the day, one bitset per bucket indexed by spot ID.
+ * A per-bucket booking count lets bookings be removed without rescanning anything; the counts
+ * are kept by a dense index given to each spot when it is first booked, so their size follows
+ * the number of booked spots rather than the highest spot ID.
+ * Bookings whose end is before their start do not map onto buckets and are only counted,
+ * so callers know when the bitmaps alone cannot answer a query.
+ */
+class SpotAvailabilityIndex {
+
+    static final int BUCKET_SECONDS = 15 * 60;
+    static final int BUCKETS = 24 * 60 * 60 / BUCKET_SECONDS;
+
+    private final BitSet[] booked = new BitSet[BUCKETS];
+    private final int[][] counts = new int[BUCKETS][]; // per bucket, by dense spot index
+    private final Map<Integer, Integer> denseIndex = new HashMap<>();
+    private int irregularBookings;
+
+    SpotAvailabilityIndex() {
+        clear();
+    }
+
+    void clear() {
+
+        for (int bucket = 0; bucket < BUCKETS; bucket++) {
+            booked[bucket] = new BitSet();
+            counts[bucket] = new int[0];
+        }
+        denseIndex.clear();
+        irregularBookings = 0;
+    }
+
+    /**
+     * Marks a spot as booked in every bucket touched by [startSecond, endSecond]
+     */
+    void add(int spotID, int startSecond, int endSecond) {
+
+        if (spotID < 0)
+            return;
+
+        if (endSecond < startSecond) {
+            irregularBookings++;
+            return;
+        }
+
+        int index = denseIndex.computeIfAbsent(spotID, id -> denseIndex.size());
+
+        for (int bucket = startSecond / BUCKET_SECONDS; bucket <= endSecond / BUCKET_SECONDS; bucket++) {
+
+            int[] bucketCounts = ensureCapacity(bucket, index);
+            if (bucketCounts[index]++ == 0)
+                booked[bucket].set(spotID);
+        }
+    }
+
+    void remove(int spotID, int startSecond, int endSecond) {
+
+        if (spotID < 0)
+            return;
+
+        if (endSecond < startSecond) {
+            irregularBookings--;
+            return;
+        }
+
+        Integer index = denseIndex.get(spotID);
+        if (index == null)
+            return;
+
+        for (int bucket = startSecond / BUCKET_SECONDS; bucket <= endSecond / BUCKET_SECONDS; bucket++) {
+
+            int[] bucketCounts = counts[bucket];
+            if (index < bucketCounts.length && bucketCounts[index] > 0 && --bucketCounts[index] == 0)
+                booked[bucket].clear(spotID);
+        }
+    }
+
+    boolean hasIrregularBookings() {
+        return irregularBookings > 0;
+    }
+
+    /**
+     * ORs together the booked bitsets of buckets firstBucket..lastBucket
+     */
+    BitSet bookedDuring(int firstBucket, int lastBucket) {
+
+        BitSet result = new BitSet();
+
+        for (int bucket = Math.max(0, firstBucket); bucket <= Math.min(BUCKETS - 1, lastBucket); bucket++)
+            result.or(booked[bucket]);
+
+        return result;
+    }
+
+    /**
+     * First bucket lying entirely at or after the given second
+     */
+    static int firstFullBucket(int startSecond) {
+        return (startSecond + BUCKET_SECONDS - 1) / BUCKET_SECONDS;
+    }
+
+    /**
+     * Last bucket lying entirely at or before the given second
+     */
+    static int lastFullBucket(int endSecond) {
+        return (endSecond + 1) / BUCKET_SECONDS - 1;
+    }
+
+    static int bucketStart(int bucket) {
+        return bucket * BUCKET_SECONDS;
+    }
+
+    // Number of spots that have been given a dense index
+    int indexedSpots() {
+        return denseIndex.size();
+    }
+
+    int countAt(int spotID, int bucket) {
+
+        Integer index = denseIndex.get(spotID);
+        return index == null || index >= counts[bucket].length ? 0 : counts[bucket][index];
+    }
+
+    private int[] ensureCapacity(int bucket, int index) {
+
+        int[] bucketCounts = counts[bucket];
+
+        if (index >= bucketCounts.length) {
+            bucketCounts = Arrays.copyOf(bucketCounts, Math.max(index + 1, Math.min(denseIndex.size(), bucketCounts.length * 2)));
+            counts[bucket] = bucketCounts;
+        }
+        return bucketCounts;
+    }
+}
@@ -0,0 +1,47 @@
+package com.company;
+
+/**
+ * Holds the storage engine the database helpers use.
+ * The engine is picked from the n2s.storage system property ("csv" or "binary", csv by
+ * default) the first time it is needed, or set directly with setEngine.
+ */
+public final class Storage {
+
+    public static final String ENGINE_PROPERTY = "n2s.storage";
+
+    private static StorageEngine engine;
+
+    private Storage() {
+    }
+
+    public static synchronized StorageEngine getEngine() {
+
+        if (engine == null)
+            engine = forName(System.getProperty(ENGINE_PROPERTY, CsvStorageEngine.NAME));
+
+        return engine;
+    }
+
+    public static synchronized void setEngine(StorageEngine newEngine) {
+
+        if (newEngine == null)
+            throw new IllegalArgumentException("Storage engine cannot be null");
+
+        engine = newEngine;
+    }
+
+    /**
+     * @return a new engine of the given name
+     */
+    public static StorageEngine forName(String name) {
+
+        switch (name.trim().toLowerCase()) {
+            case CsvStorageEngine.NAME:
+                return new CsvStorageEngine();
+            case BinaryStorageEngine.NAME:
+                return new BinaryStorageEngine();
+            default:
+                throw new IllegalArgumentException("Unknown storage engine: " + name);
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.company;
+
+/**
+ * Storage backend under the database helpers. An engine hands out one RecordTable per
+ * StorageTable; which engine is used is chosen through Storage.
+ */
+public interface StorageEngine {
+
+    /**
+     * @return the name the engine is selected by
+     */
+    String getName();
+
+    RecordTable table(StorageTable table);
+
+    default RecordTable users() {
+        return table(StorageTable.USERS);
+    }
+
+    default RecordTable bookings() {
+        return table(StorageTable.BOOKINGS);
+    }
+
+    default RecordTable lots() {
+        return table(StorageTable.LOTS);
+    }
+
+    default RecordTable spots() {
+        return table(StorageTable.SPOTS);
+    }
+
+    default RecordTable payments() {
+        return table(StorageTable.PAYMENTS);
+    }
+
+    default RecordTable managers() {
+        return table(StorageTable.MANAGERS);
+    }
+}
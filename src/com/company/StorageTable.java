@@ -0,0 +1,45 @@
+package com.company;
+
+import java.nio.file.Paths;
+
+/**
+ * The tables every storage engine provides, with the file they live in under the working
+ * directory, the column that identifies a row and the header a new table starts with.
+ */
+public enum StorageTable {
+
+    USERS("data/User_Database.csv", 1, "UserID,Email,Password,FirstName,LastName,UserType,Status"),
+    BOOKINGS("data/Booking_Database.csv", 0, null),
+    LOTS("data/Parking_Lot_Database.csv", 0, "LotID,Location,Status,NeedMaintenance"),
+    SPOTS("data/Parking_Spaces_Database.csv", 0, ParkingSpaceStore.HEADER),
+    PAYMENTS("data/Payment_Database.csv", 0, null),
+    MANAGERS(SuperManager.MANAGER_CSV, 0, ""); // no header, the first line has always been left blank
+
+    private final String file;
+    private final int keyColumn;
+    private final String header;
+
+    StorageTable(String file, int keyColumn, String header) {
+        this.file = file;
+        this.keyColumn = keyColumn;
+        this.header = header;
+    }
+
+    /**
+     * @return the CSV file of this table under the current working directory
+     */
+    public String path() {
+        return Paths.get(System.getProperty("user.dir"), file).toString();
+    }
+
+    public int getKeyColumn() {
+        return keyColumn;
+    }
+
+    /**
+     * @return the header line of a new table, or null if the table has none
+     */
+    public String getHeader() {
+        return header;
+    }
+}
@@ -0,0 +1,82 @@
+package com.company;
+
+import java.util.Collection;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Fixed set of reentrant locks shared out by lot ID, so work on one lot is serialised while
+ * unrelated lots proceed in parallel. Several lots are always locked in stripe order, which
+ * keeps multi-lot operations from deadlocking against each other.
+ */
+class StripedLotLocks {
+
+    static final int DEFAULT_STRIPES = 64;
+
+    private final ReentrantLock[] stripes;
+
+    StripedLotLocks() {
+        this(DEFAULT_STRIPES);
+    }
+
+    StripedLotLocks(int count) {
+
+        if (count <= 0)
+            throw new IllegalArgumentException("Stripe count must be positive");
+
+        stripes = new ReentrantLock[count];
+        for (int i = 0; i < count; i++)
+            stripes[i] = new ReentrantLock();
+    }
+
+    int stripeOf(int lotID) {
+        return Math.floorMod(Integer.hashCode(lotID) * 0x9E3779B9, stripes.length);
+    }
+
+    /**
+     * Runs the work holding the lot's stripe
+     */
+    <T> T withLot(int lotID, Supplier<T> work) {
+
+        ReentrantLock lock = stripes[stripeOf(lotID)];
+        lock.lock();
+        try {
+            return work.get();
+        }
+        finally {
+            lock.unlock();
+        }
+    }
+
+    void withLot(int lotID, Runnable work) {
+        withLot(lotID, () -> {
+            work.run();
+            return null;
+        });
+    }
+
+    /**
+     * Runs the work holding the stripes of every given lot, taken in stripe order
+     */
+    <T> T withLots(Collection<Integer> lotIDs, Supplier<T> work) {
+
+        TreeSet<Integer> order = new TreeSet<>();
+        for (int lotID : lotIDs)
+            order.add(stripeOf(lotID));
+
+        int locked = 0;
+        ReentrantLock[] held = new ReentrantLock[order.size()];
+        try {
+            for (int stripe : order) {
+                stripes[stripe].lock();
+                held[locked++] = stripes[stripe];
+            }
+            return work.get();
+        }
+        finally {
+            for (int i = locked - 1; i >= 0; i--)
+                held[i].unlock();
+        }
+    }
+}
@@ -1,11 +1,11 @@
 package com.company;
 
-import java.io.*;
+import java.io.IOException;
 import java.util.*;
 
 public class SuperManager extends Manager{
 
-	private static final String MANAGER_CSV = "Manager_Database.csv";
+	static final String MANAGER_CSV = "Manager_Database.csv";
 	private static SuperManager superManager;
 	
 	public SuperManager(String name, String email, String password) {
@@ -62,18 +62,17 @@ public class SuperManager extends Manager{
 		return new String(passwordArray);
 	}
 	
-	private int getNextManagerID(String file) {
+	private int getNextManagerID(RecordTable managers) {
 	    
 		int lastID = 0;
 
-	    try (BufferedReader br = new BufferedReader(new FileReader(file))) {
+	    try {
 	        
-	    	String line;
-	        br.readLine();
+	    	List<String> lines = managers.readAllLines();
 
-	        while ((line = br.readLine()) != null) {
+	        for (int i = 1; i < lines.size(); i++) {
 	            
-	        	String[] data = line.split(",");
+	        	String[] data = lines.get(i).split(",");
 	            
 	        	if (data.length > 0) {
 	                try {
@@ -101,18 +100,13 @@ public class SuperManager extends Manager{
 	    }
 
 	    try {
-	        int id = getNextManagerID(MANAGER_CSV);
+	        RecordTable managers = Storage.getEngine().managers();
+	        int id = getNextManagerID(managers);
 	        String name = "Admin" + id;
 	        String password = generateSecurePassword();
 
 	        String newRow = id + "," + name + "," + password + ",FALSE";
-	        FileWriter fw = new FileWriter(MANAGER_CSV, true);
-	        BufferedWriter bw = new BufferedWriter(fw);
-	        PrintWriter pw = new PrintWriter(bw);
-	        
-	        pw.println();
-	        pw.println(newRow);
-	        pw.close();
+	        managers.appendInsert(newRow);
 
 	        System.out.println("Manager account created: " + name);
 	        return true;
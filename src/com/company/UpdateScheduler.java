@@ -0,0 +1,305 @@
+package com.company;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Runs named background jobs on a ScheduledExecutorService. Each job has its own period and
+ * jitter, never overlaps with itself, and survives a run that throws. Every job keeps run
+ * counts and timings that can be read through getStats.
+ */
+public class UpdateScheduler {
+
+    private static final int DEFAULT_THREADS = 2;
+
+    private final ScheduledExecutorService executor;
+    private final Map<String, Job> jobs = new LinkedHashMap<>();
+
+    public UpdateScheduler() {
+        this(DEFAULT_THREADS);
+    }
+
+    public UpdateScheduler(int threads) {
+
+        ScheduledThreadPoolExecutor pool = new ScheduledThreadPoolExecutor(threads, r -> {
+            Thread thread = new Thread(r, "parking-update-scheduler");
+            thread.setDaemon(true);
+            return thread;
+        });
+        pool.setRemoveOnCancelPolicy(true);
+        this.executor = pool;
+    }
+
+    /**
+     * Schedules a job, replacing any job with the same name. The first run starts after
+     * initialDelayMillis and each later run starts periodMillis plus up to jitterMillis after
+     * the previous one finished.
+     */
+    public synchronized void schedule(String name, Runnable task, long initialDelayMillis, long periodMillis, long jitterMillis) {
+
+        if (name == null || task == null)
+            throw new IllegalArgumentException("Job name and task are required");
+        if (periodMillis <= 0 || jitterMillis < 0 || initialDelayMillis < 0)
+            throw new IllegalArgumentException("Invalid timing for job " + name);
+
+        cancel(name);
+        Job job = new Job(name, task, periodMillis, jitterMillis);
+        jobs.put(name, job);
+        job.scheduleNext(initialDelayMillis);
+    }
+
+    /**
+     * Changes the period and jitter of a scheduled job, starting with its next run
+     * @return false if no job has that name
+     */
+    public synchronized boolean reschedule(String name, long periodMillis, long jitterMillis) {
+
+        Job job = jobs.get(name);
+        if (job == null)
+            return false;
+        if (periodMillis <= 0 || jitterMillis < 0)
+            throw new IllegalArgumentException("Invalid timing for job " + name);
+
+        job.periodMillis = periodMillis;
+        job.jitterMillis = jitterMillis;
+        job.scheduleNext(job.nextDelay());
+        return true;
+    }
+
+    /**
+     * Brings the next run of a job forward so it starts within delayMillis; a run that is
+     * already due sooner is left alone
+     * @return false if no job has that name
+     */
+    public synchronized boolean wake(String name, long delayMillis) {
+
+        Job job = jobs.get(name);
+        if (job == null)
+            return false;
+
+        job.wake(Math.max(0, delayMillis));
+        return true;
+    }
+
+    /**
+     * Runs a job now on the calling thread, unless a run of it is already in progress
+     * @return false if the job is unknown or was skipped because it was already running
+     */
+    public boolean runNow(String name) {
+
+        Job job;
+        synchronized (this) {
+            job = jobs.get(name);
+        }
+        return job != null && job.runOnce();
+    }
+
+    public synchronized boolean cancel(String name) {
+
+        Job job = jobs.remove(name);
+        if (job == null)
+            return false;
+        job.cancel();
+        return true;
+    }
+
+    public synchronized List<String> getJobNames() {
+        return new ArrayList<>(jobs.keySet());
+    }
+
+    public synchronized JobStats getStats(String name) {
+
+        Job job = jobs.get(name);
+        return job == null ? null : job.snapshot();
+    }
+
+    public synchronized Map<String, JobStats> getStats() {
+
+        Map<String, JobStats> stats = new LinkedHashMap<>();
+        for (Job job : jobs.values())
+            stats.put(job.name, job.snapshot());
+        return Collections.unmodifiableMap(stats);
+    }
+
+    /**
+     * Cancels every job and stops the worker threads
+     */
+    public synchronized void shutdown() {
+
+        for (Job job : jobs.values())
+            job.cancel();
+        jobs.clear();
+        executor.shutdownNow();
+    }
+
+    public boolean isShutdown() {
+        return executor.isShutdown();
+    }
+
+    /**
+     * Point-in-time run metrics for one job
+     */
+    public static class JobStats {
+
+        private final long runs;
+        private final long failures;
+        private final long skipped;
+        private final long lastDurationNanos;
+        private final long maxDurationNanos;
+        private final long totalDurationNanos;
+
+        JobStats(long runs, long failures, long skipped, long lastDurationNanos, long maxDurationNanos, long totalDurationNanos) {
+            this.runs = runs;
+            this.failures = failures;
+            this.skipped = skipped;
+            this.lastDurationNanos = lastDurationNanos;
+            this.maxDurationNanos = maxDurationNanos;
+            this.totalDurationNanos = totalDurationNanos;
+        }
+
+        public long getRuns() { return runs; }
+        public long getFailures() { return failures; }
+        public long getSkipped() { return skipped; }
+        public long getLastDurationNanos() { return lastDurationNanos; }
+        public long getMaxDurationNanos() { return maxDurationNanos; }
+
+        public long getAverageDurationNanos() {
+            return runs == 0 ? 0 : totalDurationNanos / runs;
+        }
+
+        @Override
+        public String toString() {
+            return "JobStats{runs=" + runs + ", failures=" + failures + ", skipped=" + skipped
+                    + ", lastMillis=" + TimeUnit.NANOSECONDS.toMillis(lastDurationNanos)
+                    + ", maxMillis=" + TimeUnit.NANOSECONDS.toMillis(maxDurationNanos) + "}";
+        }
+    }
+
+    private class Job {
+
+        private final String name;
+        private final Runnable task;
+        private final AtomicBoolean running = new AtomicBoolean();
+        private volatile long periodMillis;
+        private volatile long jitterMillis;
+        private volatile boolean cancelled;
+        private ScheduledFuture<?> next;
+        private long nextRunAt; // System.nanoTime() of the next scheduled run
+        private Long wakeAt;    // wake-up requested while a run was in progress
+
+        private long runs;
+        private long failures;
+        private long skipped;
+        private long lastDurationNanos;
+        private long maxDurationNanos;
+        private long totalDurationNanos;
+
+        Job(String name, Runnable task, long periodMillis, long jitterMillis) {
+            this.name = name;
+            this.task = task;
+            this.periodMillis = periodMillis;
+            this.jitterMillis = jitterMillis;
+        }
+
+        long nextDelay() {
+            return periodMillis + (jitterMillis == 0 ? 0 : ThreadLocalRandom.current().nextLong(jitterMillis + 1));
+        }
+
+        // One-shot scheduling chained from the end of each run, so runs can never pile up
+        synchronized void scheduleNext(long delayMillis) {
+
+            if (cancelled || executor.isShutdown())
+                return;
+            if (next != null)
+                next.cancel(false);
+
+            ScheduledFuture<?>[] self = new ScheduledFuture<?>[1];
+            nextRunAt = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(delayMillis);
+            next = self[0] = executor.schedule(() -> {
+                runOnce();
+                continueAfter(self);
+            }, delayMillis, TimeUnit.MILLISECONDS);
+        }
+
+        // Chain the next run unless the job was rescheduled while this one ran
+        private synchronized void continueAfter(ScheduledFuture<?>[] self) {
+
+            if (next != self[0])
+                return;
+
+            long delay = nextDelay();
+            if (wakeAt != null)
+                delay = Math.min(delay, Math.max(0, TimeUnit.NANOSECONDS.toMillis(wakeAt - System.nanoTime())));
+            wakeAt = null;
+            scheduleNext(delay);
+        }
+
+        synchronized void wake(long delayMillis) {
+
+            long target = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(delayMillis);
+
+            // The chained run after the current one picks the wake-up up
+            if (running.get()) {
+                if (wakeAt == null || target - wakeAt < 0)
+                    wakeAt = target;
+                return;
+            }
+
+            if (next == null || next.isDone() || target - nextRunAt < 0)
+                scheduleNext(delayMillis);
+        }
+
+        boolean runOnce() {
+
+            if (!running.compareAndSet(false, true)) {
+                synchronized (this) {
+                    skipped++;
+                }
+                return false;
+            }
+
+            long start = System.nanoTime();
+            boolean failed = false;
+            try {
+                task.run();
+            }
+            catch (RuntimeException e) {
+                failed = true;
+                System.err.println("Scheduled job " + name + " failed: " + e.getMessage());
+            }
+            finally {
+                long duration = System.nanoTime() - start;
+                synchronized (this) {
+                    runs++;
+                    if (failed)
+                        failures++;
+                    lastDurationNanos = duration;
+                    maxDurationNanos = Math.max(maxDurationNanos, duration);
+                    totalDurationNanos += duration;
+                }
+                running.set(false);
+            }
+            return true;
+        }
+
+        synchronized void cancel() {
+
+            cancelled = true;
+            if (next != null)
+                next.cancel(false);
+        }
+
+        synchronized JobStats snapshot() {
+            return new JobStats(runs, failures, skipped, lastDurationNanos, maxDurationNanos, totalDurationNanos);
+        }
+    }
+}
@@ -2,18 +2,24 @@ package com.company;
 
 public class User {
 
+    // What getUserID returns until the user is saved and given an ID
+    public static final int UNASSIGNED_ID = 0;
+
     private String name;
     private String email;
     private String type;
     private int userID;
+    private boolean hasUserID = true;
     private String password;
 
 
+    /**
+     * Creates a user without an ID; one is taken from the user ID sequence when the user is
+     * first saved, so users built only to hold a loaded row never touch it
+     */
     public User(){
 
-        synchronized(User.class) {
-            this.userID = UserDatabaseHelper.getLastUserID() + 1;
-        }
+        this.hasUserID = false;
     }
 
     /**
@@ -65,13 +71,26 @@ public class User {
         this.type = type;
     }
 
+    /**
+     * @return the user's ID, or UNASSIGNED_ID for a user that has not been saved yet; the
+     * ID is taken from the user ID sequence only when the user is saved
+     */
     public int getUserID() {
 
+        if (!hasUserID)
+            return UNASSIGNED_ID;
+
         return userID;
     }
 
+    public boolean hasUserID() {
+
+        return hasUserID;
+    }
+
     public void setUserID(int userID) {
         this.userID = userID;
+        this.hasUserID = true;
     }
 
     public String getPassword() {
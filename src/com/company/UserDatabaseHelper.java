@@ -2,17 +2,33 @@ package com.company;
 
 import java.io.*;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 import java.nio.file.Paths;
 
 public class UserDatabaseHelper {
     private static final String USER_CSV = "data/User_Database.csv";
+    private static final String USER_SEQUENCE = "data/User_ID_Sequence.csv";
     private static final String DELIMITER = ",";
 
     private static String getAbsolutePath() {
         return Paths.get(System.getProperty("user.dir"), USER_CSV).toString();
     }
 
+    static IdSequence userIDs() {
+        String path = Paths.get(System.getProperty("user.dir"), USER_SEQUENCE).toString();
+        return IdSequence.forPath(path, IdSequence.DEFAULT_BLOCK_SIZE, UserDatabaseHelper::getLastUserID);
+    }
+
+    /**
+     * Takes the next user ID, unique across processes sharing the data directory
+     */
+    public static int nextUserID() {
+        return (int) userIDs().next();
+    }
+
     /**
      * Retrieves a user by email from the database.
      * @param email the email of the user to retrieve
@@ -21,93 +37,72 @@ public class UserDatabaseHelper {
      * this method is used for the registration process. It checks if the email is already registered.
      */
     public static User getUserByEmail(String email) {
-        try (BufferedReader reader = new BufferedReader(new FileReader(getAbsolutePath()))) {
-            String line;
-            boolean isFirstRow = true;
-
-            while ((line = reader.readLine()) != null) {
-                
-                // Skip header row
-                if (isFirstRow) {
-                    isFirstRow = false;
-                    continue;
-                }
 
-                String[] data = line.split(DELIMITER);
-                if (data.length >= 6 && data[1].equals(email)) {
-                    User user = UserFactory.createUser(data[5]); // Use UserFactory to create the appropriate user type
-                    user.setUserID(Integer.parseInt(data[0]));
-                    user.setEmail(data[1]);
-                    user.setPassword(data[2]);
-                    return user;
-                }
-            }
-        } catch (IOException e) {
-            System.err.println("Error reading " + getAbsolutePath() + ": " + e.getMessage());
-            e.printStackTrace();
-        }
-        return null; // User not found
+        // Served from the shared in-memory copy of the user file
+        String[] data = UserRepository.getInstance().findByEmail(email);
+
+        if (data == null)
+            return null; // User not found
+
+        User user = UserFactory.createUser(data[5]); // Use UserFactory to create the appropriate user type
+        user.setUserID(Integer.parseInt(data[0]));
+        user.setEmail(data[1]);
+        user.setPassword(data[2]);
+        return user;
     }
 
     /**
      * Reads all users from the database while preserving the header row
      */
     private static List<String> readAllLines() {
-        List<String> lines = new ArrayList<>();
-        try (BufferedReader reader = new BufferedReader(new FileReader(getAbsolutePath()))) {
-            String line;
-            while ((line = reader.readLine()) != null) {
-                lines.add(line);
-            }
+        try {
+            return Storage.getEngine().users().readAllLines();
         } catch (IOException e) {
             System.err.println("Error reading " + getAbsolutePath() + ": " + e.getMessage());
             e.printStackTrace();
+            return new ArrayList<>();
         }
-        return lines;
     }
 
     /**
      * Writes all lines back to the file
      */
     private static boolean writeAllLines(List<String> lines) {
-        try (BufferedWriter writer = new BufferedWriter(new FileWriter(getAbsolutePath()))) {
-            for (String line : lines) {
-                writer.write(line);
-                writer.newLine();
-            }
-            return true;
-        } catch (IOException e) {
-            System.err.println("Error writing to " + getAbsolutePath() + ": " + e.getMessage());
-            e.printStackTrace();
+        if (!Storage.getEngine().users().replaceAll(lines))
             return false;
-        }
+
+        UserRepository.getInstance().invalidate();
+        return true;
     }
 
     /**
      * Updates a user's password in the database while preserving all other data
      */
     public boolean updateUserPassword(String email, String newPassword) {
-        List<String> lines = readAllLines();
-        boolean updated = false;
+        // Held across the read and the rewrite, so no user added in between is lost
+        synchronized (Storage.getEngine().users()) {
+            List<String> lines = readAllLines();
+            boolean updated = false;
         
-        for (int i = 0; i < lines.size(); i++) {
-            String line = lines.get(i);
-            String[] data = line.split(DELIMITER);
+            for (int i = 0; i < lines.size(); i++) {
+                String line = lines.get(i);
+                String[] data = line.split(DELIMITER);
             
-            // Skip header row and check if this is the user we want to update
-            if (i > 0 && data.length >= 2 && data[1].equals(email)) {
-                // Preserve all existing data, only update the password
-                data[2] = newPassword;
-                lines.set(i, String.join(DELIMITER, data));
-                updated = true;
-                break;
+                // Skip header row and check if this is the user we want to update
+                if (i > 0 && data.length >= 2 && data[1].equals(email)) {
+                    // Preserve all existing data, only update the password
+                    data[2] = newPassword;
+                    lines.set(i, String.join(DELIMITER, data));
+                    updated = true;
+                    break;
+                }
             }
-        }
         
-        if (updated) {
-            return writeAllLines(lines);
+            if (updated) {
+                return writeAllLines(lines);
+            }
+            return false;
         }
-        return false;
     }
 
     /**
@@ -119,8 +114,100 @@ public class UserDatabaseHelper {
             return false;
         }
 
+        return insertUsers(Collections.singletonList(user));
+    }
+
+    /**
+     * Adds many new users with a single append to the users table, for bulk imports.
+     * @return false if any email or chosen ID is already taken, or the table could not be written,
+     * in which case none of them were added
+     */
+    public static boolean addUsers(List<User> users) {
+
+        if (users.isEmpty())
+            return true;
+
+        return insertUsers(users);
+    }
+
+    // Checks and appends under the table's lock, so users registering at the same time cannot
+    // both pass the check with the same email or ID
+    private static boolean insertUsers(List<User> users) {
+
+        RecordTable table = Storage.getEngine().users();
+        List<String> emails = new ArrayList<>(users.size());
+
+        synchronized (table) {
+
+            if (!areNew(table, users))
+                return false;
+
+            List<String> records = new ArrayList<>(users.size());
+            for (User user : users) {
+                assignUserID(user);
+                records.add(toRecord(user));
+                emails.add(user.getEmail());
+            }
+
+            try {
+                table.appendInserts(records);
+            }
+            catch (IOException e) {
+                System.err.println("Error writing " + getAbsolutePath() + ": " + e.getMessage());
+                return false;
+            }
+        }
+
+        UserRepository.getInstance().usersAdded(emails);
+        return true;
+    }
+
+    // None of the emails, and none of the IDs the caller chose, may be in the table or repeated in the batch
+    private static boolean areNew(RecordTable table, List<User> users) {
+
+        Set<String> emails = new HashSet<>();
+        Set<Integer> userIDs = new HashSet<>();
+
+        for (User user : users) {
+            if (table.contains(user.getEmail()) || !emails.add(user.getEmail()))
+                return false;
+            if (user.hasUserID() && !userIDs.add(user.getUserID()))
+                return false;
+        }
+
+        // The table is keyed by email, so chosen IDs need a pass over the rows
+        if (userIDs.isEmpty())
+            return true;
+
         List<String> lines = readAllLines();
-        String record = String.join(DELIMITER,
+        for (int i = 1; i < lines.size(); i++) {
+            String[] data = lines.get(i).split(DELIMITER);
+            if (data.length > 0 && userIDs.contains(parseUserID(data[0])))
+                return false;
+        }
+        return true;
+    }
+
+    private static Integer parseUserID(String field) {
+        try {
+            return Integer.parseInt(field.trim());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    // New users get their ID only now; IDs chosen by the caller are kept out of the sequence
+    private static void assignUserID(User user) {
+
+        if (!user.hasUserID())
+            user.setUserID(nextUserID());
+        else
+            userIDs().advancePast(user.getUserID());
+    }
+
+    private static String toRecord(User user) {
+
+        return String.join(DELIMITER,
                 Integer.toString(user.getUserID()),
                 user.getEmail(),
                 user.getPassword(),
@@ -129,16 +216,14 @@ public class UserDatabaseHelper {
                 user.getType(),
                 "TBD"
         );
-        
-        lines.add(record);
-        return writeAllLines(lines);
     }
 
     /**
      * Checks if an email is already registered.
+     * Most unregistered emails are ruled out by the repository's email filter alone.
      */
     public static boolean isEmailRegistered(String email) {
-        return getUserByEmail(email) != null;
+        return UserRepository.getInstance().isRegistered(email);
     }
 
 
@@ -147,27 +232,7 @@ public class UserDatabaseHelper {
      * @return the highest user ID currently in use, or 1000 if no users exist
      */
     public static int getLastUserID() {
-        List<String> lines = readAllLines();
-        int maxID = 1000; // Default starting point
-        boolean isFirstRow = true; // Skip header row
-
-        for (String line : lines) {
-            if (isFirstRow) {
-                isFirstRow = false;
-                continue;
-            }
 
-            String[] data = line.split(DELIMITER);
-            if (data.length > 0) {
-                try {
-                    int id = Integer.parseInt(data[0]);
-                    maxID = Math.max(maxID, id);
-                }
-                catch (NumberFormatException e) {
-                    System.err.println("Warning: Invalid user ID format: " + data[0]);
-                }
-            }
-        }
-        return maxID;
+        return UserRepository.getInstance().getLastUserID();
     }
 }
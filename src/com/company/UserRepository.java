@@ -0,0 +1,250 @@
+package com.company;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Shared in-memory copy of the users table with lookups by email and by user ID.
+ * The table is parsed once and reused until its generation moves on (for the CSV engine, the
+ * file's length or modification time changed) or a write through UserDatabaseHelper
+ * invalidates it.
+ * A Bloom filter over the registered emails answers most "not registered" checks without
+ * reloading the rows; it is rebuilt with every load and kept current across our own sign-ups.
+ */
+public class UserRepository {
+
+    private static final String DELIMITER = ",";
+    private static final int DEFAULT_LAST_USER_ID = 1000;
+    private static final double EMAIL_FILTER_RATE = 0.01;
+    private static final int MIN_EMAIL_FILTER_SIZE = 1024;
+
+    private static UserRepository instance;
+
+    private final RecordTable table;
+    private final Map<String, String[]> byEmail = new HashMap<>();
+    private final Map<Integer, String[]> byID = new HashMap<>();
+    private int lastUserID = DEFAULT_LAST_USER_ID;
+
+    private long tableGeneration = -1;
+    private boolean loaded;
+    private int loads;
+    private long version; // bumped whenever the cached copy is dropped or rebuilt
+
+    private BloomFilter emails;
+    private long emailsGeneration = -1; // table generation the filter describes
+    private long filterRejections;
+    private long falsePositives;
+
+    UserRepository(String path) {
+        this(new CsvRecordTable(path, StorageTable.USERS.getKeyColumn(), null));
+    }
+
+    UserRepository(RecordTable table) {
+        this.table = table;
+    }
+
+    /**
+     * Returns the shared repository for the current storage engine and data directory
+     */
+    public static synchronized UserRepository getInstance() {
+
+        RecordTable current = Storage.getEngine().users();
+
+        if (instance == null || instance.table != current)
+            instance = new UserRepository(current);
+
+        return instance;
+    }
+
+    /**
+     * @return the user's row split into fields, or null if the email is not registered
+     */
+    public synchronized String[] findByEmail(String email) {
+
+        ensureLoaded();
+        String[] row = byEmail.get(email);
+        return row == null ? null : row.clone();
+    }
+
+    /**
+     * Checks whether the email is registered, asking the email filter first. Only emails the
+     * filter cannot rule out are looked up in the rows, which are reloaded if a sign-up
+     * dropped them.
+     */
+    public synchronized boolean isRegistered(String email) {
+
+        if (email == null)
+            return false;
+
+        long generation = table.getGeneration();
+        if (emails == null || generation != emailsGeneration)
+            load(generation);
+
+        if (!emails.mightContain(email)) {
+            filterRejections++;
+            return false;
+        }
+
+        ensureLoaded();
+        if (byEmail.containsKey(email))
+            return true;
+
+        falsePositives++;
+        return false;
+    }
+
+    /**
+     * Drops the cached rows after a new user was written, but keeps the email filter by adding
+     * the new email to it, so the registration checks that follow need no reload.
+     * Must be called right after the write, before anything else can change the table.
+     */
+    public void userAdded(String email) {
+        usersAdded(Collections.singletonList(email));
+    }
+
+    /**
+     * The same as userAdded for all the users of one write
+     */
+    public synchronized void usersAdded(Collection<String> added) {
+
+        invalidate();
+        if (emails == null || emailsGeneration != tableGeneration)
+            return;
+
+        for (String email : added)
+            emails.add(email);
+        emailsGeneration = table.getGeneration();
+        tableGeneration = emailsGeneration;
+
+        // Filled well past its size, the filter is rebuilt by the next check
+        if (emails.getExpectedFalsePositiveRate() > 2 * EMAIL_FILTER_RATE)
+            emails = null;
+    }
+
+    /**
+     * @return the user's row split into fields, or null if there is no such user
+     */
+    public synchronized String[] findByID(int userID) {
+
+        ensureLoaded();
+        String[] row = byID.get(userID);
+        return row == null ? null : row.clone();
+    }
+
+    /**
+     * @return the highest user ID in the file, or 1000 if there are no users
+     */
+    public synchronized int getLastUserID() {
+
+        ensureLoaded();
+        return lastUserID;
+    }
+
+    /**
+     * Drops the cached copy so the next lookup reads the file again
+     */
+    public synchronized void invalidate() {
+        loaded = false;
+        version++;
+    }
+
+    /**
+     * Changes whenever the cached rows are dropped or reloaded, so derived caches can tell
+     * they are out of date without touching the file themselves
+     */
+    public synchronized long getVersion() {
+        return version;
+    }
+
+    synchronized int getLoadCount() {
+        return loads;
+    }
+
+    /**
+     * @return the share of unregistered emails the filter let through to a row lookup
+     */
+    public synchronized double getFalsePositiveRate() {
+
+        long negatives = filterRejections + falsePositives;
+        return negatives == 0 ? 0 : (double) falsePositives / negatives;
+    }
+
+    /**
+     * @return the false-positive rate the filter's fill suggests, or 0 before it is built
+     */
+    public synchronized double getExpectedFalsePositiveRate() {
+        return emails == null ? 0 : emails.getExpectedFalsePositiveRate();
+    }
+
+    synchronized long getFilterRejections() {
+        return filterRejections;
+    }
+
+    synchronized long getFalsePositives() {
+        return falsePositives;
+    }
+
+    private void ensureLoaded() {
+
+        long generation = table.getGeneration();
+        if (!loaded || generation != tableGeneration)
+            load(generation);
+    }
+
+    private void load(long generation) {
+
+        byEmail.clear();
+        byID.clear();
+        lastUserID = DEFAULT_LAST_USER_ID;
+        tableGeneration = generation;
+        loads++;
+        version++;
+
+        try {
+
+            List<String> lines = table.readAllLines();
+            emails = new BloomFilter(Math.max(MIN_EMAIL_FILTER_SIZE, 2 * lines.size()), EMAIL_FILTER_RATE);
+            emailsGeneration = generation;
+
+            for (int i = 1; i < lines.size(); i++) { // skip header row
+
+                String line = lines.get(i);
+                String[] data = line.split(DELIMITER);
+                Integer id = parseID(data[0]);
+
+                if (id != null)
+                    lastUserID = Math.max(lastUserID, id);
+
+                if (data.length >= 6) {
+                    // The first row wins, as it would for a top-down scan
+                    byEmail.putIfAbsent(data[1], data);
+                    emails.add(data[1]);
+                    if (id != null)
+                        byID.putIfAbsent(id, data);
+                }
+            }
+        }
+        catch (IOException e) {
+            System.err.println("Error reading users: " + e.getMessage());
+            emails = new BloomFilter(MIN_EMAIL_FILTER_SIZE, EMAIL_FILTER_RATE);
+            emailsGeneration = generation;
+        }
+
+        loaded = true;
+    }
+
+    private static Integer parseID(String value) {
+
+        try {
+            return Integer.parseInt(value.trim());
+        }
+        catch (NumberFormatException e) {
+            System.err.println("Warning: Invalid user ID format: " + value);
+            return null;
+        }
+    }
+}
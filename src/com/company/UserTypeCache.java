@@ -0,0 +1,114 @@
+package com.company;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Bounded least-recently-used cache of user ID to user type, shared by every PriceCalculator.
+ * Entries are dropped as a whole whenever the UserRepository version moves on, which happens
+ * on every write through UserDatabaseHelper and whenever the repository reloads the file.
+ */
+class UserTypeCache {
+
+    static final int DEFAULT_CAPACITY = 1024;
+
+    private final int capacity;
+    private final Supplier<UserRepository> repositories;
+    private final Map<Integer, String> types;
+    private long version = -1;
+
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    UserTypeCache(int capacity) {
+        this(capacity, UserRepository::getInstance);
+    }
+
+    UserTypeCache(int capacity, Supplier<UserRepository> repositories) {
+
+        if (capacity <= 0)
+            throw new IllegalArgumentException("Capacity must be positive");
+
+        this.capacity = capacity;
+        this.repositories = repositories;
+        this.types = new LinkedHashMap<Integer, String>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, String> eldest) {
+                if (size() <= UserTypeCache.this.capacity)
+                    return false;
+                evictions++;
+                return true;
+            }
+        };
+    }
+
+    /**
+     * @return the user's type, or null if there is no such user
+     */
+    String get(int userID) {
+
+        UserRepository repository = repositories.get();
+
+        synchronized (this) {
+
+            long current = repository.getVersion();
+            if (current != version) {
+                types.clear();
+                version = current;
+            }
+
+            // Unknown users are cached as null so repeated lookups stay in memory too
+            if (types.containsKey(userID)) {
+                hits++;
+                return types.get(userID);
+            }
+            misses++;
+        }
+
+        // Read outside our lock, taking the version the row was read under
+        String[] data;
+        long readVersion;
+        synchronized (repository) {
+            data = repository.findByID(userID);
+            readVersion = repository.getVersion();
+        }
+        String type = data == null ? null : data[5].trim();
+
+        synchronized (this) {
+            if (readVersion > version) {
+                types.clear();
+                version = readVersion;
+            }
+            // A row read before a newer reload is not worth keeping
+            if (readVersion == version)
+                types.put(userID, type);
+        }
+        return type;
+    }
+
+    synchronized void clear() {
+        types.clear();
+    }
+
+    synchronized int size() {
+        return types.size();
+    }
+
+    int getCapacity() {
+        return capacity;
+    }
+
+    synchronized long getHits() {
+        return hits;
+    }
+
+    synchronized long getMisses() {
+        return misses;
+    }
+
+    synchronized long getEvictions() {
+        return evictions;
+    }
+}
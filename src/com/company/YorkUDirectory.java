@@ -0,0 +1,118 @@
+package com.company;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Shared in-memory index of the university directory, from email (ignoring case) to user type.
+ * The directory file is parsed once and reused until its length or modification time changes.
+ */
+public class YorkUDirectory {
+
+    static final String YORKU_CSV = "data/YU_Database.csv";
+
+    private static final String DELIMITER = ",";
+
+    private static YorkUDirectory instance;
+
+    private final CsvRecordTable file;
+    private final Map<String, String> typeByEmail = new HashMap<>();
+
+    private long fileGeneration = -1;
+    private int loads;
+
+    YorkUDirectory(String path) {
+        this.file = new CsvRecordTable(path, 3, null);
+    }
+
+    /**
+     * Returns the shared directory for the current data directory
+     */
+    public static synchronized YorkUDirectory getInstance() {
+
+        String path = Paths.get(System.getProperty("user.dir"), YORKU_CSV).toString();
+
+        if (instance == null || !instance.file.getPath().equals(path))
+            instance = new YorkUDirectory(path);
+
+        return instance;
+    }
+
+    /**
+     * @return the user type listed for the email, or null if the email is not in the directory
+     */
+    public synchronized String lookup(String email) {
+
+        if (email == null)
+            return null;
+
+        ensureLoaded();
+        return typeByEmail.get(key(email));
+    }
+
+    /**
+     * Looks up many emails against a single view of the directory
+     * @return each email mapped to its listed user type, or to null if it is not listed, in the
+     * order given
+     */
+    public synchronized Map<String, String> lookupAll(Collection<String> emails) {
+
+        ensureLoaded();
+
+        Map<String, String> types = new LinkedHashMap<>();
+        for (String email : emails)
+            types.put(email, email == null ? null : typeByEmail.get(key(email)));
+
+        return types;
+    }
+
+    synchronized int size() {
+
+        ensureLoaded();
+        return typeByEmail.size();
+    }
+
+    synchronized int getLoadCount() {
+        return loads;
+    }
+
+    private void ensureLoaded() {
+
+        long generation = file.getGeneration();
+        if (generation != fileGeneration)
+            load(generation);
+    }
+
+    private void load(long generation) {
+
+        typeByEmail.clear();
+        fileGeneration = generation;
+        loads++;
+
+        try {
+
+            List<String> lines = file.readAllLines();
+            for (int i = 1; i < lines.size(); i++) { // skip header row
+
+                String[] data = lines.get(i).split(DELIMITER);
+
+                // The first row wins, as it would for a top-down scan
+                if (data.length >= 4)
+                    typeByEmail.putIfAbsent(key(data[3]), data[0].trim());
+            }
+        }
+        catch (IOException e) {
+            System.err.println("Error reading " + file.getPath() + ": " + e.getMessage());
+        }
+    }
+
+    private static String key(String email) {
+        return email.trim().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,45 @@
+package com.company;
+
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+
+public class BloomFilterTest {
+
+    @Test
+    void testNoFalseNegatives() {
+        BloomFilter filter = new BloomFilter(5000, 0.01);
+        for (int i = 0; i < 5000; i++)
+            filter.add("user" + i + "@yorku.ca");
+
+        for (int i = 0; i < 5000; i++)
+            assertTrue(filter.mightContain("user" + i + "@yorku.ca"));
+        assertEquals(5000, filter.getAddedCount());
+    }
+
+    @Test
+    void testFalsePositiveRateNearTarget() {
+        BloomFilter filter = new BloomFilter(5000, 0.01);
+        for (int i = 0; i < 5000; i++)
+            filter.add("user" + i + "@yorku.ca");
+
+        int positives = 0;
+        for (int i = 0; i < 100000; i++) {
+            if (filter.mightContain("other" + i + "@my.yorku.ca"))
+                positives++;
+        }
+
+        assertTrue(positives / 100000.0 < 0.02, "measured " + positives / 100000.0);
+        assertEquals(0.01, filter.getExpectedFalsePositiveRate(), 0.005);
+    }
+
+    @Test
+    void testSizing() {
+        BloomFilter filter = new BloomFilter(1000, 0.01);
+
+        // about 9.6 bits and 7 hashes per expected string
+        assertEquals(9586, filter.getBitCount());
+        assertEquals(7, filter.getHashCount());
+        assertThrows(IllegalArgumentException.class, () -> new BloomFilter(0, 0.01));
+        assertThrows(IllegalArgumentException.class, () -> new BloomFilter(10, 1));
+    }
+}
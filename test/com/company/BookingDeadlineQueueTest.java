@@ -0,0 +1,105 @@
+package com.company;
+
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalTime;
+import java.util.Arrays;
+import java.util.Collections;
+
+public class BookingDeadlineQueueTest {
+
+    private static final String HEADER = "booking_id,user_id,spot_id,parking_id,plate,start,end,payment_status,amount,booking_status,total_amount";
+
+    private BookingDeadlineQueue queue;
+
+    @BeforeEach
+    void setUp() {
+        queue = new BookingDeadlineQueue();
+        queue.rebuild(Arrays.asList(
+                HEADER,
+                "N2S000001,1001,1,1,ABC123,09:00,11:00,Paid,10.00,Active,20.00",
+                "N2S000002,1002,2,1,XYZ789,10:00,10:30,Paid,15.00,Active,30.00",
+                "N2S000003,1003,3,1,LMN456,08:00,09:00,Pending,15.00,Active,15.00",
+                "N2S000004,1004,4,1,QRS111,08:00,09:30,Paid,15.00,Cancelled,15.00"), 1);
+    }
+
+    @Test
+    void testOnlyActivePaidBookingsAreQueued() {
+        assertEquals(2, queue.size());
+        assertEquals(LocalTime.of(10, 30), queue.nextDeadline());
+    }
+
+    @Test
+    void testPollDueReturnsPassedDeadlinesInOrder() {
+        assertTrue(queue.pollDue(LocalTime.of(10, 30)).isEmpty()); // not after the end time yet
+        assertEquals(Collections.singletonList("N2S000002"), queue.pollDue(LocalTime.of(10, 31)));
+        assertEquals(Collections.singletonList("N2S000001"), queue.pollDue(LocalTime.of(23, 0)));
+        assertNull(queue.nextDeadline());
+    }
+
+    @Test
+    void testExtendedEndTimeMovesDeadline() {
+        assertEquals(LocalTime.of(12, 0), queue.update("N2S000002", BookingIntervalTree.END, "12:00"));
+
+        assertEquals(Collections.singletonList("N2S000001"), queue.pollDue(LocalTime.of(11, 30)));
+        assertEquals(LocalTime.of(12, 0), queue.nextDeadline());
+    }
+
+    @Test
+    void testStatusChangesQueueAndDrop() {
+        queue.update("N2S000001", BookingIntervalTree.PAYMENT_STATUS, "Completed");
+        assertEquals(LocalTime.of(9, 0), queue.update("N2S000003", BookingIntervalTree.PAYMENT_STATUS, "Paid"));
+
+        assertEquals(Arrays.asList("N2S000003", "N2S000002"), queue.pollDue(LocalTime.of(23, 0)));
+    }
+
+    @Test
+    void testInsertAnnouncesDeadline() {
+        LocalTime deadline = queue.insert("N2S000005,1005,5,1,DEF222,07:00,08:15,Paid,5.00,Active,5.00".split(","));
+
+        assertEquals(LocalTime.of(8, 15), deadline);
+        assertEquals(LocalTime.of(8, 15), queue.nextDeadline());
+        assertNull(queue.insert("N2S000006,1006,6,1,DEF333,07:00,08:15,Pending,5.00,Active,5.00".split(",")));
+    }
+
+    @Test
+    void testRetryQueuesPolledBookingAgain() {
+        assertEquals(Collections.singletonList("N2S000002"), queue.pollDue(LocalTime.of(10, 31)));
+
+        assertEquals(LocalTime.of(10, 32), queue.retry("N2S000002", LocalTime.of(10, 31)));
+        assertTrue(queue.pollDue(LocalTime.of(10, 32)).isEmpty());
+        assertEquals(Collections.singletonList("N2S000002"), queue.pollDue(LocalTime.of(10, 33)));
+
+        // A booking that no longer awaits checkout is not retried
+        queue.update("N2S000002", BookingIntervalTree.PAYMENT_STATUS, "Completed");
+        assertNull(queue.retry("N2S000002", LocalTime.of(10, 34)));
+        assertNull(queue.retry("N2S000099", LocalTime.of(10, 34)));
+    }
+
+    @Test
+    void testRetriesBackOffAndRunOut() {
+        LocalTime now = LocalTime.of(12, 0);
+        queue.pollDue(now);
+
+        for (int i = 0; i < BookingDeadlineQueue.MAX_CHECKOUT_RETRIES; i++) {
+            LocalTime at = queue.retry("N2S000001", now);
+            assertEquals(now.plusMinutes(1L << i), at);
+            assertEquals(Collections.singletonList("N2S000001"), queue.pollDue(at.plusSeconds(1)));
+        }
+        assertNull(queue.retry("N2S000001", now));
+        assertNull(queue.nextDeadline());
+
+        // A new end time starts the retries over
+        assertEquals(LocalTime.of(13, 0), queue.update("N2S000001", BookingIntervalTree.END, "13:00"));
+        queue.pollDue(LocalTime.of(13, 1));
+        assertEquals(LocalTime.of(23, 59, 59), queue.retry("N2S000001", LocalTime.of(23, 59, 30)));
+    }
+
+    @Test
+    void testUnparseableEndIsIgnored() {
+        assertNull(queue.insert("N2S000007,1007,7,1,BAD,07:00,later,Paid,5.00,Active,5.00".split(",")));
+        assertEquals(2, queue.size());
+    }
+}
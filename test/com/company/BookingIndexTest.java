@@ -0,0 +1,84 @@
+package com.company;
+
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+
+public class BookingIndexTest {
+
+    @TempDir
+    Path tempDir;
+
+    private Path snapshot;
+    private Path indexFile;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        snapshot = tempDir.resolve("Booking_Database.csv");
+        indexFile = tempDir.resolve("Booking_Database_Index.csv");
+
+        Files.write(snapshot, Arrays.asList(
+                "booking_id,user_id,spot_id,parking_id,plate,start,end,payment_status,amount,booking_status,total_amount",
+                "N2S000001,1001,1,1,ABC123,09:00,11:00,Paid,10.00,Active,20.00",
+                "N2S000002,1002,2,1,XYZ789,10:00,12:00,Pending,15.00,Active,30.00"));
+    }
+
+    @Test
+    void testReadLineByOffset() throws IOException {
+        BookingIndex index = new BookingIndex(snapshot.toString(), indexFile.toString());
+        index.load("#base,1,1");
+
+        assertEquals(2, index.size());
+        assertFalse(index.contains("booking_id"));
+        assertEquals("N2S000002,1002,2,1,XYZ789,10:00,12:00,Pending,15.00,Active,30.00", index.readLine("N2S000002"));
+        assertNull(index.readLine("N2S999999"));
+    }
+
+    @Test
+    void testSavedIndexIsReusedForSameSnapshot() throws IOException {
+        new BookingIndex(snapshot.toString(), indexFile.toString()).load("#base,1,1");
+        List<String> saved = Files.readAllLines(indexFile);
+        assertEquals("#base,1,1", saved.get(0));
+        assertEquals(3, saved.size());
+
+        // Remove a row from the saved index; a matching stamp means it is loaded as-is
+        Files.write(indexFile, saved.subList(0, 2));
+        BookingIndex reloaded = new BookingIndex(snapshot.toString(), indexFile.toString());
+        reloaded.load("#base,1,1");
+        assertEquals(1, reloaded.size());
+
+        // A different stamp forces a rebuild from the snapshot
+        reloaded.load("#base,2,2");
+        assertEquals(2, reloaded.size());
+    }
+
+    @Test
+    void testHandlesCarriageReturns() throws IOException {
+        Files.write(snapshot, "booking_id,user_id\r\nN2S000005,1001,1\r\n".getBytes());
+
+        BookingIndex index = new BookingIndex(snapshot.toString(), indexFile.toString());
+        index.load("#base,3,3");
+
+        assertTrue(index.contains("N2S000005"));
+        assertEquals("N2S000005,1001,1", index.readLine("N2S000005"));
+    }
+
+    @Test
+    void testWriteAheadLogLookupAppliesPendingUpdates() throws IOException {
+        BookingWriteAheadLog log = new BookingWriteAheadLog(snapshot.toString(), tempDir.resolve("wal.csv").toString());
+        log.appendUpdate("N2S000001", 9, "Cancelled");
+        log.appendInsert("N2S000003,1003,3,2,LMN456,13:00,14:00,Pending,5.00,Active,5.00");
+
+        assertEquals("Cancelled", log.findRecord("N2S000001")[9]);
+        assertEquals("LMN456", log.findRecord("N2S000003")[4]);
+        assertTrue(log.contains("N2S000002"));
+        assertFalse(log.contains("N2S000004"));
+    }
+}
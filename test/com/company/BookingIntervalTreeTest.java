@@ -0,0 +1,99 @@
+package com.company;
+
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+public class BookingIntervalTreeTest {
+
+    private static final String HEADER = "booking_id,user_id,spot_id,parking_id,plate,start,end,payment_status,amount,booking_status,total_amount";
+
+    private BookingIntervalTree tree;
+
+    @BeforeEach
+    void setUp() {
+        tree = new BookingIntervalTree();
+        tree.rebuild(Arrays.asList(
+                HEADER,
+                "N2S000001,1001,1,1,ABC123,09:00,11:00,Paid,10.00,Active,20.00",
+                "N2S000002,1002,2,1,XYZ789,10:00,12:00,Pending,15.00,Active,30.00",
+                "N2S000003,1003,3,1,LMN456,13:00,14:00,Pending,15.00,Cancelled,15.00",
+                "N2S000004,1004,4,1,QRS111,08:00,09:30,Completed,15.00,Active,15.00"), 1);
+    }
+
+    private List<String> ids(LocalTime start, LocalTime end) {
+        return tree.overlapping(start, end).stream().map(e -> e.bookingID).collect(Collectors.toList());
+    }
+
+    @Test
+    void testCancelledAndCompletedAreExcluded() {
+        assertEquals(2, tree.size());
+        assertEquals(Arrays.asList("N2S000001", "N2S000002"), ids(LocalTime.of(8, 0), LocalTime.of(14, 0)));
+        assertTrue(ids(LocalTime.of(13, 0), LocalTime.of(14, 0)).isEmpty());
+    }
+
+    @Test
+    void testBoundariesAreInclusive() {
+        assertEquals(Arrays.asList("N2S000001", "N2S000002"), ids(LocalTime.of(10, 0), LocalTime.of(10, 0)));
+        assertEquals(Arrays.asList("N2S000002"), ids(LocalTime.of(12, 0), LocalTime.of(12, 30)));
+    }
+
+    @Test
+    void testUpdatesMoveEntries() {
+        tree.update("N2S000001", BookingIntervalTree.BOOKING_STATUS, "Cancelled");
+        assertEquals(Arrays.asList("N2S000002"), ids(LocalTime.of(9, 0), LocalTime.of(11, 0)));
+
+        tree.update("N2S000003", BookingIntervalTree.BOOKING_STATUS, "Active");
+        tree.update("N2S000002", BookingIntervalTree.END, "13:30");
+        assertEquals(Arrays.asList("N2S000002", "N2S000003"), ids(LocalTime.of(13, 15), LocalTime.of(13, 20)));
+    }
+
+    @Test
+    void testInsertAndSpotID() {
+        tree.insert("N2S000005,1005,7,2,DEF222,15:00,16:00,Pending,5.00,Active,5.00".split(","));
+
+        List<BookingIntervalTree.Entry> hits = tree.overlapping(LocalTime.of(15, 30), LocalTime.of(15, 45));
+        assertEquals(1, hits.size());
+        assertEquals(7, hits.get(0).spotID);
+    }
+
+    @Test
+    void testMatchesLinearScan() {
+        Random random = new Random(42);
+        List<String> lines = new ArrayList<>();
+        lines.add(HEADER);
+        List<int[]> slots = new ArrayList<>();
+
+        for (int i = 0; i < 2000; i++) {
+            int start = random.nextInt(23 * 60);
+            int end = start + 1 + random.nextInt(24 * 60 - start - 1);
+            slots.add(new int[] {start, end});
+            lines.add(String.format("B%d,1,%d,1,P,%02d:%02d,%02d:%02d,Pending,5.00,Active,5.00",
+                    i, i, start / 60, start % 60, end / 60, end % 60));
+        }
+        tree.rebuild(lines, 2);
+
+        // Remove some entries so deletes are exercised too
+        for (int i = 0; i < 2000; i += 3)
+            tree.update("B" + i, BookingIntervalTree.BOOKING_STATUS, "Cancelled");
+
+        for (int q = 0; q < 200; q++) {
+            int start = random.nextInt(24 * 60);
+            int end = Math.min(24 * 60 - 1, start + random.nextInt(180));
+
+            List<String> expected = new ArrayList<>();
+            for (int i = 0; i < slots.size(); i++) {
+                if (i % 3 != 0 && slots.get(i)[1] >= start && slots.get(i)[0] <= end)
+                    expected.add("B" + i);
+            }
+            assertEquals(expected, ids(LocalTime.of(start / 60, start % 60), LocalTime.of(end / 60, end % 60)));
+        }
+    }
+}
@@ -0,0 +1,179 @@
+package com.company;
+
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+public class BookingWriteAheadLogTest {
+
+    private static final String HEADER = "booking_id,user_id,spot_id,parking_id,plate,start,end,payment_status,amount,booking_status,total_amount";
+
+    @TempDir
+    Path tempDir;
+
+    private Path snapshot;
+    private Path wal;
+    private BookingWriteAheadLog log;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        snapshot = tempDir.resolve("Booking_Database.csv");
+        wal = tempDir.resolve("Booking_Database_WAL.csv");
+
+        Files.write(snapshot, Arrays.asList(
+                HEADER,
+                "N2S000001,1001,1,1,ABC123,09:00,11:00,Paid,10.00,Active,20.00"));
+
+        log = new BookingWriteAheadLog(snapshot.toString(), wal.toString());
+    }
+
+    @Test
+    void testUpdateIsAppendedNotRewritten() throws IOException {
+        List<String> before = Files.readAllLines(snapshot);
+
+        log.appendUpdate("N2S000001", 9, "Cancelled");
+
+        assertEquals(before, Files.readAllLines(snapshot));
+        assertEquals("U,N2S000001,9,Cancelled", Files.readAllLines(wal).get(1));
+        assertTrue(log.readAllLines().get(1).endsWith(",Cancelled,20.00"));
+    }
+
+    @Test
+    void testInsertThenUpdate() throws IOException {
+        log.appendInsert("N2S000002,1002,2,1,XYZ789,10:00,12:00,Pending,15.00,Active,30.00");
+        log.appendUpdate("N2S000002", 7, "Paid");
+
+        List<String> lines = log.readAllLines();
+        assertEquals(3, lines.size());
+        assertEquals("N2S000002,1002,2,1,XYZ789,10:00,12:00,Paid,15.00,Active,30.00", lines.get(2));
+    }
+
+    @Test
+    void testReplayRebuildsState() throws IOException {
+        log.appendInsert("N2S000002,1002,2,1,XYZ789,10:00,12:00,Pending,15.00,Active,30.00");
+        log.appendUpdate("N2S000001", 6, "13:00");
+
+        BookingWriteAheadLog replayed = new BookingWriteAheadLog(snapshot.toString(), wal.toString());
+
+        assertEquals(log.readAllLines(), replayed.readAllLines());
+        assertEquals(2, replayed.getPendingRecords());
+    }
+
+    @Test
+    void testRecordsAppendedByAnotherWriterAreReplayed() throws IOException {
+        log.appendUpdate("N2S000001", 7, "Completed");
+        assertEquals(1, log.getPendingRecords());
+
+        // Another process appends, the second record still mid-write
+        Files.write(wal, ("I,N2S000002,1002,2,1,XYZ789,10:00,12:00,Pending,15.00,Active,30.00\n"
+                + "U,N2S000002,7,Pa").getBytes(), StandardOpenOption.APPEND);
+
+        List<String> lines = log.readAllLines();
+        assertEquals(3, lines.size());
+        assertEquals("N2S000002,1002,2,1,XYZ789,10:00,12:00,Pending,15.00,Active,30.00", lines.get(2));
+        assertEquals(2, log.getPendingRecords());
+
+        Files.write(wal, "id\n".getBytes(), StandardOpenOption.APPEND);
+        log.compact();
+
+        List<String> compacted = Files.readAllLines(snapshot);
+        assertEquals(3, compacted.size());
+        assertTrue(compacted.get(1).contains(",Completed,"));
+        assertEquals("N2S000002,1002,2,1,XYZ789,10:00,12:00,Paid,15.00,Active,30.00", compacted.get(2));
+    }
+
+    @Test
+    void testCompactFoldsLogIntoSnapshot() throws IOException {
+        log.appendUpdate("N2S000001", 7, "Completed");
+        List<String> expected = log.readAllLines();
+
+        log.compact();
+
+        assertEquals(expected, Files.readAllLines(snapshot));
+        assertEquals(1, Files.readAllLines(wal).size());
+        assertEquals(0, log.getPendingRecords());
+    }
+
+    @Test
+    void testReplaceAllDropsPendingRecords() throws IOException {
+        log.appendUpdate("N2S000001", 9, "Cancelled");
+
+        assertTrue(log.replaceAll(Arrays.asList(HEADER)));
+
+        assertEquals(1, log.readAllLines().size());
+        assertEquals(0, log.getPendingRecords());
+    }
+
+    @Test
+    void testStaleLogIsDiscardedWhenSnapshotIsReplaced() throws IOException {
+        log.appendUpdate("N2S000001", 9, "Cancelled");
+
+        Files.write(snapshot, Arrays.asList(HEADER, "N2S000009,1001,1,1,ABC123,09:00,11:00,Paid,10.00,Active,20.00"));
+
+        List<String> lines = log.readAllLines();
+        assertEquals(2, lines.size());
+        assertTrue(lines.get(1).startsWith("N2S000009"));
+    }
+
+    @Test
+    void testUpdateOfUnknownBookingIsNotLogged() throws IOException {
+        log.appendUpdate("N2S999999", 9, "Cancelled");
+
+        assertEquals(0, log.getPendingRecords());
+        assertFalse(Files.exists(wal));
+    }
+
+    @Test
+    void testCompactingLogsKeepEveryAppend() throws Exception {
+        BookingWriteAheadLog other = new BookingWriteAheadLog(snapshot.toString(), wal.toString());
+        ExecutorService pool = Executors.newFixedThreadPool(3);
+
+        try {
+            List<Future<?>> results = new ArrayList<>();
+            results.add(pool.submit(() -> {
+                for (int i = 2; i < 102; i++)
+                    log.appendInsert(String.format("N2S%06d,1002,2,1,XYZ789,10:00,12:00,Pending,15.00,Active,30.00", i));
+                return null;
+            }));
+            results.add(pool.submit(() -> {
+                for (int i = 0; i < 30; i++)
+                    other.compact();
+                return null;
+            }));
+            results.add(pool.submit(() -> {
+                for (int i = 0; i < 30; i++)
+                    log.compact();
+                return null;
+            }));
+            for (Future<?> result : results)
+                result.get(30, TimeUnit.SECONDS);
+        }
+        finally {
+            pool.shutdownNow();
+        }
+
+        BookingWriteAheadLog reopened = new BookingWriteAheadLog(snapshot.toString(), wal.toString());
+        assertEquals(102, reopened.readAllLines().size());
+    }
+
+    @Test
+    void testMissingSnapshotThrows() {
+        BookingWriteAheadLog missing = new BookingWriteAheadLog(
+                tempDir.resolve("missing.csv").toString(), tempDir.resolve("missing_WAL.csv").toString());
+
+        assertThrows(IOException.class, missing::readAllLines);
+    }
+}
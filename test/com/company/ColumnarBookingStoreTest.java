@@ -0,0 +1,148 @@
+package com.company;
+
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalTime;
+import java.util.Arrays;
+
+public class ColumnarBookingStoreTest {
+
+    private static final String HEADER = "booking_id,user_id,spot_id,parking_id,plate,start,end,payment_status,amount,booking_status,total_amount";
+
+    private ColumnarBookingStore store;
+
+    @BeforeEach
+    void setUp() {
+        store = ColumnarBookingStore.fromLines(Arrays.asList(
+                HEADER,
+                "N2S000001,1001,1,1,ABC123,09:00,11:00,Paid,10.00,Active,20.00",
+                "N2S000002,1002,2,1,XYZ789,10:00,12:30,Pending,15.00,Active,30.00",
+                "LEGACY-7,1001,3,2,ABC123,13:00,14:00,Pending,15.00,Cancelled",
+                "N2S000004,1004,4,1,QRS111,bad,09:30,Completed,15.00,Active,15.00"));
+    }
+
+    @Test
+    void testUnparseableRowsAreSkipped() {
+        assertEquals(3, store.size());
+    }
+
+    @Test
+    void testCursorMatchesRowValues() {
+        ColumnarBookingStore.Cursor cursor = store.cursor();
+
+        assertTrue(cursor.next());
+        assertEquals("N2S000001", cursor.getBookingID());
+        assertEquals(1001, cursor.getUserID());
+        assertEquals("ABC123", cursor.getPlate());
+        assertEquals(LocalTime.of(11, 0), cursor.getEnd());
+        assertEquals("Paid", cursor.getPaymentStatus());
+        assertEquals(20.0, cursor.getTotalAmount());
+
+        assertTrue(cursor.next());
+        assertTrue(cursor.next());
+        assertEquals("LEGACY-7", cursor.getBookingID());
+        assertEquals("Cancelled", cursor.getStatus());
+        assertEquals(15.0, cursor.getTotalAmount()); // falls back to the deposit like convertToBooking
+        assertFalse(cursor.next());
+    }
+
+    @Test
+    void testPrimitiveScans() {
+        assertEquals(600, store.startMinute(1));
+        assertEquals(750, store.endMinute(1));
+        assertTrue(store.hasBookingStatus(0, "Active"));
+        assertFalse(store.hasPaymentStatus(0, "Unknown"));
+        assertEquals(2, store.countAt(10 * 60 + 30, "Active"));
+        assertEquals(0, store.countAt(10 * 60 + 30, "Unknown"));
+    }
+
+    @Test
+    void testIndexOfAndUpdates() {
+        assertEquals(1, store.indexOf("N2S000002"));
+        assertEquals(2, store.indexOf("LEGACY-7"));
+        assertEquals(-1, store.indexOf("N2S000099"));
+
+        store.setBookingStatus(1, "Cancelled");
+        store.setEnd(1, LocalTime.of(13, 15));
+        assertEquals("Cancelled", store.cursor().moveTo(1).getBookingStatus());
+        assertEquals(LocalTime.of(13, 15), store.cursor().moveTo(1).getEnd());
+    }
+
+    @Test
+    void testGrowsAndRoundTripsBookings() throws Exception {
+        ColumnarBookingStore grown = new ColumnarBookingStore(1);
+        Booking booking = new Booking.BookingBuilder()
+                .setBookingID("N2S000010")
+                .setUserID(7)
+                .setParkingSpace(5)
+                .setParkingLot(2)
+                .setPlate("JKL000")
+                .setStart(LocalTime.of(8, 0))
+                .setEnd(LocalTime.of(9, 45))
+                .setPaymentStatus("Paid")
+                .setAmount(5.0)
+                .setTotalAmount(12.5)
+                .build();
+
+        for (int i = 0; i < 5; i++)
+            grown.add(booking);
+
+        assertEquals(5, grown.size());
+        Booking copy = grown.toBooking(4);
+        assertEquals("N2S000010", copy.getBookingID());
+        assertEquals("JKL000", copy.getPlate());
+        assertEquals(LocalTime.of(9, 45), copy.getEnd());
+        assertEquals(12.5, copy.getTotalAmount());
+    }
+
+    @Test
+    void testIndexFindsEveryRowAfterGrowing() {
+        ColumnarBookingStore many = new ColumnarBookingStore(1);
+        for (int i = 1; i <= 1000; i++)
+            many.add(String.format("N2S%06d,1001,%d,1,ABC123,09:00,11:00,Paid,10.00,Active,20.00", i * 7, i).split(","));
+        many.add("OLD-1,1001,1,1,ABC123,09:00,11:00,Paid,10.00,Active,20.00".split(","));
+        many.add("N2S000007,1001,9,1,ABC123,09:00,11:00,Paid,10.00,Active,20.00".split(","));
+
+        for (int i = 1; i <= 1000; i++)
+            assertEquals(i - 1, many.indexOf(String.format("N2S%06d", i * 7)));
+        assertEquals(1000, many.indexOf("OLD-1"));
+        assertEquals(0, many.indexOf("N2S000007")); // the first row wins
+        assertEquals(-1, many.indexOf("N2S000008"));
+        assertEquals("N2S007000", many.cursor().moveTo(999).getBookingID());
+    }
+
+    @Test
+    void testStatusesAreByteCodes() {
+        assertEquals(ColumnarBookingStore.ACTIVE, store.bookingStatusCode(0));
+        assertEquals(ColumnarBookingStore.PAID, store.paymentStatusCode(0));
+        assertEquals(ColumnarBookingStore.CANCELLED, store.bookingStatusCode(2));
+        assertEquals(-1, store.statusCode("Unknown"));
+
+        store.setPaymentStatus(1, "Refunded");
+        assertTrue(store.statusCode("Refunded") > ColumnarBookingStore.PENDING);
+        assertEquals("Refunded", store.cursor().moveTo(1).getPaymentStatus());
+    }
+
+    @Test
+    void testUpdateAppliesCsvValues() {
+        assertTrue(store.update("N2S000002", 6, "12:45:30"));
+        assertTrue(store.update("N2S000002", 10, "42.5"));
+        assertTrue(store.update("LEGACY-7", 7, "Completed"));
+        assertFalse(store.update("N2S000002", 6, "later"));
+        assertFalse(store.update("N2S000002", 4, "NEW999"));
+        assertFalse(store.update("N2S000099", 9, "Cancelled"));
+
+        ColumnarBookingStore.Cursor cursor = store.cursor().moveTo(1);
+        assertEquals(LocalTime.of(12, 45, 30), cursor.getEnd());
+        assertEquals(42.5, cursor.getTotalAmount());
+        assertEquals(765, store.endMinute(1));
+        assertTrue(store.hasPaymentStatus(2, "Completed"));
+    }
+
+    @Test
+    void testOutOfRangeRow() {
+        assertThrows(IndexOutOfBoundsException.class, () -> store.userID(3));
+    }
+}
@@ -0,0 +1,117 @@
+package com.company;
+
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assumptions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFilePermission;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+public class DurableFilesTest {
+
+    @TempDir
+    Path tempDir;
+
+    @AfterEach
+    void tearDown() {
+        DurableFiles.setGroupCommitWindow(0);
+    }
+
+    @Test
+    void testReplaceWritesAllLines() throws IOException {
+        Path file = tempDir.resolve("data.csv");
+        Files.write(file, Arrays.asList("old header", "old row 1", "old row 2", "old row 3"));
+
+        DurableFiles.replace(file.toString(), Arrays.asList("header", "row"));
+
+        assertEquals(Arrays.asList("header", "row"), Files.readAllLines(file));
+    }
+
+    @Test
+    void testReplaceCreatesMissingFileAndLeavesNoTemporaries() throws IOException {
+        Path file = tempDir.resolve("nested").resolve("data.csv");
+
+        DurableFiles.replace(file.toString(), Arrays.asList("a", "b"));
+        DurableFiles.replace(file.toString(), Arrays.asList("c"));
+
+        assertEquals(Arrays.asList("c"), Files.readAllLines(file));
+        try (Stream<Path> files = Files.list(file.getParent())) {
+            List<Path> left = files.collect(Collectors.toList());
+            assertEquals(Arrays.asList(file), left);
+        }
+    }
+
+    @Test
+    void testGroupCommitSharesOneSync() throws IOException {
+        DurableFiles.setGroupCommitWindow(60000);
+        assertTrue(DurableFiles.isGroupCommit());
+
+        Path file = tempDir.resolve("grouped.csv");
+        for (int i = 0; i < 10; i++)
+            DurableFiles.replace(file.toString(), Arrays.asList("version " + i));
+
+        // The new contents are visible at once; only the sync waits for the window
+        assertEquals(Arrays.asList("version 9"), Files.readAllLines(file));
+        assertEquals(1, DurableFiles.pendingCount()); // the directory; the contents were forced before each move
+
+        DurableFiles.sync();
+        assertEquals(0, DurableFiles.pendingCount());
+    }
+
+    @Test
+    void testAppendCreatesAndExtendsFile() throws IOException {
+        Path file = tempDir.resolve("journal").resolve("log.csv");
+
+        DurableFiles.append(file.toString(), Arrays.asList("a", "b"));
+        DurableFiles.append(file.toString(), Arrays.asList("c"));
+
+        assertEquals(Arrays.asList("a", "b", "c"), Files.readAllLines(file));
+        assertEquals(0, DurableFiles.pendingCount());
+    }
+
+    @Test
+    void testGroupCommitDefersAppendSync() throws IOException {
+        Path file = tempDir.resolve("log.csv");
+        Files.write(file, Arrays.asList("header"));
+        DurableFiles.setGroupCommitWindow(60000);
+
+        for (int i = 0; i < 5; i++)
+            DurableFiles.append(file.toString(), Arrays.asList("row " + i));
+
+        assertEquals(6, Files.readAllLines(file).size());
+        assertEquals(1, DurableFiles.pendingCount());
+
+        DurableFiles.sync();
+        assertEquals(0, DurableFiles.pendingCount());
+    }
+
+    @Test
+    void testReplaceKeepsPermissions() throws IOException {
+        Path file = tempDir.resolve("shared.csv");
+        Files.write(file, Arrays.asList("old"));
+        Assumptions.assumeTrue(Files.getFileStore(file).supportsFileAttributeView("posix"));
+
+        Set<PosixFilePermission> permissions = PosixFilePermissions.fromString("rw-r--r--");
+        Files.setPosixFilePermissions(file, permissions);
+
+        DurableFiles.replace(file.toString(), Arrays.asList("new"));
+
+        assertEquals(permissions, Files.getPosixFilePermissions(file));
+        assertEquals(Arrays.asList("new"), Files.readAllLines(file));
+    }
+
+    @Test
+    void testRejectsNegativeWindow() {
+        assertThrows(IllegalArgumentException.class, () -> DurableFiles.setGroupCommitWindow(-1));
+    }
+}
@@ -119,8 +119,8 @@ public class FacultyTest {
 
     @Test
     public void testUserIDGeneration() {
-        // Test that user ID is generated and is positive
-        assertTrue(facultyMember.getUserID() > 0, "User ID should be positive");
+        // Test that a new user has no ID until it is saved
+        assertEquals(User.UNASSIGNED_ID, facultyMember.getUserID(), "User ID should be unassigned");
         
         // Test that the ID is properly set and can be retrieved
         int originalID = facultyMember.getUserID();
@@ -271,7 +271,7 @@ public class FacultyTest {
         faculty.setPassword("StrongPass123!");
         assertEquals("StrongPass123!", faculty.getPassword(), "Faculty member should inherit password setting");
         
-        assertTrue(faculty.getUserID() > 0, "Faculty member should inherit user ID generation");
+        assertEquals(User.UNASSIGNED_ID, faculty.getUserID(), "Faculty member should inherit the unassigned user ID");
     }
 
     @Test
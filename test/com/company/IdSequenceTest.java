@@ -0,0 +1,154 @@
+package com.company;
+
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class IdSequenceTest {
+
+    @TempDir
+    Path tempDir;
+
+    private String markFile() {
+        return tempDir.resolve("Sequence.csv").toString();
+    }
+
+    @Test
+    void testSeedsOnceAndReservesInBlocks() throws IOException {
+        AtomicInteger seedCalls = new AtomicInteger();
+        IdSequence sequence = new IdSequence(markFile(), 10, () -> {
+            seedCalls.incrementAndGet();
+            return 41;
+        });
+
+        for (long expected = 42; expected < 67; expected++)
+            assertEquals(expected, sequence.next());
+
+        assertEquals(1, seedCalls.get());
+        assertEquals(3, sequence.getReservations());
+        assertEquals("71", Files.readAllLines(tempDir.resolve("Sequence.csv")).get(0));
+    }
+
+    @Test
+    void testSequencesSharingAFileNeverOverlap() {
+        IdSequence first = new IdSequence(markFile(), 5, () -> 0);
+        IdSequence second = new IdSequence(markFile(), 5, () -> 0);
+
+        Set<Long> seen = new HashSet<>();
+        for (int i = 0; i < 40; i++) {
+            assertTrue(seen.add(first.next()));
+            assertTrue(seen.add(second.next()));
+        }
+    }
+
+    @Test
+    void testConcurrentCallersGetDistinctIDs() throws Exception {
+        IdSequence sequence = new IdSequence(markFile(), 7, () -> 0);
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+
+        try {
+            List<Future<List<Long>>> results = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                results.add(pool.submit(() -> {
+                    List<Long> ids = new ArrayList<>();
+                    for (int i = 0; i < 500; i++)
+                        ids.add(sequence.next());
+                    return ids;
+                }));
+            }
+
+            List<Long> all = new ArrayList<>();
+            for (Future<List<Long>> result : results)
+                all.addAll(result.get());
+
+            Collections.sort(all);
+            assertEquals(4000, new HashSet<>(all).size());
+            assertEquals(1L, (long) all.get(0));
+            assertEquals(4000L, (long) all.get(all.size() - 1)); // no gaps within one process
+        }
+        finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    void testAdvancePastSkipsIDsTakenElsewhere() {
+        IdSequence sequence = new IdSequence(markFile(), 10, () -> 0);
+
+        assertEquals(1, sequence.next());
+        sequence.advancePast(5);
+        assertEquals(6, sequence.next());
+
+        sequence.advancePast(100);
+        assertEquals(101, sequence.next());
+    }
+
+    @Test
+    void testAdvancePastIsSharedThroughTheMark() throws IOException {
+        IdSequence first = new IdSequence(markFile(), 10, () -> 0);
+        assertEquals(1, first.next());
+
+        first.advancePast(500);
+        assertEquals("500", Files.readAllLines(tempDir.resolve("Sequence.csv")).get(0));
+
+        // Another process reserving after the outside ID starts above it
+        IdSequence second = new IdSequence(markFile(), 10, () -> 0);
+        assertEquals(501, second.next());
+        assertEquals(511, first.next());
+    }
+
+    @Test
+    void testConcurrentAdvanceNeverHandsOutTakenIDs() throws Exception {
+        IdSequence sequence = new IdSequence(markFile(), 1000, () -> 0);
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        Set<Long> handedOut = Collections.synchronizedSet(new HashSet<>());
+
+        try {
+            List<Future<?>> results = new ArrayList<>();
+            for (int t = 0; t < 3; t++) {
+                results.add(pool.submit(() -> {
+                    for (int i = 0; i < 2000; i++)
+                        assertTrue(handedOut.add(sequence.next()));
+                }));
+            }
+            results.add(pool.submit(() -> {
+                for (long id = 100; id <= 5000; id += 100)
+                    sequence.advancePast(id);
+            }));
+            for (Future<?> result : results)
+                result.get();
+        }
+        finally {
+            pool.shutdownNow();
+        }
+
+        // Every call after the last advance is above it
+        assertTrue(sequence.next() > 5000);
+    }
+
+    @Test
+    void testDamagedMarkFallsBackToSeed() throws IOException {
+        Files.write(tempDir.resolve("Sequence.csv"), Collections.singletonList("garbage"));
+
+        IdSequence sequence = new IdSequence(markFile(), 10, () -> 200);
+        assertEquals(201, sequence.next());
+    }
+
+    @Test
+    void testRejectsEmptyBlocks() {
+        assertThrows(IllegalArgumentException.class, () -> new IdSequence(markFile(), 0, () -> 0));
+    }
+}
@@ -2,6 +2,7 @@ package com.company;
 
 import static org.junit.jupiter.api.Assertions.*;
 import org.junit.jupiter.api.*;
+import java.util.*;
 
 public class ManagerTest {
 
@@ -174,6 +175,14 @@ public class ManagerTest {
 		assertEquals("Visitor", userType);
 	}
 
+	@Test
+	void testValidateYorkUBatch() {
+		Map<String, String> userTypes = manager.validateYorkUAll(Arrays.asList("random@gmail.com", "", null));
+		assertEquals(3, userTypes.size());
+		for (String userType : userTypes.values())
+			assertEquals("Visitor", userType);
+	}
+
 	@Test
 	void testAddParkingLotExceptionHandling() {
 		ParkingLotManager badPLM = new ParkingLotManager() {
@@ -113,8 +113,8 @@ public class NonFacultyStaffTest {
 
     @Test
     public void testUserIDGeneration() {
-        // Test that user ID is generated and is positive
-        assertTrue(staff.getUserID() > 0, "User ID should be positive");
+        // Test that a new user has no ID until it is saved
+        assertEquals(User.UNASSIGNED_ID, staff.getUserID(), "User ID should be unassigned");
         
         // Test that the ID is properly set and can be retrieved
         int originalID = staff.getUserID();
@@ -262,7 +262,7 @@ public class NonFacultyStaffTest {
         staff.setPassword("StrongPass123!");
         assertEquals("StrongPass123!", staff.getPassword(), "Non-faculty staff should inherit password setting");
         
-        assertTrue(staff.getUserID() > 0, "Non-faculty staff should inherit user ID generation");
+        assertEquals(User.UNASSIGNED_ID, staff.getUserID(), "Non-faculty staff should inherit the unassigned user ID");
     }
 
     @Test
@@ -0,0 +1,132 @@
+package com.company;
+
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+public class ParkingLotManagerConcurrencyTest {
+
+    private static final int THREADS = 16;
+    private static final int ROUNDS = 500;
+    private static final int LOTS = 4;
+    private static final int SPOTS_PER_LOT = 8;
+
+    private ParkingLotManager manager;
+    private ExecutorService pool;
+    private List<Integer> lotIDs;
+    private List<ParkingSpace> spots;
+
+    @BeforeEach
+    void setUp() {
+        manager = new ParkingLotManager();
+        pool = Executors.newFixedThreadPool(THREADS);
+
+        // Fresh lots well clear of the IDs the other tests use
+        int base = 900000 + (int) (System.nanoTime() % 10000) * LOTS;
+        lotIDs = new ArrayList<>();
+        spots = new ArrayList<>();
+        for (int i = 0; i < LOTS; i++) {
+            int lotID = base + i;
+            lotIDs.add(lotID);
+            manager.addParkingLot(new ParkingLot(lotID, "Stress " + i));
+            spots.addAll(manager.addParkingSpaces(lotID, SPOTS_PER_LOT));
+        }
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        pool.shutdownNow();
+        pool.awaitTermination(5, TimeUnit.SECONDS);
+        manager.shutdown();
+    }
+
+    @Test
+    void testConcurrentSensorFlipsAreCountedExactlyOnce() throws Exception {
+        AtomicIntegerArray flips = new AtomicIntegerArray(spots.size());
+        CountDownLatch start = new CountDownLatch(1);
+
+        List<Future<?>> workers = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            int seed = t;
+            workers.add(pool.submit(() -> {
+                start.await();
+                for (int r = 0; r < ROUNDS; r++) {
+                    int index = (seed * 31 + r * 7) % spots.size();
+                    boolean detected = (seed + r) % 2 == 0;
+                    SensorData reading = new SensorData(spots.get(index).getSpotID(), detected, LocalDateTime.now());
+                    SensorIngestResult result = manager.ingestSensorData(Collections.singletonList(reading));
+                    if (result.getChangedSpots() == 1)
+                        flips.incrementAndGet(index);
+                }
+                return null;
+            }));
+        }
+
+        start.countDown();
+        for (Future<?> worker : workers)
+            worker.get(60, TimeUnit.SECONDS);
+
+        // Each spot started available, so an odd number of counted flips must leave it occupied;
+        // a lost compare-and-set would double count a flip and break the parity
+        BitSet occupied = ParkingSpaceStore.getInstance().getSpotIDs(SpaceStatus.OCCUPIED);
+        for (int i = 0; i < spots.size(); i++) {
+            ParkingSpace spot = manager.findSpaceByID(spots.get(i).getSpotID());
+            boolean expectOccupied = flips.get(i) % 2 == 1;
+            assertEquals(expectOccupied, !spot.isAvailable(), "spot " + spot.getSpotID());
+            assertEquals(expectOccupied, occupied.get(spot.getSpotID()), "bitmap for spot " + spot.getSpotID());
+        }
+    }
+
+    @Test
+    void testConcurrentLotToggleLeavesLotsAndSpacesInStep() throws Exception {
+        CountDownLatch start = new CountDownLatch(1);
+
+        List<Future<?>> workers = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            int seed = t;
+            workers.add(pool.submit(() -> {
+                start.await();
+                for (int r = 0; r < ROUNDS / 10; r++) {
+                    // Overlapping pairs of lots, named in both orders to exercise the lock ordering
+                    int a = lotIDs.get((seed + r) % LOTS);
+                    int b = lotIDs.get((seed + r + 1) % LOTS);
+                    List<Integer> pair = seed % 2 == 0 ? Arrays.asList(a, b) : Arrays.asList(b, a);
+                    if ((seed + r) % 2 == 0)
+                        manager.updateLotsStatus(pair, LotStatus.DISABLED.label(), SpaceStatus.DISABLED.label());
+                    else
+                        manager.updateLotsStatus(pair, LotStatus.ENABLED.label(), SpaceStatus.AVAILABLE.label());
+                }
+                return null;
+            }));
+        }
+
+        start.countDown();
+        for (Future<?> worker : workers)
+            worker.get(60, TimeUnit.SECONDS);
+
+        ParkingSpaceStore store = ParkingSpaceStore.getInstance();
+        for (ParkingLot lot : manager.getAllLots()) {
+            if (!lotIDs.contains(lot.getLotID()))
+                continue;
+            SpaceStatus expected = lot.isEnabled() ? SpaceStatus.AVAILABLE : SpaceStatus.DISABLED;
+            List<ParkingSpace> lotSpaces = store.getByLot(lot.getLotID());
+            assertEquals(SPOTS_PER_LOT, lotSpaces.size());
+            for (ParkingSpace space : lotSpaces)
+                assertEquals(expected, space.getSpaceStatus(), "spot " + space.getSpotID() + " of lot " + lot.getLotID());
+        }
+    }
+}
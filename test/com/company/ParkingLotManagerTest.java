@@ -769,24 +769,38 @@ public class ParkingLotManagerTest {
     public void testRegularUpdatesScheduling() throws Exception {
         ParkingLotManager manager = new ParkingLotManager();
 
-        // Access the timer field via reflection to check it's initialized
-        Field timerField = ParkingLotManager.class.getDeclaredField("timer");
-        timerField.setAccessible(true);
-
-        // Before scheduling, the timer might be null
-        Timer timer = (Timer) timerField.get(manager);
+        // Access the scheduler field via reflection to check it's initialized
+        Field schedulerField = ParkingLotManager.class.getDeclaredField("scheduler");
+        schedulerField.setAccessible(true);
 
         // Schedule regular updates
         manager.scheduleRegularUpdates();
 
-        // After scheduling, the timer should not be null
-        timer = (Timer) timerField.get(manager);
-        assertNotNull(timer);
+        // After scheduling, every background job should be registered
+        UpdateScheduler scheduler = (UpdateScheduler) schedulerField.get(manager);
+        assertNotNull(scheduler);
+        assertEquals(Arrays.asList(ParkingLotManager.SENSOR_INGEST_JOB, ParkingLotManager.CHECKOUT_SWEEP_JOB,
+                ParkingLotManager.LOG_COMPACTION_JOB), scheduler.getJobNames());
 
-        // Clean up by canceling the timer
-        if (timer != null) {
-            timer.cancel();
-        }
+        // Shutting down stops the jobs and drops the checkout deadline listener
+        assertNotNull(BookingDatabaseHelper.getCheckoutDeadlineListener());
+
+        manager.shutdown();
+        assertTrue(scheduler.isShutdown());
+        assertNull(BookingDatabaseHelper.getCheckoutDeadlineListener());
+    }
+
+    @Test
+    public void testJobTimingIsTunable() {
+        ParkingLotManager manager = new ParkingLotManager();
+
+        manager.setJobTiming(ParkingLotManager.SENSOR_INGEST_JOB, 2000, 0);
+        assertEquals(2000, manager.getJobPeriod(ParkingLotManager.SENSOR_INGEST_JOB));
+        assertThrows(IllegalArgumentException.class, () -> manager.setJobTiming("unknown", 1000, 0));
+        assertThrows(IllegalArgumentException.class,
+                () -> manager.setJobTiming(ParkingLotManager.CHECKOUT_SWEEP_JOB, 0, 0));
+
+        manager.shutdown();
     }
 
 
@@ -1033,14 +1047,14 @@ public class ParkingLotManagerTest {
         assertDoesNotThrow(() -> {
             manager.scheduleRegularUpdates();
 
-            // Access the timer via reflection to verify it's set up
-            Field timerField = ParkingLotManager.class.getDeclaredField("timer");
-            timerField.setAccessible(true);
-            Timer timer = (Timer) timerField.get(manager);
-            assertNotNull(timer);
+            // Access the scheduler via reflection to verify it's set up
+            Field schedulerField = ParkingLotManager.class.getDeclaredField("scheduler");
+            schedulerField.setAccessible(true);
+            UpdateScheduler scheduler = (UpdateScheduler) schedulerField.get(manager);
+            assertNotNull(scheduler);
 
-            // Cancel the timer to clean up
-            timer.cancel();
+            // Shut the scheduler down to clean up
+            scheduler.shutdown();
         });
     }
 
@@ -1182,16 +1196,16 @@ public class ParkingLotManagerTest {
             writer.write("101,true," + LocalDateTime.now() + "\n");
         }
 
-        // Use reflection to access and execute the timer task
-        Field timerField = ParkingLotManager.class.getDeclaredField("timer");
-        timerField.setAccessible(true);
+        // Use reflection to access the scheduler
+        Field schedulerField = ParkingLotManager.class.getDeclaredField("scheduler");
+        schedulerField.setAccessible(true);
 
         // Schedule updates
         manager.scheduleRegularUpdates();
 
-        // Get the timer
-        Timer timer = (Timer) timerField.get(manager);
-        assertNotNull(timer);
+        // Get the scheduler
+        UpdateScheduler scheduler = (UpdateScheduler) schedulerField.get(manager);
+        assertNotNull(scheduler);
 
         // Create our own task to simulate what the timer would do
         TimerTask testTask = new TimerTask() {
@@ -1217,8 +1231,8 @@ public class ParkingLotManagerTest {
             fail("Unexpected exception: " + e.getMessage());
         }
 
-        // Cancel the real timer to clean up
-        timer.cancel();
+        // Shut the real scheduler down to clean up
+        scheduler.shutdown();
 
         // Clean up test files
         Files.deleteIfExists(sensorFile);
@@ -1304,9 +1318,9 @@ public class ParkingLotManagerTest {
 
     @Test
     public void testTimerInitialization() {
-        // Test that the timer field is initialized correctly
+        // Test that the scheduler is initialized correctly
         ParkingLotManager manager = new ParkingLotManager();
-        assertNotNull(manager.getTimer());
+        assertNotNull(manager.getScheduler());
     }
 
     @Test
@@ -1487,8 +1501,39 @@ public class ParkingLotManagerTest {
 
         // Verify the new statuses
         Map<Integer, ParkingSpace> spaces = testManager.getSpaces();
-        assertEquals("occupied", spaces.get(101).getStatus(), "Space 101 should now be occupied");
-        assertEquals("available", spaces.get(102).getStatus(), "Space 102 should now be available");
+        assertEquals("Occupied", spaces.get(101).getStatus(), "Space 101 should now be occupied");
+        assertEquals("Available", spaces.get(102).getStatus(), "Space 102 should now be available");
     }
 
-}
\ No newline at end of file
+
+    @Test
+    public void testIngestSensorDataCoalescesToLatestReading() {
+        MockParkingLotManager mockManager = new MockParkingLotManager();
+        LocalDateTime now = LocalDateTime.now();
+
+        List<SensorData> sensorData = new ArrayList<>();
+        // Spot 1 is available; its latest reading says occupied even though it arrives first
+        sensorData.add(new SensorData(1, true, now));
+        sensorData.add(new SensorData(1, false, now.minusMinutes(5)));
+        // Spot 2 is occupied and stays that way
+        sensorData.add(new SensorData(2, false, now.minusMinutes(1)));
+        sensorData.add(new SensorData(2, true, now));
+        // Unknown spot is counted but ignored
+        sensorData.add(new SensorData(99, true, now));
+
+        SensorIngestResult result = mockManager.ingestSensorData(sensorData);
+
+        assertEquals(5, result.getReadings());
+        assertEquals(3, result.getDistinctSpots());
+        assertEquals(1, result.getChangedSpots());
+        assertEquals("Occupied", mockManager.findSpaceByID(1).getStatus());
+        assertEquals("Occupied", mockManager.findSpaceByID(2).getStatus());
+    }
+
+    @Test
+    public void testIngestSensorDataNull() {
+        SensorIngestResult result = parkingLotManager.ingestSensorData(null);
+        assertEquals(0, result.getReadings());
+        assertEquals(0, result.getChangedSpots());
+    }
+}
@@ -0,0 +1,299 @@
+package com.company;
+
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+public class ParkingSpaceStoreTest {
+
+    @TempDir
+    Path tempDir;
+
+    private Path snapshot;
+    private Path journal;
+    private ParkingSpaceStore store;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        snapshot = tempDir.resolve("Parking_Spaces_Database.csv");
+        journal = tempDir.resolve("Parking_Spaces_Journal.csv");
+
+        Files.write(snapshot, Arrays.asList(
+                "SpotID,LotID,Status,SensorID,NeedMaintenance",
+                "1,1,Available,101,FALSE",
+                "2,1,Occupied,102,FALSE",
+                "3,2,Available,103,TRUE"));
+
+        store = new ParkingSpaceStore(snapshot.toString(), journal.toString());
+    }
+
+    @Test
+    void testLoadsSnapshot() {
+        assertEquals(3, store.size());
+        assertEquals("Occupied", store.get(2).getStatus());
+        assertEquals("TRUE", store.get(3).getNeedMaintenance());
+        assertNull(store.get(99));
+    }
+
+    @Test
+    void testUpdateStatusAppendsToJournalOnly() throws IOException {
+        List<String> before = Files.readAllLines(snapshot);
+
+        assertTrue(store.updateStatus(1, "Occupied"));
+
+        assertEquals(before, Files.readAllLines(snapshot));
+        List<String> journalLines = Files.readAllLines(journal);
+        assertEquals(2, journalLines.size());
+        assertEquals("S,1,Occupied", journalLines.get(1));
+        assertEquals("Occupied", store.get(1).getStatus());
+    }
+
+    @Test
+    void testUpdateStatusUnknownSpot() {
+        assertFalse(store.updateStatus(42, "Occupied"));
+    }
+
+    @Test
+    void testUnchangedStatusIsNotJournaled() {
+        store.updateStatus(1, "Available");
+        assertEquals(0, store.getJournalEntries());
+    }
+
+    @Test
+    void testStatusCaseVariantsAreNotAChange() throws IOException {
+        store.updateStatus(1, " available ");
+        assertEquals(1, store.updateLotStatus(Collections.singletonList(1), "AVAILABLE")); // only spot 2 changes
+        assertEquals(1, store.getJournalEntries());
+        assertEquals("S,2,Available", Files.readAllLines(journal).get(1));
+
+        // Known statuses are written with their canonical label, others as given
+        store.updateStatus(3, "occupied");
+        assertEquals("Occupied", store.get(3).getStatus());
+        store.updateStatus(3, "Towed");
+        store.updateStatus(3, "Towed");
+        assertEquals("Towed", store.get(3).getStatus());
+        assertEquals(3, store.getJournalEntries());
+    }
+
+    @Test
+    void testJournalIsReplayedOnReload() {
+        store.updateStatus(1, "Occupied");
+        store.add(new ParkingSpace(4, 2, 104));
+
+        ParkingSpaceStore reloaded = new ParkingSpaceStore(snapshot.toString(), journal.toString());
+
+        assertEquals(4, reloaded.size());
+        assertEquals("Occupied", reloaded.get(1).getStatus());
+        assertEquals(2, reloaded.get(4).getLotID());
+        assertEquals(4, reloaded.getMaxSpotID());
+    }
+
+    @Test
+    void testCompactFoldsJournalIntoSnapshot() throws IOException {
+        store.updateStatus(2, "Available");
+        store.compact();
+
+        assertEquals(1, Files.readAllLines(journal).size());
+        assertTrue(Files.readAllLines(snapshot).contains("2,1,Available,102,FALSE"));
+        assertEquals(0, store.getJournalEntries());
+    }
+
+    @Test
+    void testStaleJournalIsDiscardedWhenSnapshotIsReplaced() throws IOException {
+        store.updateStatus(1, "Occupied");
+
+        Files.write(snapshot, Arrays.asList(
+                "SpotID,LotID,Status,SensorID,NeedMaintenance",
+                "1,1,Disabled,101,FALSE"));
+
+        assertEquals(1, store.size());
+        assertEquals("Disabled", store.get(1).getStatus());
+    }
+
+    @Test
+    void testGetByLotAndCopies() {
+        List<ParkingSpace> lotOne = store.getByLot(1);
+        assertEquals(2, lotOne.size());
+
+        // Mutating a returned space must not leak into the store
+        lotOne.get(0).setStatus("Disabled");
+        assertEquals("Available", store.get(1).getStatus());
+    }
+
+    @Test
+    void testProvisionAppendsAllSpacesInOneBatch() throws IOException {
+        List<ParkingSpace> created = store.provision(3, 5);
+
+        assertEquals(5, created.size());
+        assertEquals(4, created.get(0).getSpotID());
+        assertEquals(8, store.getMaxSpotID());
+        assertEquals(5, store.getByLot(3).size());
+        assertEquals(6, Files.readAllLines(journal).size());
+
+        ParkingSpaceStore reloaded = new ParkingSpaceStore(snapshot.toString(), journal.toString());
+        assertEquals(8, reloaded.size());
+        assertEquals(3, reloaded.get(8).getLotID());
+    }
+
+    @Test
+    void testProvisionNothing() {
+        assertTrue(store.provision(3, 0).isEmpty());
+        assertEquals(3, store.size());
+    }
+
+    @Test
+    void testUpdateLotStatusTouchesOnlyThatLot() throws IOException {
+        assertEquals(2, store.updateLotStatus(Arrays.asList(1, 99), "Disabled"));
+
+        assertEquals("Disabled", store.get(1).getStatus());
+        assertEquals("Disabled", store.get(2).getStatus());
+        assertEquals("Available", store.get(3).getStatus());
+        assertEquals(3, Files.readAllLines(journal).size());
+
+        // Already disabled, nothing more to journal
+        assertEquals(0, store.updateLotStatus(Arrays.asList(1), "Disabled"));
+    }
+
+    @Test
+    void testLotIndexFollowsSpotMovingLots() {
+        ParkingSpace moved = new ParkingSpace(1, 2, 101);
+        store.add(moved);
+
+        assertEquals(1, store.getByLot(1).size());
+        assertEquals(2, store.getByLot(2).size());
+    }
+
+    @Test
+    void testBatchWritesOneAppend() throws IOException {
+        store.batch(() -> {
+            store.updateStatus(1, "Occupied");
+            store.updateStatus(3, "Occupied");
+            // Nothing is on disk until the batch ends
+            assertFalse(journal.toFile().exists());
+        });
+
+        List<String> journalLines = Files.readAllLines(journal);
+        assertEquals(3, journalLines.size());
+        assertEquals("S,3,Occupied", journalLines.get(2));
+        assertEquals(2, store.getJournalEntries());
+    }
+
+    @Test
+    void testStatusBitmapsFollowUpdates() {
+        assertEquals(2, store.getAvailableSpotIDs().cardinality());
+        assertTrue(store.getSpotIDs(SpaceStatus.OCCUPIED).get(2));
+
+        // Legacy lower-case values land in the same bitmap
+        store.updateStatus(1, "occupied");
+
+        assertFalse(store.getAvailableSpotIDs().get(1));
+        assertEquals(2, store.getSpotIDs(SpaceStatus.OCCUPIED).cardinality());
+        assertTrue(store.getSpotIDs(SpaceStatus.DISABLED).isEmpty());
+    }
+
+    @Test
+    void testConcurrentWritersJournalInOrder() throws Exception {
+        List<ParkingSpace> added = store.provision(3, 32);
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+
+        try {
+            List<Future<?>> results = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                int thread = t;
+                results.add(pool.submit(() -> {
+                    for (int round = 0; round < 200; round++) {
+                        ParkingSpace space = added.get((thread + round) % added.size());
+                        store.updateStatus(space.getSpotID(), round % 2 == 0 ? "Occupied" : "Available");
+                    }
+                }));
+            }
+            for (Future<?> result : results)
+                result.get();
+        }
+        finally {
+            pool.shutdownNow();
+        }
+
+        // Replaying the journal gives back exactly what the writers left in memory
+        ParkingSpaceStore reloaded = new ParkingSpaceStore(snapshot.toString(), journal.toString());
+        for (ParkingSpace space : store.getAll())
+            assertEquals(space.getStatus(), reloaded.get(space.getSpotID()).getStatus());
+    }
+
+    @Test
+    void testFailedJournalAppendIsRetried() throws IOException {
+        store.size();
+        Files.deleteIfExists(journal);
+        Files.createDirectory(journal); // appends fail while the journal path is a directory
+
+        assertTrue(store.updateStatus(1, "Occupied"));
+        assertEquals(0, store.getJournalEntries());
+
+        Files.delete(journal);
+        assertTrue(store.updateStatus(2, "Available"));
+        assertEquals(2, store.getJournalEntries());
+
+        ParkingSpaceStore reloaded = new ParkingSpaceStore(snapshot.toString(), journal.toString());
+        assertEquals("Occupied", reloaded.get(1).getStatus());
+        assertEquals("Available", reloaded.get(2).getStatus());
+    }
+
+    @Test
+    void testCompactWaitsForJournalWriters() throws Exception {
+        List<ParkingSpace> added = store.provision(3, 16);
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+
+        try {
+            List<Future<?>> results = new ArrayList<>();
+            for (int t = 0; t < 3; t++) {
+                int thread = t;
+                results.add(pool.submit(() -> {
+                    for (int round = 0; round < 200; round++) {
+                        ParkingSpace space = added.get((thread + round) % added.size());
+                        store.updateStatus(space.getSpotID(), round % 2 == 0 ? "Occupied" : "Available");
+                    }
+                }));
+            }
+            results.add(pool.submit(() -> {
+                for (int round = 0; round < 50; round++)
+                    store.compact();
+            }));
+            for (Future<?> result : results)
+                result.get(30, TimeUnit.SECONDS);
+        }
+        finally {
+            pool.shutdownNow();
+        }
+
+        // Whatever interleaving happened, a reload must see exactly the final in-memory state
+        ParkingSpaceStore reloaded = new ParkingSpaceStore(snapshot.toString(), journal.toString());
+        for (ParkingSpace space : added)
+            assertEquals(store.get(space.getSpotID()).getStatus(), reloaded.get(space.getSpotID()).getStatus());
+    }
+
+    @Test
+    void testTornLastJournalLineIsIgnored() throws IOException {
+        store.updateStatus(1, "Occupied");
+        Files.write(journal, "S,2,Avail".getBytes(), StandardOpenOption.APPEND);
+
+        ParkingSpaceStore reloaded = new ParkingSpaceStore(snapshot.toString(), journal.toString());
+
+        assertEquals("Occupied", reloaded.get(1).getStatus());
+        assertEquals("Occupied", reloaded.get(2).getStatus());
+        assertEquals(1, reloaded.getJournalEntries());
+    }
+}
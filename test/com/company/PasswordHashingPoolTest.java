@@ -0,0 +1,112 @@
+package com.company;
+
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+public class PasswordHashingPoolTest {
+
+    private PasswordHashingPool pool;
+
+    @BeforeEach
+    void setUp() {
+        pool = new PasswordHashingPool(1, 2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        pool.shutdown();
+    }
+
+    @Test
+    void testHashMatchesOnlyItsPassword() {
+        String hash = PasswordHasher.hash("Test123!");
+
+        assertEquals(96, hash.length()); // 16-byte salt and 32-byte hash in hex
+        assertTrue(PasswordHasher.matches("Test123!", hash));
+        assertFalse(PasswordHasher.matches("Test123?", hash));
+        assertFalse(PasswordHasher.matches("Test123!", hash.substring(0, 40)));
+        assertFalse(PasswordHasher.matches("Test123!", "zz" + hash.substring(2)));
+        assertFalse(PasswordHasher.matches("Test123!", null));
+    }
+
+    @Test
+    void testHexRoundTrip() {
+        byte[] salt = {0, 15, 16, (byte) 0xAB};
+        byte[] hash = {(byte) 0xFF, 1};
+
+        String hex = PasswordHasher.toHex(salt, hash);
+        assertEquals("000f10abff01", hex);
+        assertArrayEquals(new byte[] {0, 15, 16, (byte) 0xAB, (byte) 0xFF, 1}, PasswordHasher.fromHex(hex));
+        assertNull(PasswordHasher.fromHex("abc"));
+    }
+
+    @Test
+    void testSubmitRunsOnHashingThread() throws Exception {
+        String thread = pool.submit(() -> Thread.currentThread().getName()).get(5, TimeUnit.SECONDS);
+        assertTrue(thread.startsWith("password-hashing-"));
+    }
+
+    @Test
+    void testFullQueueRejectsWork() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch started = new CountDownLatch(1);
+
+        CompletableFuture<Boolean> busy = pool.submit(() -> {
+            started.countDown();
+            try {
+                return release.await(5, TimeUnit.SECONDS);
+            }
+            catch (InterruptedException e) {
+                return false;
+            }
+        });
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        // One worker busy and two slots queued, so the fourth is turned away
+        CompletableFuture<Integer> first = pool.submit(() -> 1);
+        CompletableFuture<Integer> second = pool.submit(() -> 2);
+        CompletableFuture<Integer> refused = pool.submit(() -> 3);
+
+        assertEquals(2, pool.getQueueDepth());
+        ExecutionException e = assertThrows(ExecutionException.class, refused::get);
+        assertTrue(e.getCause() instanceof RejectedExecutionException);
+
+        release.countDown();
+        assertTrue(busy.get(5, TimeUnit.SECONDS));
+        assertEquals(3, first.get(5, TimeUnit.SECONDS) + second.get(5, TimeUnit.SECONDS));
+
+        PasswordHashingPool.Stats stats = pool.getStats();
+        assertEquals(4, stats.getSubmitted());
+        assertEquals(1, stats.getRejected());
+        assertEquals(2, stats.getMaxQueueDepth());
+    }
+
+    @Test
+    void testFailedWorkFailsTheFuture() {
+        CompletableFuture<String> failed = pool.submit(() -> {
+            throw new IllegalStateException("boom");
+        });
+
+        ExecutionException e = assertThrows(ExecutionException.class, () -> failed.get(5, TimeUnit.SECONDS));
+        assertTrue(e.getCause() instanceof IllegalStateException);
+    }
+
+    @Test
+    void testAsyncServiceCalls() throws Exception {
+        AuthenticationService service = new AuthenticationService(new UserDatabaseHelper(), pool);
+
+        String hash = service.hashPasswordAsync("Secret1!").get(5, TimeUnit.SECONDS);
+        assertTrue(PasswordHasher.matches("Secret1!", hash));
+
+        assertFalse(service.authenticateUserAsync(null, "x").get(5, TimeUnit.SECONDS));
+        assertFalse(service.authenticateUserAsync("nobody@nowhere.example", "x").get(5, TimeUnit.SECONDS));
+    }
+}
@@ -6,7 +6,6 @@ import java.io.BufferedWriter;
 import java.io.File;
 import java.io.FileWriter;
 import java.lang.reflect.Field;
-import java.lang.reflect.Method;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
@@ -189,27 +188,6 @@ public class PriceCalculatorTest {
         assertEquals("Non-Faculty Staff", mockCalculator.getUserType(9999));
     }
 
-    @Test
-    void testGetAbsolutePath() throws Exception {
-        // Access the private static method using reflection
-        Method method = PriceCalculator.class.getDeclaredMethod("getAbsolutePath", String.class);
-        method.setAccessible(true);
-
-        // Test the method with a sample filename
-        String path = (String) method.invoke(null, "test.csv");
-
-        // Normalize the path by replacing all backslashes with forward slashes
-        String normalizedPath = path.replace("\\", "/");
-
-        // Create the expected path using File.separator and normalize it
-        String expectedPath = "data/test.csv";
-        String normalizedExpectedPath = expectedPath.replace("\\", "/");
-
-        // Verify the path ends with the expected value
-        assertTrue(normalizedPath.endsWith(normalizedExpectedPath),
-            "Path should end with 'data/test.csv' but was: " + path);
-    }
-
     @Test
     void testHourlyRates() throws Exception {
         // Access the private static field using reflection
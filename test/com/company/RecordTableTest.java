@@ -0,0 +1,197 @@
+package com.company;
+
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+public class RecordTableTest {
+
+    private static final String HEADER = "LotID,Location,Status,NeedMaintenance";
+
+    @TempDir
+    Path tempDir;
+
+    private Path csv;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        csv = tempDir.resolve("Lots.csv");
+        Files.write(csv, Arrays.asList(HEADER, "1,Main,Active,FALSE", "2,North,Active,TRUE"));
+    }
+
+    @AfterEach
+    void tearDown() {
+        Storage.setEngine(new CsvStorageEngine());
+    }
+
+    private CsvRecordTable csvTable() {
+        return new CsvRecordTable(csv.toString(), 0, HEADER);
+    }
+
+    private BinaryRecordTable binaryTable() {
+        return new BinaryRecordTable(tempDir.resolve("Lots.bin").toString(), csv.toString(), 0, HEADER);
+    }
+
+    // The same contract holds for every engine
+    private void checkTable(RecordTable table) throws IOException {
+
+        assertEquals(3, table.readAllLines().size());
+        assertEquals("North", table.findRecord("2")[1]);
+        assertNull(table.findRecord("9"));
+        assertFalse(table.contains("LotID")); // the header is not a row
+
+        table.appendInsert("3,South,Active,FALSE");
+        table.appendUpdate("1", 2, "Closed");
+        table.appendUpdate("9", 2, "Closed"); // unknown keys are ignored
+
+        assertEquals(Arrays.asList(HEADER, "1,Main,Closed,FALSE", "2,North,Active,TRUE", "3,South,Active,FALSE"),
+                table.readAllLines());
+        assertTrue(table.contains("3"));
+
+        long generation = table.getGeneration();
+        assertTrue(table.replaceAll(Arrays.asList(HEADER, "7,East,Active,FALSE")));
+        assertNotEquals(generation, table.getGeneration());
+        assertNull(table.findRecord("1"));
+        assertEquals("East", table.findRecord("7")[1]);
+        assertFalse(table.isEmpty());
+    }
+
+    @Test
+    void testCsvTable() throws IOException {
+        checkTable(csvTable());
+        assertEquals(Arrays.asList(HEADER, "7,East,Active,FALSE"), Files.readAllLines(csv));
+    }
+
+    @Test
+    void testBinaryTable() throws IOException {
+        checkTable(binaryTable());
+    }
+
+    @Test
+    void testCsvInsertCreatesFileWithHeader() throws IOException {
+        Path missing = tempDir.resolve("sub").resolve("New.csv");
+        RecordTable table = new CsvRecordTable(missing.toString(), 0, HEADER);
+
+        assertTrue(table.isEmpty());
+        table.appendInsert("1,Main,Active,FALSE");
+
+        assertEquals(Arrays.asList(HEADER, "1,Main,Active,FALSE"), Files.readAllLines(missing));
+    }
+
+    @Test
+    void testBinaryTableImportsCsvOnceAndReopens() throws IOException {
+        BinaryRecordTable table = binaryTable();
+        table.appendUpdate("2", 3, "FALSE");
+        table.appendInsert("3,South,Active,FALSE");
+
+        // Later changes to the CSV no longer matter once the binary file exists
+        Files.write(csv, Arrays.asList(HEADER));
+
+        BinaryRecordTable reopened = binaryTable();
+        assertEquals(Arrays.asList(HEADER, "1,Main,Active,FALSE", "2,North,Active,FALSE", "3,South,Active,FALSE"),
+                reopened.readAllLines());
+
+        reopened.compact();
+        assertEquals(reopened.readAllLines(), binaryTable().readAllLines());
+    }
+
+    @Test
+    void testBinaryTableDropsTornRecord() throws IOException {
+        BinaryRecordTable table = binaryTable();
+        table.appendInsert("3,South,Active,FALSE");
+
+        Path bin = tempDir.resolve("Lots.bin");
+        long whole = Files.size(bin);
+        try (RandomAccessFile file = new RandomAccessFile(bin.toFile(), "rw")) {
+            file.setLength(whole - 5); // crash half way through the last append
+        }
+
+        // Reading leaves the partial record in place, in case its writer is still appending
+        BinaryRecordTable reopened = binaryTable();
+        List<String> lines = reopened.readAllLines();
+        assertEquals(new ArrayList<>(Arrays.asList(HEADER, "1,Main,Active,FALSE", "2,North,Active,TRUE")), lines);
+        assertEquals(whole - 5, Files.size(bin));
+
+        reopened.compact();
+        assertTrue(Files.size(bin) < whole - 5);
+        assertEquals(lines, binaryTable().readAllLines());
+    }
+
+    @Test
+    void testBinaryAppendAfterTornRecordIsReadable() throws IOException {
+        binaryTable().appendInsert("3,South,Active,FALSE");
+
+        Path bin = tempDir.resolve("Lots.bin");
+        try (RandomAccessFile file = new RandomAccessFile(bin.toFile(), "rw")) {
+            file.setLength(Files.size(bin) - 5);
+        }
+
+        binaryTable().appendInsert("4,East,Active,FALSE");
+        assertTrue(binaryTable().contains("4"));
+        assertFalse(binaryTable().contains("3"));
+    }
+
+    @Test
+    void testBinaryTableDropsRecordWithBadLength() throws IOException {
+        binaryTable().appendInsert("3,South,Active,FALSE");
+
+        Path bin = tempDir.resolve("Lots.bin");
+        long whole = Files.size(bin);
+        try (RandomAccessFile file = new RandomAccessFile(bin.toFile(), "rw")) {
+            file.seek(whole);
+            file.writeInt(Integer.MAX_VALUE); // a garbage prefix must not be allocated
+            file.writeInt(7);
+        }
+
+        BinaryRecordTable reopened = binaryTable();
+        assertEquals(4, reopened.readAllLines().size());
+
+        reopened.compact();
+        assertEquals(whole, Files.size(bin));
+    }
+
+    @Test
+    void testBinaryTableReloadsWhenChangedElsewhere() throws IOException {
+        BinaryRecordTable table = binaryTable();
+        BinaryRecordTable other = binaryTable();
+        assertEquals(3, table.readAllLines().size());
+
+        long before = table.getGeneration();
+        other.appendInsert("3,South,Active,FALSE");
+
+        // One change elsewhere is one new generation, not one per call that notices it
+        assertEquals(before + 1, table.getGeneration());
+        assertEquals(before + 1, table.getGeneration());
+        assertTrue(table.contains("3"));
+        assertEquals("FALSE", table.findRecord("3")[3]);
+
+        // Our own appends do not count as a change
+        long after = table.getGeneration();
+        table.appendUpdate("3", 2, "Closed");
+        assertEquals(after, table.getGeneration());
+    }
+
+    @Test
+    void testEngineSelection() {
+        assertEquals(CsvStorageEngine.NAME, Storage.forName("csv").getName());
+        assertEquals(BinaryStorageEngine.NAME, Storage.forName(" Binary ").getName());
+        assertThrows(IllegalArgumentException.class, () -> Storage.forName("oracle"));
+
+        Storage.setEngine(new BinaryStorageEngine());
+        assertTrue(Storage.getEngine().lots() instanceof BinaryRecordTable);
+        assertTrue(Storage.getEngine().spots() instanceof CsvRecordTable);
+
+        Storage.setEngine(new CsvStorageEngine());
+        assertTrue(Storage.getEngine().bookings() instanceof BookingWriteAheadLog);
+    }
+}
@@ -3,6 +3,10 @@ package com.company;
 import static org.junit.jupiter.api.Assertions.*;
 import org.junit.jupiter.api.*;
 
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
 public class RegisterationSystemTest {
 
     private RegisterationSystem registrationSystem;
@@ -232,4 +236,77 @@ public class RegisterationSystemTest {
         testSystem.registerUser(user);
         // No assertion needed as we're just testing method execution for coverage
     }
-}
\ No newline at end of file
+
+    private static User bulkUser(String name, String email, String password) {
+        User user = UserFactory.createUser("Visitor");
+        user.setName(name);
+        user.setEmail(email);
+        user.setPassword(password);
+        return user;
+    }
+
+    // bulk registration reports every row and writes the valid ones
+    @Test
+    public void testRegisterAll() {
+        String stamp = Long.toString(System.nanoTime());
+        String first = "bulk1." + stamp + "@example.com";
+        String second = "bulk2." + stamp + "@example.com";
+
+        List<User> batch = Arrays.asList(
+                bulkUser("Ann Lee", first, "StrongPassword123!"),
+                bulkUser("Bob Ng", second, "StrongPassword456!"),
+                bulkUser("Ann Lee", first, "StrongPassword123!"),
+                bulkUser("Solo", "bulk3." + stamp + "@example.com", "StrongPassword123!"),
+                bulkUser("Weak Pass", "bulk4." + stamp + "@example.com", "weak"),
+                null);
+
+        BulkImportReport report = registrationSystem.registerAll(batch);
+
+        assertEquals(6, report.getRows().size());
+        assertEquals(2, report.getRegisteredCount());
+        assertEquals(BulkImportReport.Outcome.DUPLICATE, report.getRows().get(2).getOutcome());
+        assertEquals(3, report.count(BulkImportReport.Outcome.INVALID));
+        assertEquals(4, report.getRejectedRows().size());
+
+        User stored = UserDatabaseHelper.getUserByEmail(second);
+        assertNotNull(stored);
+        assertTrue(PasswordHasher.matches("StrongPassword456!", stored.getPassword()));
+
+        // Registered users carry their hash and ID once the write has succeeded
+        assertEquals(stored.getPassword(), batch.get(1).getPassword());
+        assertEquals(stored.getUserID(), batch.get(1).getUserID());
+        assertNotEquals(UserDatabaseHelper.getUserByEmail(first).getUserID(), stored.getUserID());
+
+        // The same users a second time are all turned away
+        BulkImportReport again = registrationSystem.registerAll(Arrays.asList(
+                bulkUser("Ann Lee", first, "StrongPassword123!"),
+                bulkUser("Bob Ng", second, "StrongPassword456!")));
+        assertEquals(2, again.count(BulkImportReport.Outcome.ALREADY_REGISTERED));
+    }
+
+    @Test
+    public void testRegisterAllRejectsBeforeTouchingUsers() {
+        String stamp = Long.toString(System.nanoTime());
+
+        User student = UserFactory.createUser("Student");
+        student.setName("Not Listed");
+        student.setEmail("unlisted." + stamp + "@my.yorku.ca");
+        student.setPassword("StrongPassword123!");
+
+        // Looks like a stored hash, so the user takes it, but it is not a strong password
+        User prehashed = bulkUser("Pre Hashed", "prehashed." + stamp + "@example.com", PasswordHasher.hash("x"));
+
+        BulkImportReport report = registrationSystem.registerAll(Arrays.asList(student, prehashed));
+
+        assertEquals(BulkImportReport.Outcome.NOT_VALIDATED, report.getRows().get(0).getOutcome());
+        assertEquals(BulkImportReport.Outcome.INVALID, report.getRows().get(1).getOutcome());
+        assertEquals("StrongPassword123!", student.getPassword());
+        assertFalse(student.hasUserID());
+    }
+
+    @Test
+    public void testRegisterAllEmptyBatch() {
+        BulkImportReport report = registrationSystem.registerAll(Collections.emptyList());
+        assertTrue(report.getRows().isEmpty());
+    }
+}
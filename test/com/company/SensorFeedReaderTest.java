@@ -0,0 +1,93 @@
+package com.company;
+
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+public class SensorFeedReaderTest {
+
+    @TempDir
+    Path tempDir;
+
+    private Path feed;
+    private SensorFeedReader reader;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        feed = tempDir.resolve("sensor_timestamped.csv");
+        Files.write(feed, ("SensorID,CarDetected,Timestamp\n"
+                + "1,true,2025-04-11 12:30:45\n"
+                + "2,false,10:15\n").getBytes(StandardCharsets.UTF_8));
+        reader = new SensorFeedReader(feed.toString());
+    }
+
+    private void append(String text) throws IOException {
+        Files.write(feed, text.getBytes(StandardCharsets.UTF_8), StandardOpenOption.APPEND);
+    }
+
+    @Test
+    void testFirstPollSkipsHeader() {
+        List<SensorData> readings = reader.poll();
+
+        assertEquals(2, readings.size());
+        assertEquals(1, readings.get(0).getSpotID());
+        assertTrue(readings.get(0).isCarDetected());
+        assertEquals(feed.toFile().length(), reader.getOffset());
+    }
+
+    @Test
+    void testOnlyAppendedReadingsAreReturned() throws IOException {
+        reader.poll();
+        assertTrue(reader.poll().isEmpty());
+
+        append("3,true,2025-04-11 12:31:00\n");
+        List<SensorData> readings = reader.poll();
+
+        assertEquals(1, readings.size());
+        assertEquals(3, readings.get(0).getSpotID());
+    }
+
+    @Test
+    void testPartialLineWaitsForNewline() throws IOException {
+        reader.poll();
+
+        append("4,tr");
+        assertTrue(reader.poll().isEmpty());
+
+        append("ue,2025-04-11 12:32:00\n");
+        List<SensorData> readings = reader.poll();
+        assertEquals(1, readings.size());
+        assertTrue(readings.get(0).isCarDetected());
+    }
+
+    @Test
+    void testTruncatedFeedIsReadFromStart() throws IOException {
+        reader.poll();
+
+        Files.write(feed, "SensorID,CarDetected,Timestamp\n5,false,10:15\n".getBytes(StandardCharsets.UTF_8));
+        List<SensorData> readings = reader.poll();
+
+        assertEquals(1, readings.size());
+        assertEquals(5, readings.get(0).getSpotID());
+    }
+
+    @Test
+    void testMissingFeed() {
+        SensorFeedReader missing = new SensorFeedReader(tempDir.resolve("none.csv").toString());
+        assertTrue(missing.poll().isEmpty());
+    }
+
+    @Test
+    void testParseLineMalformed() {
+        assertNull(SensorFeedReader.parseLine("abc,true,10:15"));
+        assertNotNull(SensorFeedReader.parseLine("7,false,not-a-time"));
+    }
+}
@@ -0,0 +1,46 @@
+package com.company;
+
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+public class SensorTimestampParserTest {
+
+    @Test
+    void testDateTime() {
+        assertEquals(LocalDateTime.of(2025, 4, 11, 12, 30, 45), SensorTimestampParser.parse("2025-04-11 12:30:45"));
+        assertEquals(LocalDateTime.of(2025, 4, 11, 12, 30, 45), SensorTimestampParser.parse(" 2025-04-11 12:30:45 "));
+    }
+
+    @Test
+    void testTimeIsToday() {
+        assertEquals(LocalDate.now().atTime(10, 15), SensorTimestampParser.parse("10:15"));
+    }
+
+    @Test
+    void testMatchesFormatter() {
+        String text = "2024-02-29 23:59:59";
+        assertEquals(LocalDateTime.parse(text, SensorTimestampParser.DATE_TIME), SensorTimestampParser.parse(text));
+    }
+
+    @Test
+    void testRejectsWithoutThrowing() {
+        assertNull(SensorTimestampParser.parse(null));
+        assertNull(SensorTimestampParser.parse(""));
+        assertNull(SensorTimestampParser.parse("invalid-date"));
+        assertNull(SensorTimestampParser.parse("2025-13-01 00:00:00"));
+        assertNull(SensorTimestampParser.parse("2023-02-29 00:00:00"));
+        assertNull(SensorTimestampParser.parse("2025-04-11T12:30:45"));
+        assertNull(SensorTimestampParser.parse("24:00"));
+        assertNull(SensorTimestampParser.parse("1a:15"));
+    }
+
+    @Test
+    void testParseOrNowFallsBack() {
+        LocalDateTime before = LocalDateTime.now();
+        LocalDateTime parsed = SensorTimestampParser.parseOrNow("garbage");
+        assertFalse(parsed.isBefore(before));
+    }
+}
@@ -0,0 +1,61 @@
+package com.company;
+
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+
+public class SpaceStatusTest {
+
+    @Test
+    void testParsesLegacySpellings() {
+        assertEquals(SpaceStatus.AVAILABLE, SpaceStatus.parse("available"));
+        assertEquals(SpaceStatus.AVAILABLE, SpaceStatus.parse(" Available "));
+        assertEquals(SpaceStatus.OCCUPIED, SpaceStatus.parse("occupied"));
+        assertEquals(SpaceStatus.DISABLED, SpaceStatus.parse("DISABLED"));
+        assertEquals(SpaceStatus.UNKNOWN, SpaceStatus.parse("closed"));
+        assertEquals(SpaceStatus.UNKNOWN, SpaceStatus.parse(null));
+    }
+
+    @Test
+    void testCodesRoundTrip() {
+        for (SpaceStatus status : SpaceStatus.values())
+            assertEquals(status, SpaceStatus.fromCode(status.code()));
+        assertEquals(SpaceStatus.UNKNOWN, SpaceStatus.fromCode((byte) 99));
+    }
+
+    @Test
+    void testLotStatusAliases() {
+        assertEquals(LotStatus.ENABLED, LotStatus.parse("Active"));
+        assertEquals(LotStatus.ENABLED, LotStatus.parse("enabled"));
+        assertEquals(LotStatus.DISABLED, LotStatus.parse("closed"));
+        assertEquals(LotStatus.MAINTENANCE, LotStatus.parse("maintenance"));
+        assertEquals(LotStatus.UNKNOWN, LotStatus.parse("???"));
+    }
+
+    @Test
+    void testSpaceKeepsStringAndCode() {
+        ParkingSpace space = new ParkingSpace(1, 1, 101);
+        assertTrue(space.isAvailable());
+
+        space.setStatus("occupied");
+        assertEquals("occupied", space.getStatus());
+        assertEquals(SpaceStatus.OCCUPIED, space.getSpaceStatus());
+        assertFalse(space.isAvailable());
+
+        space.setSpaceStatus(SpaceStatus.DISABLED);
+        assertEquals("Disabled", space.getStatus());
+    }
+
+    @Test
+    void testLotKeepsStringAndCode() {
+        ParkingLot lot = new ParkingLot(1, "Main");
+        assertTrue(lot.isEnabled());
+
+        lot.setStatus("Active");
+        assertEquals("Active", lot.getStatus());
+        assertTrue(lot.isEnabled());
+
+        lot.setLotStatus(LotStatus.DISABLED);
+        assertEquals("disabled", lot.getStatus());
+        assertFalse(lot.isEnabled());
+    }
+}
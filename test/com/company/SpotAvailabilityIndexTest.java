@@ -0,0 +1,138 @@
+package com.company;
+
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Random;
+
+public class SpotAvailabilityIndexTest {
+
+    private static final String HEADER = "booking_id,user_id,spot_id,parking_id,plate,start,end,payment_status,amount,booking_status,total_amount";
+
+    @Test
+    void testBucketBoundaries() {
+        assertEquals(36, SpotAvailabilityIndex.firstFullBucket(9 * 3600));
+        assertEquals(37, SpotAvailabilityIndex.firstFullBucket(9 * 3600 + 1));
+        assertEquals(45, SpotAvailabilityIndex.lastFullBucket(11 * 3600 + 30 * 60));
+        assertEquals(45, SpotAvailabilityIndex.lastFullBucket(11 * 3600 + 30 * 60 - 1));
+        assertEquals(SpotAvailabilityIndex.BUCKETS - 1, SpotAvailabilityIndex.lastFullBucket(24 * 3600 - 1));
+    }
+
+    @Test
+    void testSparseSpotIDsGetDenseCounts() {
+        SpotAvailabilityIndex index = new SpotAvailabilityIndex();
+
+        index.add(2_000_000, 9 * 3600, 9 * 3600 + 600);
+        index.add(7, 9 * 3600, 9 * 3600 + 600);
+
+        assertEquals(2, index.indexedSpots());
+        assertEquals(1, index.countAt(2_000_000, 36));
+        assertTrue(index.bookedDuring(36, 36).get(2_000_000));
+
+        index.remove(2_000_000, 9 * 3600, 9 * 3600 + 600);
+        assertFalse(index.bookedDuring(36, 36).get(2_000_000));
+        assertTrue(index.bookedDuring(36, 36).get(7));
+    }
+
+    @Test
+    void testCountsDoNotWrap() {
+        SpotAvailabilityIndex index = new SpotAvailabilityIndex();
+
+        for (int i = 0; i < 70_000; i++)
+            index.add(3, 0, 60);
+        index.remove(3, 0, 60);
+
+        assertEquals(69_999, index.countAt(3, 0));
+        assertTrue(index.bookedDuring(0, 0).get(3));
+    }
+
+    @Test
+    void testAddAndRemoveKeepsCounts() {
+        SpotAvailabilityIndex index = new SpotAvailabilityIndex();
+
+        index.add(5, 9 * 3600, 10 * 3600);
+        index.add(5, 9 * 3600 + 1800, 9 * 3600 + 2700);
+        assertTrue(index.bookedDuring(38, 38).get(5));
+
+        // The second booking still covers bucket 38 after the first is removed
+        index.remove(5, 9 * 3600, 10 * 3600);
+        assertTrue(index.bookedDuring(38, 38).get(5));
+        assertFalse(index.bookedDuring(36, 36).get(5));
+
+        index.remove(5, 9 * 3600 + 1800, 9 * 3600 + 2700);
+        assertTrue(index.bookedDuring(0, SpotAvailabilityIndex.BUCKETS - 1).isEmpty());
+    }
+
+    @Test
+    void testIrregularBookingsAreCountedOnly() {
+        SpotAvailabilityIndex index = new SpotAvailabilityIndex();
+
+        index.add(1, 23 * 3600, 3600);
+        assertTrue(index.hasIrregularBookings());
+        assertTrue(index.bookedDuring(0, SpotAvailabilityIndex.BUCKETS - 1).isEmpty());
+
+        index.remove(1, 23 * 3600, 3600);
+        assertFalse(index.hasIrregularBookings());
+    }
+
+    @Test
+    void testBookedSpotsMatchLinearScan() {
+        Random random = new Random(7);
+        List<String> lines = new ArrayList<>();
+        lines.add(HEADER);
+        List<int[]> bookings = new ArrayList<>();
+
+        for (int i = 0; i < 3000; i++) {
+            int spot = random.nextInt(500);
+            int start = random.nextInt(23 * 60);
+            int end = start + 1 + random.nextInt(Math.min(240, 24 * 60 - start - 1));
+            bookings.add(new int[] {spot, start, end});
+            lines.add(String.format("B%d,1,%d,1,P,%02d:%02d,%02d:%02d,Pending,5.00,Active,5.00",
+                    i, spot, start / 60, start % 60, end / 60, end % 60));
+        }
+
+        BookingIntervalTree tree = new BookingIntervalTree();
+        tree.rebuild(lines, 1);
+
+        for (int q = 0; q < 300; q++) {
+            int start = random.nextInt(24 * 60);
+            int end = Math.min(24 * 60 - 1, start + random.nextInt(300));
+
+            BitSet expected = new BitSet();
+            for (int[] booking : bookings) {
+                if (booking[2] >= start && booking[1] <= end)
+                    expected.set(booking[0]);
+            }
+            assertEquals(expected, tree.bookedSpots(LocalTime.of(start / 60, start % 60), LocalTime.of(end / 60, end % 60)));
+        }
+    }
+
+    @Test
+    void testStoreTracksAvailableSpots() throws Exception {
+        Path dir = Files.createTempDirectory("spots");
+        Path snapshot = dir.resolve("spots.csv");
+        Files.write(snapshot, Arrays.asList(
+                "SpotID,LotID,Status,SensorID,NeedMaintenance",
+                "1,1,Available,1,FALSE",
+                "2,1,Occupied,2,FALSE",
+                "3,1,available,3,FALSE"));
+
+        ParkingSpaceStore store = new ParkingSpaceStore(snapshot.toString(), dir.resolve("journal.csv").toString());
+        BitSet available = store.getAvailableSpotIDs();
+        assertEquals(2, available.cardinality());
+        assertTrue(available.get(1) && available.get(3));
+
+        store.updateStatus(1, "Occupied");
+        store.updateStatus(2, "Available");
+        available = store.getAvailableSpotIDs();
+        assertFalse(available.get(1));
+        assertTrue(available.get(2));
+    }
+}
@@ -189,7 +189,7 @@ public class SuperManagerTest {
     @Test
     void testGetNextManagerID() throws Exception {
         // Use reflection to access the private method
-        Method method = SuperManager.class.getDeclaredMethod("getNextManagerID", String.class);
+        Method method = SuperManager.class.getDeclaredMethod("getNextManagerID", RecordTable.class);
         method.setAccessible(true);
 
         // We'll use a temporary file to test this method
@@ -203,8 +203,8 @@ public class SuperManagerTest {
             writer.println("42,Admin42,password,TRUE");
         }
 
-        // Invoke the method with our test file
-        Object result = method.invoke(sm, tempFile.getAbsolutePath());
+        // Invoke the method with a table over our test file
+        Object result = method.invoke(sm, new CsvRecordTable(tempFile.getAbsolutePath(), 0, StorageTable.MANAGERS.getHeader()));
 
         // The result should be the next ID (43 in this case)
         assertTrue(result instanceof Integer);
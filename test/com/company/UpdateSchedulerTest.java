@@ -0,0 +1,105 @@
+package com.company;
+
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class UpdateSchedulerTest {
+
+    private UpdateScheduler scheduler;
+
+    @BeforeEach
+    void setUp() {
+        scheduler = new UpdateScheduler();
+    }
+
+    @AfterEach
+    void tearDown() {
+        scheduler.shutdown();
+    }
+
+    @Test
+    void testJobRunsRepeatedly() throws InterruptedException {
+        // Runs are chained, so the fourth only starts once the third has been recorded
+        CountDownLatch runs = new CountDownLatch(4);
+        scheduler.schedule("tick", runs::countDown, 0, 10, 0);
+
+        assertTrue(runs.await(5, TimeUnit.SECONDS));
+        assertTrue(scheduler.getStats("tick").getRuns() >= 3);
+    }
+
+    @Test
+    void testFailingRunDoesNotStopJob() throws InterruptedException {
+        CountDownLatch runs = new CountDownLatch(4);
+        scheduler.schedule("flaky", () -> {
+            runs.countDown();
+            throw new IllegalStateException("boom");
+        }, 0, 10, 5);
+
+        assertTrue(runs.await(5, TimeUnit.SECONDS));
+        assertTrue(scheduler.getStats("flaky").getFailures() >= 2);
+    }
+
+    @Test
+    void testOverlappingRunIsSkipped() throws InterruptedException {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        scheduler.schedule("slow", () -> {
+            started.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            }
+            catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }, 0, 60000, 0);
+
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        assertFalse(scheduler.runNow("slow"));
+        release.countDown();
+
+        assertEquals(1, scheduler.getStats("slow").getSkipped());
+    }
+
+    @Test
+    void testRunNowRecordsDuration() {
+        AtomicInteger calls = new AtomicInteger();
+        scheduler.schedule("manual", calls::incrementAndGet, 60000, 60000, 0);
+
+        assertTrue(scheduler.runNow("manual"));
+        assertEquals(1, calls.get());
+        assertEquals(1, scheduler.getStats("manual").getRuns());
+        assertTrue(scheduler.getStats("manual").getMaxDurationNanos() >= 0);
+    }
+
+    @Test
+    void testCancelAndUnknownJobs() {
+        scheduler.schedule("gone", () -> { }, 60000, 60000, 0);
+
+        assertTrue(scheduler.cancel("gone"));
+        assertNull(scheduler.getStats("gone"));
+        assertFalse(scheduler.runNow("gone"));
+        assertFalse(scheduler.reschedule("gone", 1000, 0));
+    }
+
+    @Test
+    void testInvalidTiming() {
+        assertThrows(IllegalArgumentException.class, () -> scheduler.schedule("bad", () -> { }, 0, 0, 0));
+        assertThrows(IllegalArgumentException.class, () -> scheduler.schedule("bad", () -> { }, 0, 10, -1));
+    }
+
+    @Test
+    void testWakeBringsRunForward() throws InterruptedException {
+        CountDownLatch ran = new CountDownLatch(1);
+        scheduler.schedule("sleepy", ran::countDown, 60000, 60000, 0);
+
+        assertTrue(scheduler.wake("sleepy", 10));
+        assertTrue(ran.await(5, TimeUnit.SECONDS));
+        assertFalse(scheduler.wake("unknown", 10));
+    }
+}
@@ -37,6 +37,34 @@ public class UserDatabaseHelperTest {
         assertFalse(UserDatabaseHelper.addUser(user));
     }
 
+    @Test
+    public void testAddUsersRejectsTakenEmailsAndIDs() {
+        String suffix = Long.toString(System.nanoTime());
+
+        User first = newUser("bulk1-" + suffix + "@email.com");
+        User repeated = newUser("bulk1-" + suffix + "@email.com");
+        assertFalse(UserDatabaseHelper.addUsers(java.util.Arrays.asList(first, repeated)));
+        assertFalse(UserDatabaseHelper.isEmailRegistered(first.getEmail()));
+
+        User saved = newUser("bulk2-" + suffix + "@email.com");
+        assertTrue(UserDatabaseHelper.addUsers(java.util.Collections.singletonList(saved)));
+        assertTrue(UserDatabaseHelper.isEmailRegistered(saved.getEmail()));
+
+        User sameID = newUser("bulk3-" + suffix + "@email.com");
+        sameID.setUserID(saved.getUserID());
+        assertFalse(UserDatabaseHelper.addUsers(java.util.Collections.singletonList(sameID)));
+        assertFalse(UserDatabaseHelper.isEmailRegistered(sameID.getEmail()));
+    }
+
+    private static User newUser(String email) {
+        User user = new User();
+        user.setEmail(email);
+        user.setPassword("Strong123!");
+        user.setName("Bulk User");
+        user.setType("Visitor");
+        return user;
+    }
+
     @Test
     public void testUpdateUserPasswordSuccess() {
         UserDatabaseHelper db = new UserDatabaseHelper();
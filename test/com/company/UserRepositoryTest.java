@@ -0,0 +1,127 @@
+package com.company;
+
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Collections;
+
+public class UserRepositoryTest {
+
+    private static final String HEADER = "UserID,Email,Password,FirstName,LastName,UserType,Status";
+
+    @TempDir
+    Path dir;
+
+    private Path writeUsers(String... rows) throws Exception {
+        Path file = dir.resolve("users.csv");
+        Files.write(file, Collections.singletonList(HEADER));
+        Files.write(file, Arrays.asList(rows), StandardOpenOption.APPEND);
+        return file;
+    }
+
+    @Test
+    void testLookupsByEmailAndID() throws Exception {
+        UserRepository repository = new UserRepository(writeUsers(
+                "1001,a@yorku.ca,hash1,Ann,Lee,Student,TBD",
+                "1002,b@yorku.ca,hash2,Bob,Ng,Faculty,TBD").toString());
+
+        assertEquals("1002", repository.findByEmail("b@yorku.ca")[0]);
+        assertEquals("Student", repository.findByID(1001)[5]);
+        assertNull(repository.findByEmail("c@yorku.ca"));
+        assertNull(repository.findByID(9999));
+        assertEquals(1002, repository.getLastUserID());
+
+        // All lookups were answered from a single parse
+        assertEquals(1, repository.getLoadCount());
+    }
+
+    @Test
+    void testFirstRowWinsAndShortRowsOnlyCountTowardsLastID() throws Exception {
+        UserRepository repository = new UserRepository(writeUsers(
+                "1001,a@yorku.ca,first,Ann,Lee,Student,TBD",
+                "1002,a@yorku.ca,second,Ann,Lee,Student,TBD",
+                "1500,short@yorku.ca").toString());
+
+        assertEquals("first", repository.findByEmail("a@yorku.ca")[2]);
+        assertNull(repository.findByEmail("short@yorku.ca"));
+        assertEquals(1500, repository.getLastUserID());
+    }
+
+    @Test
+    void testReturnedRowsAreCopies() throws Exception {
+        UserRepository repository = new UserRepository(writeUsers("1001,a@yorku.ca,hash,Ann,Lee,Student,TBD").toString());
+
+        repository.findByID(1001)[2] = "changed";
+        assertEquals("hash", repository.findByID(1001)[2]);
+    }
+
+    @Test
+    void testReloadsAfterInvalidateOrFileChange() throws Exception {
+        Path file = writeUsers("1001,a@yorku.ca,hash,Ann,Lee,Student,TBD");
+        UserRepository repository = new UserRepository(file.toString());
+        assertEquals(1001, repository.getLastUserID());
+
+        repository.invalidate();
+        repository.getLastUserID();
+        assertEquals(2, repository.getLoadCount());
+
+        Files.write(file, Collections.singletonList("1002,b@yorku.ca,hash,Bob,Ng,Staff,TBD"), StandardOpenOption.APPEND);
+        assertEquals("Staff", repository.findByEmail("b@yorku.ca")[5]);
+        assertEquals(3, repository.getLoadCount());
+    }
+
+    @Test
+    void testMissingFileHasNoUsers() {
+        UserRepository repository = new UserRepository(dir.resolve("missing.csv").toString());
+
+        assertNull(repository.findByEmail("a@yorku.ca"));
+        assertEquals(1000, repository.getLastUserID());
+    }
+
+    @Test
+    void testFilterAnswersUnregisteredEmails() throws Exception {
+        UserRepository repository = new UserRepository(writeUsers(
+                "1001,a@yorku.ca,hash,Ann,Lee,Student,TBD").toString());
+
+        assertTrue(repository.isRegistered("a@yorku.ca"));
+        for (int i = 0; i < 1000; i++)
+            assertFalse(repository.isRegistered("new" + i + "@yorku.ca"));
+        assertFalse(repository.isRegistered(null));
+
+        assertEquals(1, repository.getLoadCount());
+        assertEquals(1000, repository.getFilterRejections() + repository.getFalsePositives());
+        assertTrue(repository.getFalsePositiveRate() < 0.05);
+    }
+
+    @Test
+    void testSignUpKeepsFilterWithoutReload() throws Exception {
+        Path file = writeUsers("1001,a@yorku.ca,hash,Ann,Lee,Student,TBD");
+        UserRepository repository = new UserRepository(file.toString());
+        assertFalse(repository.isRegistered("b@yorku.ca"));
+
+        // What UserDatabaseHelper.addUser does: write the row, then report the new email
+        Files.write(file, Collections.singletonList("1002,b@yorku.ca,hash,Bob,Ng,Staff,TBD"), StandardOpenOption.APPEND);
+        repository.userAdded("b@yorku.ca");
+
+        assertFalse(repository.isRegistered("c@yorku.ca"));
+        assertEquals(1, repository.getLoadCount());
+
+        assertTrue(repository.isRegistered("b@yorku.ca"));
+        assertEquals(2, repository.getLoadCount());
+    }
+
+    @Test
+    void testFilterRebuiltAfterOutsideChange() throws Exception {
+        Path file = writeUsers("1001,a@yorku.ca,hash,Ann,Lee,Student,TBD");
+        UserRepository repository = new UserRepository(file.toString());
+        assertFalse(repository.isRegistered("b@yorku.ca"));
+
+        Files.write(file, Collections.singletonList("1002,b@yorku.ca,hash,Bob,Ng,Staff,TBD"), StandardOpenOption.APPEND);
+        assertTrue(repository.isRegistered("b@yorku.ca"));
+    }
+}
@@ -16,12 +16,16 @@ public class UserTest {
 	}
 
 	@Test
-	public void testConstructorIncrementUserID() {
+	public void testConstructorLeavesIDUnassigned() {
 
-		int lastID = UserDatabaseHelper.getLastUserID();
 		User u = new User();
+		assertFalse(u.hasUserID());
+		assertEquals(User.UNASSIGNED_ID, u.getUserID());
 
-		assertEquals(lastID + 1, u.getUserID());
+		u.setUserID(1200);
+		assertTrue(u.hasUserID());
+		assertEquals(1200, u.getUserID());
+		assertTrue(new User(10).hasUserID());
 	}
 
 	@Test
@@ -93,7 +97,7 @@ public class UserTest {
 		assertNull(user.getEmail());
 		assertNull(user.getPassword());
 		assertNull(user.getType());
-		assertTrue(user.getUserID() > 0);
+		assertEquals(User.UNASSIGNED_ID, user.getUserID());
 	}
 
 	@Test
@@ -0,0 +1,133 @@
+package com.company;
+
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+public class UserTypeCacheTest {
+
+    @TempDir
+    Path dir;
+
+    private UserRepository repository(String... rows) throws Exception {
+        List<String> lines = new ArrayList<>();
+        lines.add("UserID,Email,Password,FirstName,LastName,UserType,Status");
+        lines.addAll(Arrays.asList(rows));
+        Path file = dir.resolve("users.csv");
+        Files.write(file, lines);
+        return new UserRepository(file.toString());
+    }
+
+    @Test
+    void testRepeatedLookupsAreHits() throws Exception {
+        UserRepository repository = repository(
+                "1001,a@yorku.ca,h,Ann,Lee,Student,TBD",
+                "1002,b@yorku.ca,h,Bob,Ng,Faculty,TBD");
+        UserTypeCache cache = new UserTypeCache(16, () -> repository);
+
+        assertEquals("Student", cache.get(1001));
+        assertEquals("Student", cache.get(1001));
+        assertEquals("Faculty", cache.get(1002));
+        assertEquals("Faculty", cache.get(1002));
+        assertEquals("Student", cache.get(1001));
+
+        assertEquals(3, cache.getHits());
+        assertTrue(cache.getMisses() >= 2);
+        assertEquals(1, repository.getLoadCount());
+    }
+
+    @Test
+    void testUnknownUsersAreCachedAsNull() throws Exception {
+        UserRepository repository = repository("1001,a@yorku.ca,h,Ann,Lee,Student,TBD");
+        UserTypeCache cache = new UserTypeCache(16, () -> repository);
+
+        cache.get(1001); // warm up after the initial load
+        assertNull(cache.get(4242));
+        long hits = cache.getHits();
+        assertNull(cache.get(4242));
+        assertEquals(hits + 1, cache.getHits());
+    }
+
+    @Test
+    void testLeastRecentlyUsedEntryIsEvicted() throws Exception {
+        UserRepository repository = repository(
+                "1001,a@yorku.ca,h,Ann,Lee,Student,TBD",
+                "1002,b@yorku.ca,h,Bob,Ng,Faculty,TBD",
+                "1003,c@yorku.ca,h,Cat,Wu,Visitor,TBD");
+        UserTypeCache cache = new UserTypeCache(2, () -> repository);
+
+        cache.get(1001);
+        cache.get(1001);
+        cache.get(1002);
+        cache.get(1001); // 1002 is now the eldest
+        cache.get(1003);
+
+        assertEquals(2, cache.size());
+        assertEquals(1, cache.getEvictions());
+
+        long misses = cache.getMisses();
+        cache.get(1001);
+        assertEquals(misses, cache.getMisses());
+        cache.get(1002);
+        assertEquals(misses + 1, cache.getMisses());
+    }
+
+    @Test
+    void testInvalidateDropsCachedTypes() throws Exception {
+        UserRepository repository = repository("1001,a@yorku.ca,h,Ann,Lee,Student,TBD");
+        UserTypeCache cache = new UserTypeCache(16, () -> repository);
+        cache.get(1001);
+        cache.get(1001);
+
+        Files.write(dir.resolve("users.csv"), Arrays.asList(
+                "UserID,Email,Password,FirstName,LastName,UserType,Status",
+                "1001,a@yorku.ca,h,Ann,Lee,Faculty,TBD"));
+        repository.invalidate();
+
+        assertEquals("Faculty", cache.get(1001));
+    }
+
+    @Test
+    void testConcurrentLookups() throws Exception {
+        List<String> rows = new ArrayList<>();
+        for (int id = 1001; id <= 1100; id++)
+            rows.add(id + ",u" + id + "@yorku.ca,h,F,L," + (id % 2 == 0 ? "Student" : "Faculty") + ",TBD");
+        UserRepository repository = repository(rows.toArray(new String[0]));
+        UserTypeCache cache = new UserTypeCache(32, () -> repository);
+
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        List<Future<Boolean>> results = new ArrayList<>();
+
+        for (int t = 0; t < 8; t++) {
+            final int seed = t;
+            results.add(pool.submit(() -> {
+                for (int i = 0; i < 2000; i++) {
+                    int id = 1001 + (i * 7 + seed) % 100;
+                    if (!(id % 2 == 0 ? "Student" : "Faculty").equals(cache.get(id)))
+                        return false;
+                }
+                return true;
+            }));
+        }
+        for (Future<Boolean> result : results)
+            assertTrue(result.get());
+        pool.shutdown();
+
+        assertEquals(16000, cache.getHits() + cache.getMisses());
+        assertTrue(cache.size() <= 32);
+    }
+
+    @Test
+    void testRejectsNonPositiveCapacity() {
+        assertThrows(IllegalArgumentException.class, () -> new UserTypeCache(0));
+    }
+}
@@ -0,0 +1,83 @@
+package com.company;
+
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+
+public class YorkUDirectoryTest {
+
+    private static final String HEADER = "UserType,FirstName,LastName,Email";
+
+    @TempDir
+    Path dir;
+
+    private Path writeDirectory(String... rows) throws Exception {
+        Path file = dir.resolve("YU_Database.csv");
+        Files.write(file, Collections.singletonList(HEADER));
+        Files.write(file, Arrays.asList(rows), StandardOpenOption.APPEND);
+        return file;
+    }
+
+    @Test
+    void testLookupIgnoresCaseAndSpaces() throws Exception {
+        YorkUDirectory directory = new YorkUDirectory(writeDirectory(
+                "Student,Ann,Lee,Ann.Lee@my.yorku.ca",
+                "Faculty Member,Bob,Ng, bob@yorku.ca ").toString());
+
+        assertEquals("Student", directory.lookup("ann.lee@MY.YORKU.CA"));
+        assertEquals("Faculty Member", directory.lookup(" Bob@yorku.ca"));
+        assertNull(directory.lookup("random@gmail.com"));
+        assertNull(directory.lookup(null));
+
+        assertEquals(1, directory.getLoadCount());
+    }
+
+    @Test
+    void testFirstRowWinsAndShortRowsAreSkipped() throws Exception {
+        YorkUDirectory directory = new YorkUDirectory(writeDirectory(
+                "Student,Ann,Lee,ann@yorku.ca",
+                "Non-Faculty Staff,Ann,Lee,ANN@yorku.ca",
+                "Student,short").toString());
+
+        assertEquals("Student", directory.lookup("ann@yorku.ca"));
+        assertEquals(1, directory.size());
+    }
+
+    @Test
+    void testReloadsWhenFileChanges() throws Exception {
+        Path file = writeDirectory("Student,Ann,Lee,ann@yorku.ca");
+        YorkUDirectory directory = new YorkUDirectory(file.toString());
+        assertNull(directory.lookup("bob@yorku.ca"));
+
+        Files.write(file, Collections.singletonList("Faculty Member,Bob,Ng,bob@yorku.ca"), StandardOpenOption.APPEND);
+        assertEquals("Faculty Member", directory.lookup("bob@yorku.ca"));
+        assertEquals(2, directory.getLoadCount());
+    }
+
+    @Test
+    void testBatchLookupKeepsOrder() throws Exception {
+        YorkUDirectory directory = new YorkUDirectory(writeDirectory(
+                "Student,Ann,Lee,ann@yorku.ca",
+                "Faculty Member,Bob,Ng,bob@yorku.ca").toString());
+
+        Map<String, String> types = directory.lookupAll(Arrays.asList("bob@yorku.ca", "nobody@yorku.ca", "ANN@yorku.ca"));
+
+        assertEquals(Arrays.asList("bob@yorku.ca", "nobody@yorku.ca", "ANN@yorku.ca"), Arrays.asList(types.keySet().toArray()));
+        assertEquals(Arrays.asList("Faculty Member", null, "Student"), Arrays.asList(types.values().toArray()));
+    }
+
+    @Test
+    void testMissingFileListsNobody() {
+        YorkUDirectory directory = new YorkUDirectory(dir.resolve("missing.csv").toString());
+
+        assertNull(directory.lookup("ann@yorku.ca"));
+        assertEquals(0, directory.size());
+    }
+}